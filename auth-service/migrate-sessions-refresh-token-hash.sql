@@ -0,0 +1,29 @@
+-- =====================================================
+-- Sessions: store refresh tokens as SHA-256 digests
+-- Run once on existing databases (Supabase SQL Editor or psql)
+-- before starting the new auth-service version.
+-- New databases get this schema from Hibernate.
+-- =====================================================
+
+-- Drop sessions that are already expired instead of migrating them
+DELETE FROM sessions WHERE expires_at < now();
+
+-- Digest column, backfilled from the raw token (PostgreSQL 11+)
+ALTER TABLE sessions ADD COLUMN IF NOT EXISTS refresh_token_hash VARCHAR(64);
+UPDATE sessions
+SET refresh_token_hash = encode(sha256(convert_to(refresh_token, 'UTF8')), 'hex')
+WHERE refresh_token_hash IS NULL;
+ALTER TABLE sessions ALTER COLUMN refresh_token_hash SET NOT NULL;
+
+-- The raw token is no longer kept
+ALTER TABLE sessions DROP COLUMN IF EXISTS refresh_token;
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_sessions_refresh_token_hash ON sessions (refresh_token_hash);
+CREATE INDEX IF NOT EXISTS ix_sessions_user_id_expires_at ON sessions (user_id, expires_at);
+CREATE INDEX IF NOT EXISTS ix_sessions_expires_at ON sessions (expires_at);
+
+-- Verify
+SELECT
+    COUNT(*) AS total_sessions,
+    COUNT(*) FILTER (WHERE refresh_token_hash IS NULL) AS missing_hash
+FROM sessions;
@@ -0,0 +1,52 @@
+package com.evdms.authservice.config;
+
+import org.springframework.boot.actuate.info.Info;
+import org.springframework.boot.actuate.info.InfoContributor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Map;
+
+/**
+ * BCrypt cost chosen for this host, published under {@code passwordHashing} in {@code /actuator/info}.
+ * <p>
+ * {@link #calibrate} times a few hashes at the minimum strength and raises the strength
+ * while the estimated hash time stays within the target; each step doubles the work.
+ * The minimum is a floor, so a slow host never weakens hashes.
+ */
+public record PasswordHashCalibration(String algorithm, int strength, long targetMillis, double estimatedMillis,
+        boolean calibrated) implements InfoContributor {
+
+    private static final String PROBE = "calibration-probe";
+
+    public static PasswordHashCalibration fixed(int strength) {
+        return new PasswordHashCalibration("bcrypt", strength, 0, 0, false);
+    }
+
+    public static PasswordHashCalibration calibrate(long targetMillis, int minStrength, int maxStrength) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minStrength);
+        probe.encode(PROBE); // warm-up
+        long bestNanos = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            probe.encode(PROBE);
+            bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+        }
+        int strength = minStrength;
+        double estimate = bestNanos / 1_000_000.0;
+        while (strength < maxStrength && estimate * 2 <= targetMillis) {
+            strength++;
+            estimate *= 2;
+        }
+        return new PasswordHashCalibration("bcrypt", strength, targetMillis, estimate, true);
+    }
+
+    @Override
+    public void contribute(Info.Builder builder) {
+        builder.withDetail("passwordHashing", Map.of(
+                "algorithm", algorithm,
+                "strength", strength,
+                "calibrated", calibrated,
+                "targetMillis", targetMillis,
+                "estimatedMillis", Math.round(estimatedMillis)));
+    }
+}
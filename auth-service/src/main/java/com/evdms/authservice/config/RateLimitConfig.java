@@ -0,0 +1,21 @@
+package com.evdms.authservice.config;
+
+import com.evdms.authservice.service.RedisRateLimiter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * Enables cluster-wide rate limiting with {@code rate-limit.store=redis}. Without it
+ * {@link com.evdms.authservice.service.RateLimiterService} keeps all counters in memory.
+ */
+@Configuration
+@ConditionalOnProperty(name = "rate-limit.store", havingValue = "redis")
+public class RateLimitConfig {
+
+    @Bean(initMethod = "loadScripts")
+    public RedisRateLimiter redisRateLimiter(StringRedisTemplate redisTemplate, RateLimitProperties properties) {
+        return new RedisRateLimiter(redisTemplate, properties.allPolicies());
+    }
+}
@@ -0,0 +1,155 @@
+package com.evdms.authservice.config;
+
+import com.evdms.authservice.service.ExpiringEntryStore;
+import com.evdms.authservice.service.GcraPolicy;
+import com.evdms.authservice.service.RateLimitPolicy;
+import com.evdms.authservice.service.SlidingWindowLogPolicy;
+import com.evdms.authservice.service.TokenBucketPolicy;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Rate limit policies. {@code rate-limit.login.*} configures the login policy; any other
+ * named policy goes under {@code rate-limit.policies.<name>.*}, e.g.
+ * <pre>
+ * rate-limit.policies.refresh.algorithm=TOKEN_BUCKET
+ * rate-limit.policies.refresh.max-attempts=30
+ * rate-limit.policies.refresh.window-minutes=1
+ * rate-limit.policies.refresh.burst=10
+ * </pre>
+ * {@code rate-limit.store} selects where counters live: {@code memory} (per replica) or
+ * {@code redis} (shared by all replicas, falling back to memory while Redis is unreachable).
+ */
+@Component
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    public enum Algorithm {
+        /** Exact: at most max-attempts in any window. Memory grows with max-attempts. */
+        SLIDING_LOG,
+        /** Refills max-attempts per window continuously, holding at most burst tokens. */
+        TOKEN_BUCKET,
+        /** Spaces requests window / max-attempts apart, allowing burst back to back. */
+        GCRA
+    }
+
+    public static class Policy {
+        private Algorithm algorithm = Algorithm.SLIDING_LOG;
+        private int maxAttempts = 5;
+        private long windowMinutes = 15;
+        // Defaults to maxAttempts; ignored by SLIDING_LOG
+        private Integer burst;
+
+        public RateLimitPolicy build() {
+            long windowMillis = windowMinutes * 60_000;
+            return switch (algorithm) {
+                case SLIDING_LOG -> new SlidingWindowLogPolicy(maxAttempts, windowMillis);
+                case TOKEN_BUCKET -> new TokenBucketPolicy(maxAttempts, windowMillis, effectiveBurst());
+                case GCRA -> new GcraPolicy(maxAttempts, windowMillis, effectiveBurst());
+            };
+        }
+
+        public int effectiveBurst() {
+            return burst != null ? burst : maxAttempts;
+        }
+
+        public Algorithm getAlgorithm() {
+            return algorithm;
+        }
+
+        public void setAlgorithm(Algorithm algorithm) {
+            this.algorithm = algorithm;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public long getWindowMinutes() {
+            return windowMinutes;
+        }
+
+        public void setWindowMinutes(long windowMinutes) {
+            this.windowMinutes = windowMinutes;
+        }
+
+        public Integer getBurst() {
+            return burst;
+        }
+
+        public void setBurst(Integer burst) {
+            this.burst = burst;
+        }
+    }
+
+    private String store = "memory";
+    // After a Redis failure, checks stay local for this long before Redis is tried again
+    private long fallbackRetryMs = 5_000;
+    private int maxEntries = 100_000;
+    private ExpiringEntryStore.OverloadPolicy overloadPolicy = ExpiringEntryStore.OverloadPolicy.REJECT_NEW;
+    private Policy login = new Policy();
+    private Map<String, Policy> policies = new LinkedHashMap<>();
+
+    /** The login policy plus every entry of {@code policies}, by name. */
+    public Map<String, Policy> allPolicies() {
+        Map<String, Policy> all = new LinkedHashMap<>();
+        all.put("login", login);
+        all.putAll(policies);
+        return all;
+    }
+
+    public String getStore() {
+        return store;
+    }
+
+    public void setStore(String store) {
+        this.store = store;
+    }
+
+    public long getFallbackRetryMs() {
+        return fallbackRetryMs;
+    }
+
+    public void setFallbackRetryMs(long fallbackRetryMs) {
+        this.fallbackRetryMs = fallbackRetryMs;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public ExpiringEntryStore.OverloadPolicy getOverloadPolicy() {
+        return overloadPolicy;
+    }
+
+    public void setOverloadPolicy(ExpiringEntryStore.OverloadPolicy overloadPolicy) {
+        this.overloadPolicy = overloadPolicy;
+    }
+
+    public Policy getLogin() {
+        return login;
+    }
+
+    public void setLogin(Policy login) {
+        this.login = login;
+    }
+
+    public Map<String, Policy> getPolicies() {
+        return policies;
+    }
+
+    public void setPolicies(Map<String, Policy> policies) {
+        this.policies = policies;
+    }
+}
@@ -1,7 +1,15 @@
 package com.evdms.authservice.config;
 
 import com.evdms.authservice.service.CustomUserDetailsService;
-import com.evdms.authservice.service.JwtAuthenticationFilter;
+import com.evdms.authservice.service.SigningKeys;
+import com.evdms.authservice.service.TokenBlacklistService;
+import com.evdms.security.core.JwtAuthenticationFilter;
+import com.evdms.security.core.JwtVerifier;
+import com.evdms.security.core.TokenRevocationCheck;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -11,6 +19,7 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -19,12 +28,15 @@ import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.List;
+import java.util.Map;
 
 @Configuration
 @EnableWebSecurity
 @org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity
 public class SecurityConfig {
 
+        private static final Logger logger = LoggerFactory.getLogger(SecurityConfig.class);
+
         private final CustomUserDetailsService userDetailsService;
 
         public SecurityConfig(CustomUserDetailsService userDetailsService) {
@@ -55,6 +67,8 @@ public class SecurityConfig {
                                                 .requestMatchers("/api/v1/auth/logout-all").permitAll()
                                                 .requestMatchers("/api/v1/auth/promote-to-admin").permitAll()
                                                 .requestMatchers("/api/v1/auth/test").permitAll()
+                                                // Public verification keys for the other services
+                                                .requestMatchers("/.well-known/jwks.json").permitAll()
                                                 // Actuator health/info for monitoring
                                                 .requestMatchers("/actuator/**").permitAll()
                                                 // H2 Console (dev only)
@@ -66,6 +80,22 @@ public class SecurityConfig {
                 return http.build();
         }
 
+        // Verifies against the local key set instead of fetching our own JWKS over HTTP
+        @Bean
+        public JwtVerifier jwtVerifier(SigningKeys signingKeys, MeterRegistry meterRegistry,
+                        @Value("${security.jwt.cache.enabled:true}") boolean cacheEnabled,
+                        @Value("${security.jwt.cache.max-size:10000}") long cacheMaxSize) {
+                JwtVerifier verifier = new JwtVerifier(signingKeys.locator(), cacheEnabled, cacheMaxSize);
+                verifier.bindTo(meterRegistry);
+                return verifier;
+        }
+
+        // Logged-out access tokens are rejected by the shared JWT filter
+        @Bean
+        public TokenRevocationCheck tokenRevocationCheck(TokenBlacklistService tokenBlacklistService) {
+                return tokenBlacklistService::isBlacklisted;
+        }
+
         @Bean
         public CorsConfigurationSource corsConfigurationSource() {
                 CorsConfiguration configuration = new CorsConfiguration();
@@ -81,9 +111,30 @@ public class SecurityConfig {
                 return source;
         }
 
+        // security.password-hashing.bcrypt.strength > 0 pins the cost; 0 calibrates against target-ms
+        @Bean
+        public PasswordHashCalibration passwordHashCalibration(
+                        @Value("${security.password-hashing.bcrypt.strength:0}") int strength,
+                        @Value("${security.password-hashing.target-ms:250}") long targetMillis,
+                        @Value("${security.password-hashing.bcrypt.min-strength:10}") int minStrength,
+                        @Value("${security.password-hashing.bcrypt.max-strength:14}") int maxStrength) {
+                PasswordHashCalibration calibration = strength > 0
+                                ? PasswordHashCalibration.fixed(strength)
+                                : PasswordHashCalibration.calibrate(targetMillis, minStrength, maxStrength);
+                logger.info("Password hashing: bcrypt strength {} (estimated {} ms, target {} ms)",
+                                calibration.strength(), Math.round(calibration.estimatedMillis()), targetMillis);
+                return calibration;
+        }
+
+        // New hashes are stored as {bcrypt}<hash>. Hashes written before the prefix existed are plain
+        // BCrypt; they still match and report upgradeEncoding() so login rewrites them, as it does for
+        // any hash below the current strength.
         @Bean
-        public PasswordEncoder passwordEncoder() {
-                return new BCryptPasswordEncoder();
+        public PasswordEncoder passwordEncoder(PasswordHashCalibration calibration) {
+                DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt",
+                                Map.of("bcrypt", new BCryptPasswordEncoder(calibration.strength())));
+                encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+                return encoder;
         }
 
         @Bean
@@ -0,0 +1,46 @@
+package com.evdms.authservice.config;
+
+import com.evdms.authservice.entity.Session;
+import com.evdms.authservice.repository.SessionRepository;
+import com.evdms.authservice.service.ExpiringEntryStore;
+import com.evdms.authservice.service.JpaSessionStore;
+import com.evdms.authservice.service.SessionStore;
+import com.evdms.authservice.service.WriteBehindSessionStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Selects the session store with {@code security.sessions.store}: {@code memory} (default, hot
+ * tier with write-behind, single replica) or {@code database} (write-through, any number of replicas).
+ */
+@Configuration
+public class SessionStoreConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "security.sessions.store", havingValue = "memory", matchIfMissing = true)
+    public SessionStore writeBehindSessionStore(SessionRepository sessionRepository, EntityManager entityManager,
+            JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, MeterRegistry meterRegistry,
+            @Qualifier("applicationTaskExecutor") Executor taskExecutor,
+            @Value("${security.sessions.max-entries:200000}") int maxEntries,
+            @Value("${security.sessions.write-behind.max-pending:5000}") int maxPending) {
+        ExpiringEntryStore<String, Session> hot = new ExpiringEntryStore<>("sessions", maxEntries,
+                ExpiringEntryStore.OverloadPolicy.EVICT_SOONEST_EXPIRING, meterRegistry);
+        return new WriteBehindSessionStore(sessionRepository, entityManager, jdbcTemplate, transactionTemplate, hot,
+                maxPending, taskExecutor, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "security.sessions.store", havingValue = "database")
+    public SessionStore jpaSessionStore(SessionRepository sessionRepository, EntityManager entityManager) {
+        return new JpaSessionStore(sessionRepository, entityManager);
+    }
+}
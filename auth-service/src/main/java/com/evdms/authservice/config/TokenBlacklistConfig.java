@@ -0,0 +1,53 @@
+package com.evdms.authservice.config;
+
+import com.evdms.authservice.service.ExpiringEntryStore;
+import com.evdms.authservice.service.InMemoryTokenBlacklistStore;
+import com.evdms.authservice.service.RedisTokenBlacklistStore;
+import com.evdms.authservice.service.TokenBlacklistStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * Selects the token blacklist backend with {@code security.token-blacklist.store}:
+ * {@code memory} (default, single replica) or {@code redis} (shared across replicas).
+ */
+@Configuration
+public class TokenBlacklistConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "security.token-blacklist.store", havingValue = "memory", matchIfMissing = true)
+    public TokenBlacklistStore inMemoryTokenBlacklistStore(MeterRegistry meterRegistry,
+            @Value("${security.token-blacklist.max-entries:200000}") int maxEntries,
+            @Value("${security.token-blacklist.overload-policy:EVICT_SOONEST_EXPIRING}") ExpiringEntryStore.OverloadPolicy overloadPolicy) {
+        return new InMemoryTokenBlacklistStore(
+                new ExpiringEntryStore<>("token-blacklist", maxEntries, overloadPolicy, meterRegistry));
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "security.token-blacklist.store", havingValue = "redis")
+    static class Redis {
+
+        @Bean(initMethod = "rebuild")
+        public RedisTokenBlacklistStore redisTokenBlacklistStore(StringRedisTemplate redisTemplate,
+                @Value("${security.token-blacklist.bloom.expected-entries:100000}") long expectedEntries,
+                @Value("${security.token-blacklist.bloom.false-positive-rate:0.001}") double falsePositiveRate) {
+            return new RedisTokenBlacklistStore(redisTemplate, expectedEntries, falsePositiveRate);
+        }
+
+        @Bean
+        public RedisMessageListenerContainer tokenBlacklistListenerContainer(RedisConnectionFactory connectionFactory,
+                RedisTokenBlacklistStore store) {
+            RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+            container.setConnectionFactory(connectionFactory);
+            container.addMessageListener(store, new ChannelTopic(RedisTokenBlacklistStore.CHANNEL));
+            return container;
+        }
+    }
+}
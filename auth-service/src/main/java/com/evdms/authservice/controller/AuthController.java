@@ -8,12 +8,16 @@ import org.springframework.web.bind.annotation.*;
 import com.evdms.authservice.dto.*;
 import com.evdms.authservice.entity.User;
 import com.evdms.authservice.service.AuthService;
+import com.evdms.authservice.service.RateLimitCheck;
+import com.evdms.authservice.service.RateLimiterService;
 import com.evdms.authservice.service.TokenBlacklistService;
-import com.evdms.authservice.service.JwtUtil;
-import com.evdms.authservice.repository.UserRepository;
+import com.evdms.authservice.service.TokenHashing;
+import com.evdms.security.core.TokenClaims;
+import com.evdms.security.core.VerifiedToken;
 
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/v1/auth")
@@ -22,29 +26,25 @@ public class AuthController {
     private AuthService authService;
 
     @Autowired
-    private JwtUtil jwtUtil;
-
-    @Autowired
-    private UserRepository userRepository;
+    private TokenBlacklistService tokenBlacklistService;
 
     @Autowired
-    private TokenBlacklistService tokenBlacklistService;
+    private RateLimiterService rateLimiterService;
 
+    // Register and login complete asynchronously so request threads are not held during hashing
     @PostMapping("/register")
-    public ResponseEntity<?> register(@Valid @RequestBody RegisterRequest request) {
-        User user = authService.register(request);
-        return ResponseEntity.ok(Map.of(
+    public CompletableFuture<ResponseEntity<?>> register(@Valid @RequestBody RegisterRequest request) {
+        return authService.register(request).thenApply(user -> ResponseEntity.ok(Map.of(
                 "message", "Registration successful",
-                "userId", user.getId()));
+                "userId", user.getId())));
     }
 
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request,
+    public CompletableFuture<ResponseEntity<AuthResponse>> login(@Valid @RequestBody LoginRequest request,
             HttpServletRequest httpRequest) {
         // Set IP address for rate limiting
         request.setIpAddress(httpRequest.getRemoteAddr());
-        AuthResponse response = authService.login(request);
-        return ResponseEntity.ok(response);
+        return authService.login(request).thenApply(ResponseEntity::ok);
     }
 
     @PostMapping("/logout")
@@ -53,8 +53,8 @@ public class AuthController {
         authService.logout(request.getRefreshToken());
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
-            // blacklist access token for 15 minutes
-            tokenBlacklistService.blacklist(token, 15 * 60);
+            // blacklist access token for the rest of its lifetime
+            tokenBlacklistService.blacklist(token);
         }
         return ResponseEntity.ok(Map.of("message", "Logged out successfully"));
     }
@@ -66,7 +66,15 @@ public class AuthController {
     }
 
     @PostMapping("/refresh")
-    public ResponseEntity<TokenResponse> refreshToken(@RequestBody RefreshTokenRequest request) {
+    public ResponseEntity<?> refreshToken(@RequestBody RefreshTokenRequest request,
+            HttpServletRequest httpRequest) {
+        // Per client and per token, checked in one round trip
+        String token = request.getRefreshToken() != null ? request.getRefreshToken() : "";
+        if (!rateLimiterService.allowAll(
+                new RateLimitCheck("refresh", "ip:" + httpRequest.getRemoteAddr()),
+                new RateLimitCheck("refresh", "token:" + TokenHashing.sha256Hex(token)))) {
+            return tooManyRequests();
+        }
         TokenResponse response = authService.refreshToken(request.getRefreshToken());
         return ResponseEntity.ok(response);
     }
@@ -81,23 +89,16 @@ public class AuthController {
                     "message", "No token provided"));
         }
 
-        boolean isValid = authService.verifyToken(token);
-
-        if (isValid) {
-            try {
-                String email = jwtUtil.extractEmail(token);
-                User user = userRepository.findByEmail(email).orElse(null);
-                if (user != null) {
-                    return ResponseEntity.ok(Map.of(
-                            "valid", true,
-                            "message", "Token is valid",
-                            "email", user.getEmail(),
-                            "username", user.getUsername(),
-                            "role", user.getRole() != null ? user.getRole().toString() : "USER"));
-                }
-            } catch (Exception e) {
-                // Token invalid
-            }
+        // Answered from the token alone: no user lookup
+        VerifiedToken verified = authService.verifyAccessToken(token).orElse(null);
+        if (verified != null) {
+            Object username = verified.claims().get(TokenClaims.USERNAME);
+            return ResponseEntity.ok(Map.of(
+                    "valid", true,
+                    "message", "Token is valid",
+                    "email", verified.subject(),
+                    "username", username != null ? username.toString() : verified.subject(),
+                    "role", verified.role() != null ? verified.role() : "USER"));
         }
 
         return ResponseEntity.status(401).body(Map.of(
@@ -118,8 +119,15 @@ public class AuthController {
 
     // Password management
     @PostMapping("/forgot-password")
-    public ResponseEntity<?> forgotPassword(@RequestBody Map<String, String> body) {
+    public ResponseEntity<?> forgotPassword(@RequestBody Map<String, String> body,
+            HttpServletRequest httpRequest) {
         String email = body.get("email");
+        // Per client and per mailbox, checked in one round trip
+        if (!rateLimiterService.allowAll(
+                new RateLimitCheck("forgot-password", "ip:" + httpRequest.getRemoteAddr()),
+                new RateLimitCheck("forgot-password", "email:" + (email != null ? email.toLowerCase() : "")))) {
+            return tooManyRequests();
+        }
         String token = authService.createPasswordResetToken(email);
         // TODO: send email; return token only for dev convenience
         return ResponseEntity.ok(Map.of("message", "Reset email sent", "token", token));
@@ -206,4 +214,8 @@ public class AuthController {
                 "userId", user.getId(),
                 "role", user.getRole().toString()));
     }
+
+    private static ResponseEntity<?> tooManyRequests() {
+        return ResponseEntity.status(429).body(Map.of("error", "Too many requests. Please try again later."));
+    }
 }
@@ -0,0 +1,34 @@
+package com.evdms.authservice.controller;
+
+import com.evdms.authservice.service.SigningKeys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Publishes the token verification keys (RFC 7517). The set changes only on deploy, so it is
+ * cacheable; keep the max-age below the verifiers' refresh interval so a rotation is not
+ * delayed by an intermediate cache.
+ */
+@RestController
+public class JwksController {
+
+    private final Map<String, Object> body;
+    private final CacheControl cacheControl;
+
+    public JwksController(SigningKeys signingKeys,
+            @Value("${security.jwt.signing.jwks-max-age:PT1M}") Duration maxAge) {
+        this.body = Map.of("keys", signingKeys.jwks());
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePublic();
+    }
+
+    @GetMapping(value = "/.well-known/jwks.json", produces = { "application/jwk-set+json", "application/json" })
+    public ResponseEntity<Map<String, Object>> jwks() {
+        return ResponseEntity.ok().cacheControl(cacheControl).body(body);
+    }
+}
@@ -1,13 +1,20 @@
 package com.evdms.authservice.controller;
 
+import com.evdms.authservice.dto.BulkUserUpdateRequest;
+import com.evdms.authservice.dto.BulkUserUpdateResult;
+import com.evdms.authservice.dto.UserPage;
 import com.evdms.authservice.entity.User;
+import com.evdms.authservice.repository.UserFilter;
 import com.evdms.authservice.repository.UserRepository;
+import com.evdms.authservice.service.UserAdminService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.time.Instant;
-import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -17,14 +24,45 @@ import java.util.UUID;
 public class UserAdminController {
 
     private final UserRepository userRepository;
+    private final UserAdminService userAdminService;
 
-    public UserAdminController(UserRepository userRepository) {
+    public UserAdminController(UserRepository userRepository, UserAdminService userAdminService) {
         this.userRepository = userRepository;
+        this.userAdminService = userAdminService;
     }
 
+    // Keyset pagination: pass the returned nextCursor as "after" for the next page
     @GetMapping
-    public ResponseEntity<List<User>> listUsers() {
-        return ResponseEntity.ok(userRepository.findAll());
+    public ResponseEntity<UserPage> listUsers(
+            @RequestParam(value = "role", required = false) User.Role role,
+            @RequestParam(value = "active", required = false) Boolean active,
+            @RequestParam(value = "deleted", required = false) Boolean deleted,
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "limit", defaultValue = "50") int limit) {
+        return ResponseEntity.ok(userAdminService.listUsers(new UserFilter(role, active, deleted), after, limit));
+    }
+
+    // Written synchronously on the request thread: an async response would be cut off by the
+    // async request timeout on large exports
+    @GetMapping("/export")
+    public void exportUsers(
+            @RequestParam(value = "format", defaultValue = "ndjson") String formatName,
+            @RequestParam(value = "role", required = false) User.Role role,
+            @RequestParam(value = "active", required = false) Boolean active,
+            @RequestParam(value = "deleted", required = false) Boolean deleted,
+            HttpServletResponse response) throws IOException {
+        UserAdminService.ExportFormat format = UserAdminService.ExportFormat.parse(formatName);
+        boolean csv = format == UserAdminService.ExportFormat.CSV;
+        response.setContentType(csv ? "text/csv;charset=UTF-8" : "application/x-ndjson;charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"users." + (csv ? "csv" : "ndjson") + "\"");
+        userAdminService.export(new UserFilter(role, active, deleted), format, response.getOutputStream());
+    }
+
+    // Role, status and soft-delete changes for many users at once; sessions of affected users are revoked
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkUserUpdateResult> bulkUpdate(@RequestBody BulkUserUpdateRequest request) {
+        return ResponseEntity.ok(userAdminService.bulkUpdate(request));
     }
 
     @GetMapping("/{id}")
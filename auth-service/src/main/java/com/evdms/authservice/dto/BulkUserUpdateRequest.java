@@ -0,0 +1,25 @@
+package com.evdms.authservice.dto;
+
+import com.evdms.authservice.entity.User;
+import com.evdms.authservice.repository.UserChanges;
+import com.evdms.authservice.repository.UserFilter;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Bulk change to many users. Targets either explicit {@code ids} or every user matching
+ * {@code filter} (exactly one of the two), and applies {@code role}, {@code active} and/or
+ * {@code delete} (soft delete).
+ */
+public record BulkUserUpdateRequest(
+        List<UUID> ids,
+        UserFilter filter,
+        User.Role role,
+        Boolean active,
+        boolean delete) {
+
+    public UserChanges changes() {
+        return new UserChanges(role, active, delete);
+    }
+}
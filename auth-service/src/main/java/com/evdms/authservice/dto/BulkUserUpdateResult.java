@@ -0,0 +1,14 @@
+package com.evdms.authservice.dto;
+
+import java.util.List;
+
+/** Outcome of a bulk user update, with one entry per chunk (each chunk is its own transaction). */
+public record BulkUserUpdateResult(
+        long usersUpdated,
+        long sessionsRevoked,
+        long elapsedMillis,
+        List<Chunk> chunks) {
+
+    public record Chunk(int index, int targeted, int usersUpdated, int sessionsRevoked, long elapsedMillis) {
+    }
+}
@@ -0,0 +1,10 @@
+package com.evdms.authservice.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset listing. Pass {@code nextCursor} back as {@code after} to get the
+ * next page; it is null on the last page.
+ */
+public record UserPage(List<UserSummary> items, String nextCursor) {
+}
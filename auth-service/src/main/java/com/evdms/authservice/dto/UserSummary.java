@@ -0,0 +1,29 @@
+package com.evdms.authservice.dto;
+
+import com.evdms.authservice.entity.User;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Admin view of a user, selected column by column (never the password hash or lockout state).
+ * Built by JPQL constructor expressions, so listing users never loads managed entities.
+ */
+public record UserSummary(
+        UUID id,
+        String username,
+        String email,
+        String fullName,
+        User.Role role,
+        UUID dealerId,
+        boolean active,
+        boolean emailVerified,
+        Instant lastLogin,
+        Instant createdAt,
+        Instant deletedAt) {
+
+    /** Select list matching the constructor, for queries over {@code User u}. */
+    public static final String SELECT = "select new com.evdms.authservice.dto.UserSummary("
+            + "u.id, u.username, u.email, u.fullName, u.role, u.dealerId, u.isActive, u.emailVerified, "
+            + "u.lastLogin, u.createdAt, u.deletedAt) from User u";
+}
@@ -1,5 +1,7 @@
 package com.evdms.authservice.entity;
 
+import com.evdms.authservice.service.TokenHashing;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
@@ -7,23 +9,29 @@ import java.time.Instant;
 import java.util.UUID;
 
 @Entity
-@Table(name = "sessions")
+@Table(name = "sessions", indexes = {
+        @Index(name = "ux_sessions_refresh_token_hash", columnList = "refresh_token_hash", unique = true),
+        @Index(name = "ix_sessions_user_id_expires_at", columnList = "user_id, expires_at"),
+        @Index(name = "ix_sessions_expires_at", columnList = "expires_at")
+})
 public class Session {
+    // Assigned by the SessionStore so a session is addressable before it is written
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
     private UUID id;
 
     @Column(name = "user_id", nullable = false)
     private UUID userId;
 
-    @Column(nullable = false)
-    private String refreshToken;
+    // SHA-256 of the refresh token (64 hex chars); the token itself is never stored
+    @Column(name = "refresh_token_hash", length = 64, nullable = false)
+    private String refreshTokenHash;
 
     @JdbcTypeCode(SqlTypes.JSON)
     @Column(columnDefinition = "jsonb")
     private String deviceInfo;
 
     private String ipAddress;
+    @Column(name = "expires_at")
     private Instant expiresAt;
     private Instant createdAt;
 
@@ -43,12 +51,18 @@ public class Session {
         this.userId = userId;
     }
 
-    public String getRefreshToken() {
-        return refreshToken;
+    @JsonIgnore
+    public String getRefreshTokenHash() {
+        return refreshTokenHash;
     }
 
+    public void setRefreshTokenHash(String refreshTokenHash) {
+        this.refreshTokenHash = refreshTokenHash;
+    }
+
+    /** Stores the digest of {@code refreshToken}. */
     public void setRefreshToken(String refreshToken) {
-        this.refreshToken = refreshToken;
+        this.refreshTokenHash = TokenHashing.sha256Hex(refreshToken);
     }
 
     public String getDeviceInfo() {
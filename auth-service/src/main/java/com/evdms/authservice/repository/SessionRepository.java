@@ -1,18 +1,47 @@
 package com.evdms.authservice.repository;
 
 import com.evdms.authservice.entity.Session;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface SessionRepository extends JpaRepository<Session, UUID> {
-    Optional<Session> findByRefreshToken(String refreshToken);
+    // Unique index ux_sessions_refresh_token_hash
+    Optional<Session> findByRefreshTokenHash(String refreshTokenHash);
 
-    void deleteByUserId(UUID userId);
+    // One statement instead of loading and deleting each session
+    @Modifying
+    @Query("delete from Session s where s.userId = :userId")
+    int deleteByUserId(@Param("userId") UUID userId);
+
+    @Modifying
+    @Query("delete from Session s where s.userId in :userIds")
+    int deleteByUserIdIn(@Param("userIds") Collection<UUID> userIds);
 
     List<Session> findByUserId(UUID userId);
+
+    // Compare-and-set on the token digest: of concurrent rotations of one token, one updates the row
+    @Modifying
+    @Query("update Session s set s.refreshTokenHash = :newHash, s.expiresAt = :expiresAt "
+            + "where s.id = :id and s.refreshTokenHash = :oldHash")
+    int rotate(@Param("id") UUID id, @Param("oldHash") String oldHash, @Param("newHash") String newHash,
+            @Param("expiresAt") Instant expiresAt);
+
+    /** Ids of sessions expired before {@code now}, oldest first, at most one page. */
+    @Query("select s.id from Session s where s.expiresAt < :now order by s.expiresAt")
+    List<UUID> findExpiredIds(@Param("now") Instant now, Pageable page);
+
+    @Modifying
+    @Query("delete from Session s where s.id in :ids")
+    int deleteByIdIn(@Param("ids") List<UUID> ids);
 }
@@ -0,0 +1,15 @@
+package com.evdms.authservice.repository;
+
+import com.evdms.authservice.entity.User;
+
+/**
+ * Changes for a bulk user update; null fields are left as they are.
+ *
+ * @param delete soft delete (sets deletedAt and deactivates; {@code active} is then ignored)
+ */
+public record UserChanges(User.Role role, Boolean active, boolean delete) {
+
+    public boolean isEmpty() {
+        return role == null && active == null && !delete;
+    }
+}
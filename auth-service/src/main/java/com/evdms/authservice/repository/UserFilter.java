@@ -0,0 +1,17 @@
+package com.evdms.authservice.repository;
+
+import com.evdms.authservice.entity.User;
+
+/**
+ * Optional criteria for admin user queries; a null field does not filter.
+ *
+ * @param deleted true for soft-deleted users only, false for users not deleted
+ */
+public record UserFilter(User.Role role, Boolean active, Boolean deleted) {
+
+    public static final UserFilter NONE = new UserFilter(null, null, null);
+
+    public boolean isEmpty() {
+        return role == null && active == null && deleted == null;
+    }
+}
@@ -2,14 +2,47 @@ package com.evdms.authservice.repository;
 
 import com.evdms.authservice.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, UUID> {
+public interface UserRepository extends JpaRepository<User, UUID>, UserSearchRepository {
     Optional<User> findByUsername(String username);
 
     Optional<User> findByEmail(String email);
+
+    // One statement over both unique indexes; may return two rows when one user's
+    // username is another user's email
+    @Query("select u from User u where u.username = :login or u.email = :login")
+    List<User> findByUsernameOrEmail(@Param("login") String login);
+
+    // Atomic in the database, so concurrent failures on a shared account are all counted.
+    // The right-hand sides see the old row, hence "+ 1" in the lock condition.
+    @Modifying
+    @Query("update User u set u.failedLoginAttempts = u.failedLoginAttempts + 1, "
+            + "u.lockedUntil = case when u.failedLoginAttempts + 1 >= :maxAttempts then :lockUntil else u.lockedUntil end "
+            + "where u.id = :id")
+    int recordFailedLogin(@Param("id") UUID id, @Param("maxAttempts") int maxAttempts,
+            @Param("lockUntil") Instant lockUntil);
+
+    // Skips the write (and the row lock) when nothing changes: no failures to clear and
+    // last_login already recorded after :staleBefore. Hot shared logins then touch the row
+    // about once per resolution window instead of once per login.
+    @Modifying
+    @Query("update User u set u.lastLogin = :now, u.failedLoginAttempts = 0, u.lockedUntil = null "
+            + "where u.id = :id and (u.failedLoginAttempts <> 0 or u.lockedUntil is not null "
+            + "or u.lastLogin is null or u.lastLogin < :staleBefore)")
+    int recordSuccessfulLogin(@Param("id") UUID id, @Param("now") Instant now,
+            @Param("staleBefore") Instant staleBefore);
+
+    @Modifying
+    @Query("update User u set u.passwordHash = :passwordHash where u.id = :id")
+    int updatePasswordHash(@Param("id") UUID id, @Param("passwordHash") String passwordHash);
 }
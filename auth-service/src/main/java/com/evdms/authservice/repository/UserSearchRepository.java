@@ -0,0 +1,35 @@
+package com.evdms.authservice.repository;
+
+import com.evdms.authservice.dto.UserSummary;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/** Admin queries whose clauses depend on the request; implemented by {@link UserSearchRepositoryImpl}. */
+public interface UserSearchRepository {
+
+    /**
+     * Keyset page ordered by id: users with an id greater than {@code after} (or from the
+     * start when null). Cost does not grow with the page number, unlike OFFSET.
+     */
+    List<UserSummary> findSummaries(UserFilter filter, UUID after, int limit);
+
+    /**
+     * All matching users ordered by id, read from a database cursor {@code fetchSize} rows at
+     * a time. Must be consumed and closed inside a transaction.
+     */
+    Stream<UserSummary> streamSummaries(UserFilter filter, int fetchSize);
+
+    /** Keyset page of ids only, in the same order as {@link #findSummaries}. */
+    List<UUID> findIds(UserFilter filter, UUID after, int limit);
+
+    /**
+     * Applies the non-null changes to all {@code ids} in one UPDATE. Soft delete also
+     * deactivates, as the single-user endpoint does.
+     *
+     * @return rows updated
+     */
+    int updateAll(List<UUID> ids, UserChanges changes, Instant now);
+}
@@ -0,0 +1,105 @@
+package com.evdms.authservice.repository;
+
+import com.evdms.authservice.dto.UserSummary;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+class UserSearchRepositoryImpl implements UserSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private static final String SELECT_IDS = "select u.id from User u";
+
+    @Override
+    public List<UserSummary> findSummaries(UserFilter filter, UUID after, int limit) {
+        TypedQuery<UserSummary> query = query(UserSummary.SELECT, UserSummary.class, filter, after);
+        query.setMaxResults(limit);
+        return query.getResultList();
+    }
+
+    @Override
+    public List<UUID> findIds(UserFilter filter, UUID after, int limit) {
+        TypedQuery<UUID> query = query(SELECT_IDS, UUID.class, filter, after);
+        query.setMaxResults(limit);
+        return query.getResultList();
+    }
+
+    @Override
+    public int updateAll(List<UUID> ids, UserChanges changes, Instant now) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<String> set = new ArrayList<>();
+        set.add("u.updatedAt = :now");
+        if (changes.role() != null) {
+            set.add("u.role = :role");
+        }
+        if (changes.delete()) {
+            set.add("u.deletedAt = :now");
+            set.add("u.isActive = false");
+        } else if (changes.active() != null) {
+            set.add("u.isActive = :active");
+        }
+        Query update = entityManager.createQuery(
+                "update User u set " + String.join(", ", set) + " where u.id in :ids");
+        update.setParameter("ids", ids);
+        update.setParameter("now", now);
+        if (changes.role() != null) {
+            update.setParameter("role", changes.role());
+        }
+        if (!changes.delete() && changes.active() != null) {
+            update.setParameter("active", changes.active());
+        }
+        return update.executeUpdate();
+    }
+
+    @Override
+    public Stream<UserSummary> streamSummaries(UserFilter filter, int fetchSize) {
+        TypedQuery<UserSummary> query = query(UserSummary.SELECT, UserSummary.class, filter, null);
+        query.setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize);
+        query.setHint(HibernateHints.HINT_READ_ONLY, true);
+        return query.getResultStream();
+    }
+
+    // Only the predicates in use are rendered, so each filter combination gets a plain,
+    // index-friendly statement instead of "(:p is null or ...)" clauses
+    private <T> TypedQuery<T> query(String select, Class<T> type, UserFilter filter, UUID after) {
+        List<String> where = new ArrayList<>();
+        if (after != null) {
+            where.add("u.id > :after");
+        }
+        if (filter.role() != null) {
+            where.add("u.role = :role");
+        }
+        if (filter.active() != null) {
+            where.add("u.isActive = :active");
+        }
+        if (filter.deleted() != null) {
+            where.add(filter.deleted() ? "u.deletedAt is not null" : "u.deletedAt is null");
+        }
+        String jpql = select
+                + (where.isEmpty() ? "" : " where " + String.join(" and ", where))
+                + " order by u.id";
+        TypedQuery<T> query = entityManager.createQuery(jpql, type);
+        if (after != null) {
+            query.setParameter("after", after);
+        }
+        if (filter.role() != null) {
+            query.setParameter("role", filter.role());
+        }
+        if (filter.active() != null) {
+            query.setParameter("active", filter.active());
+        }
+        return query;
+    }
+}
@@ -9,21 +9,29 @@ import com.evdms.authservice.entity.Session;
 import com.evdms.authservice.entity.User;
 import com.evdms.authservice.entity.User.Role;
 import com.evdms.authservice.repository.EmailVerificationTokenRepository;
-import com.evdms.authservice.repository.SessionRepository;
 import com.evdms.authservice.repository.UserRepository;
 import com.evdms.authservice.service.JwtUtil;
 import com.evdms.authservice.entity.PasswordResetToken;
+import com.evdms.security.core.JwtVerifier;
+import com.evdms.security.core.VerifiedToken;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 @Service
 public class AuthService {
@@ -31,7 +39,7 @@ public class AuthService {
     private UserRepository userRepository;
 
     @Autowired
-    private SessionRepository sessionRepository;
+    private SessionStore sessionStore;
 
     @Autowired
     private EmailVerificationTokenRepository emailVerificationTokenRepository;
@@ -39,17 +47,43 @@ public class AuthService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Database work after a hash completes runs here, keeping the hashing pool CPU-only
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor taskExecutor;
+
     @Autowired
     private JwtUtil jwtUtil;
 
     @Autowired
-    private RateLimiterService rateLimiterService;
+    private JwtVerifier jwtVerifier;
 
     @Autowired
     private TokenBlacklistService tokenBlacklistService;
 
-    @Transactional
-    public User register(RegisterRequest request) {
+    @Autowired
+    private RateLimiterService rateLimiterService;
+
+    @Value("${rate-limit.login.enabled:true}")
+    private boolean loginRateLimitEnabled;
+
+    @Value("${account-lockout.failed-attempts:5}")
+    private int lockoutFailedAttempts;
+
+    @Value("${account-lockout.lock-duration-minutes:15}")
+    private long lockoutDurationMinutes;
+
+    // last_login is only rewritten when older than this, see UserRepository.recordSuccessfulLogin
+    private static final Duration LAST_LOGIN_RESOLUTION = Duration.ofMinutes(1);
+
+    // Hashing runs on the bounded hashing pool; the request thread is released meanwhile
+    public CompletableFuture<User> register(RegisterRequest request) {
         // Check if user already exists
         if (userRepository.findByEmail(request.getEmail()).isPresent()) {
             throw new RuntimeException("Email already exists");
@@ -58,11 +92,17 @@ public class AuthService {
             throw new RuntimeException("Username already exists");
         }
 
+        return passwordHashingService.encode(request.getPassword())
+                .thenApplyAsync(hash -> transactionTemplate.execute(status -> createUser(request, hash)),
+                        taskExecutor);
+    }
+
+    private User createUser(RegisterRequest request, String passwordHash) {
         User user = new User();
         user.setEmail(request.getEmail());
         user.setUsername(request.getUsername());
         user.setFullName(request.getFullName());
-        user.setPasswordHash(passwordEncoder.encode(request.getPassword()));
+        user.setPasswordHash(passwordHash);
         user.setActive(true);
         user.setEmailVerified(false);
 
@@ -82,20 +122,23 @@ public class AuthService {
         return userRepository.save(user);
     }
 
-    @Transactional
-    public AuthResponse login(LoginRequest request) {
-        // Rate limit by IP (5 req / 15 min)
-        // TEMPORARILY DISABLED FOR TESTING
-        // String key = "login:" + (request.getIpAddress() != null ?
-        // request.getIpAddress() : "unknown");
-        // if (!rateLimiterService.allow(key)) {
-        // throw new RuntimeException("Too many login attempts. Please try again
-        // later.");
-        // }
-
-        // Find user by username or email
-        User user = userRepository.findByUsername(request.getUsername())
-                .or(() -> userRepository.findByEmail(request.getUsername()))
+    public CompletableFuture<AuthResponse> login(LoginRequest request) {
+        // Rate limit by IP and by account (rate-limit.login.*), one round trip in Redis mode
+        if (loginRateLimitEnabled) {
+            String ip = request.getIpAddress() != null ? request.getIpAddress() : "unknown";
+            if (!rateLimiterService.allowAll(
+                    new RateLimitCheck(RateLimiterService.LOGIN, "ip:" + ip),
+                    new RateLimitCheck(RateLimiterService.LOGIN, "user:" + request.getUsername()))) {
+                throw new RateLimitExceededException("Too many login attempts. Please try again later.");
+            }
+        }
+
+        // Find user by username or email in one query; a username match wins
+        List<User> candidates = userRepository.findByUsernameOrEmail(request.getUsername());
+        User user = candidates.stream()
+                .filter(u -> request.getUsername().equals(u.getUsername()))
+                .findFirst()
+                .or(() -> candidates.stream().findFirst())
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         // Check if account is locked
@@ -103,16 +146,15 @@ public class AuthService {
             throw new RuntimeException("Account is locked. Try again later.");
         }
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPasswordHash())) {
-            // Increment failed login attempts
-            user.setFailedLoginAttempts(user.getFailedLoginAttempts() + 1);
-
-            // Lock account after 5 failed attempts
-            if (user.getFailedLoginAttempts() >= 5) {
-                user.setLockedUntil(Instant.now().plusSeconds(900)); // Lock for 15 minutes
-            }
+        return passwordHashingService.verify(request.getPassword(), user.getPasswordHash())
+                .thenApplyAsync(check -> completeLogin(request, user, check), taskExecutor);
+    }
 
-            userRepository.save(user);
+    private AuthResponse completeLogin(LoginRequest request, User user, PasswordHashingService.PasswordCheck check) {
+        if (!check.matches()) {
+            // Count the failure (and lock after too many) in its own committed statement
+            transactionTemplate.executeWithoutResult(status -> userRepository.recordFailedLogin(user.getId(),
+                    lockoutFailedAttempts, Instant.now().plus(Duration.ofMinutes(lockoutDurationMinutes))));
             throw new RuntimeException("Invalid credentials");
         }
 
@@ -121,14 +163,24 @@ public class AuthService {
             throw new RuntimeException("Account is deactivated");
         }
 
-        // Reset failed login attempts on successful login
-        user.setFailedLoginAttempts(0);
-        user.setLockedUntil(null);
-        user.setLastLogin(Instant.now());
-        userRepository.save(user);
+        transactionTemplate.executeWithoutResult(status -> recordLogin(user, check.upgradedHash()));
+        // Outside the transaction: the session store handles its own writes (possibly write-behind)
+        return startSession(request, user);
+    }
 
-        String token = jwtUtil.generateToken(user.getEmail(),
-                user.getRole() != null ? user.getRole().toString() : "USER");
+    private void recordLogin(User user, String upgradedHash) {
+        // Transparently move the stored hash to the current format and cost
+        if (upgradedHash != null) {
+            userRepository.updatePasswordHash(user.getId(), upgradedHash);
+        }
+
+        // Reset failed login attempts and record the login with one targeted update
+        Instant now = Instant.now();
+        userRepository.recordSuccessfulLogin(user.getId(), now, now.minus(LAST_LOGIN_RESOLUTION));
+    }
+
+    private AuthResponse startSession(LoginRequest request, User user) {
+        String token = jwtUtil.generateToken(user);
         String refreshToken = jwtUtil.generateRefreshToken(user.getEmail());
 
         // Save session
@@ -139,58 +191,56 @@ public class AuthService {
         session.setIpAddress(request.getIpAddress() != null ? request.getIpAddress() : "unknown");
         session.setExpiresAt(Instant.now().plusSeconds(7 * 24 * 60 * 60)); // 7 days
         session.setCreatedAt(Instant.now());
-        sessionRepository.save(session);
+        sessionStore.create(session);
 
         return new AuthResponse(token, refreshToken, user.getId().toString(), user.getEmail(), user.getFullName(),
                 user.getRole() != null ? user.getRole().toString() : "USER");
     }
 
-    @Transactional
     public void logout(String refreshToken) {
-        Session session = sessionRepository.findByRefreshToken(refreshToken)
+        Session session = sessionStore.findByRefreshToken(refreshToken)
                 .orElseThrow(() -> new RuntimeException("Invalid refresh token"));
 
-        sessionRepository.delete(session);
+        sessionStore.delete(session);
     }
 
-    @Transactional
     public void logoutAll(UUID userId) {
-        sessionRepository.deleteByUserId(userId);
+        sessionStore.deleteByUserId(userId);
     }
 
     public TokenResponse refreshToken(String refreshToken) {
-        Session session = sessionRepository.findByRefreshToken(refreshToken)
+        Session session = sessionStore.findByRefreshToken(refreshToken)
                 .orElseThrow(() -> new RuntimeException("Invalid refresh token"));
 
         // Check if session expired
         if (Instant.now().isAfter(session.getExpiresAt())) {
-            sessionRepository.delete(session);
+            sessionStore.delete(session);
             throw new RuntimeException("Refresh token expired");
         }
 
         User user = userRepository.findById(session.getUserId())
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        String newAccessToken = jwtUtil.generateToken(user.getEmail(),
-                user.getRole() != null ? user.getRole().toString() : "USER");
+        String newAccessToken = jwtUtil.generateToken(user);
         String newRefreshToken = jwtUtil.generateRefreshToken(user.getEmail());
 
         // Update session with new refresh token
-        session.setRefreshToken(newRefreshToken);
-        session.setExpiresAt(Instant.now().plusSeconds(7 * 24 * 60 * 60)); // 7 days
-        sessionRepository.save(session);
+        // Loses to a concurrent refresh with the same token, which already rotated it
+        sessionStore.rotate(session, newRefreshToken, Instant.now().plusSeconds(7 * 24 * 60 * 60)) // 7 days
+                .orElseThrow(() -> new RuntimeException("Invalid refresh token"));
 
         return new TokenResponse(newAccessToken, newRefreshToken);
     }
 
     public boolean verifyToken(String token) {
-        try {
-            String email = jwtUtil.extractUsername(token);
-            Optional<User> user = userRepository.findByEmail(email);
-            return user.isPresent() && !jwtUtil.isTokenExpired(token);
-        } catch (Exception e) {
-            return false;
-        }
+        return verifyAccessToken(token).isPresent();
+    }
+
+    // Local check only: signature, expiry (cached per token) and revocation; no database access
+    public Optional<VerifiedToken> verifyAccessToken(String token) {
+        return jwtVerifier.verify(token)
+                .filter(verified -> verified.subject() != null)
+                .filter(verified -> !tokenBlacklistService.isBlacklisted(token));
     }
 
     // Profile endpoints
@@ -225,7 +275,7 @@ public class AuthService {
         user.setUpdatedAt(Instant.now());
         userRepository.save(user);
         // revoke all sessions
-        sessionRepository.deleteByUserId(user.getId());
+        sessionStore.deleteByUserId(user.getId());
     }
 
     @Autowired
@@ -256,7 +306,7 @@ public class AuthService {
         prt.setUsed(true);
         passwordResetTokenRepository.save(prt);
         // revoke all sessions
-        sessionRepository.deleteByUserId(user.getId());
+        sessionStore.deleteByUserId(user.getId());
     }
 
     private void validatePasswordPolicy(String password) {
@@ -303,15 +353,15 @@ public class AuthService {
 
     // Sessions management
     public java.util.List<Session> getUserSessions(UUID userId) {
-        return sessionRepository.findByUserId(userId);
+        return sessionStore.findByUserId(userId);
     }
 
     public void revokeSession(UUID sessionId, UUID userId) {
-        Session s = sessionRepository.findById(sessionId).orElseThrow(() -> new RuntimeException("Session not found"));
+        Session s = sessionStore.findById(sessionId).orElseThrow(() -> new RuntimeException("Session not found"));
         if (!s.getUserId().equals(userId)) {
             throw new RuntimeException("Forbidden");
         }
-        sessionRepository.delete(s);
+        sessionStore.delete(s);
     }
 
     // Admin promotion (for testing/bootstrap)
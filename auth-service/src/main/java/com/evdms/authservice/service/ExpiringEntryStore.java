@@ -0,0 +1,290 @@
+package com.evdms.authservice.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Bounded concurrent map whose entries carry an absolute expiry.
+ * <p>
+ * Expired entries are hidden from readers immediately and physically removed by
+ * {@link #sweep()}, which owners call from a scheduled task, so memory no longer
+ * depends on the same key being looked up again. The entry count is capped at
+ * {@code maxEntries}; the cap is soft under contention (a few concurrent inserts may
+ * overshoot it briefly). When full, expired entries make room first and then the
+ * {@link OverloadPolicy} decides. A full inline sweep is O(n), so it runs at most once per
+ * second; in between, an insert into a full store only checks a small sample for an expired
+ * entry, and a flood of new keys costs each request constant work.
+ * <p>
+ * Metrics (tag {@code store=<name>}): {@code auth.expiring_store.size},
+ * {@code auth.expiring_store.evictions{cause=expired|overload}},
+ * {@code auth.expiring_store.rejections} and {@code auth.expiring_store.sweep.duration}
+ * (duration of the last sweep).
+ * <p>
+ * Expiries are compared against {@code clock}, by default {@link System#currentTimeMillis()}.
+ */
+public final class ExpiringEntryStore<K, V> {
+
+    public enum OverloadPolicy {
+        /** Refuse to insert new keys while full; existing keys keep working. */
+        REJECT_NEW,
+        /** Evict the entry closest to expiry among a small sample of entries. */
+        EVICT_SOONEST_EXPIRING
+    }
+
+    private static final int EVICTION_SAMPLE_SIZE = 16;
+    private static final long MIN_INLINE_SWEEP_INTERVAL_MILLIS = 1_000;
+
+    // Identity-compared on purpose: remove(key, entry) must only remove the exact instance read
+    private static final class Entry<V> {
+        private final V value;
+        private volatile long expiresAtMillis;
+
+        Entry(V value, long expiresAtMillis) {
+            this.value = value;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        V value() {
+            return value;
+        }
+
+        long expiresAtMillis() {
+            return expiresAtMillis;
+        }
+
+        boolean isExpired(long nowMillis) {
+            return nowMillis >= expiresAtMillis;
+        }
+    }
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final OverloadPolicy overloadPolicy;
+    private final LongSupplier clock;
+
+    private final AtomicLong expiredEvictions = new AtomicLong();
+    private final AtomicLong overloadEvictions = new AtomicLong();
+    private final AtomicLong rejections = new AtomicLong();
+    private volatile long lastSweepNanos;
+    private final AtomicLong nextInlineSweepMillis = new AtomicLong();
+
+    public ExpiringEntryStore(String name, int maxEntries, OverloadPolicy overloadPolicy, MeterRegistry registry) {
+        this(name, maxEntries, overloadPolicy, registry, System::currentTimeMillis);
+    }
+
+    /** With expiries in the milliseconds of {@code clock}, e.g. a monotonic one its owner already reads. */
+    public ExpiringEntryStore(String name, int maxEntries, OverloadPolicy overloadPolicy, MeterRegistry registry,
+            LongSupplier clock) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.overloadPolicy = overloadPolicy;
+        this.clock = clock;
+        if (registry != null) {
+            registerMetrics(name, registry);
+        }
+    }
+
+    /**
+     * Stores or replaces the value for {@code key}.
+     *
+     * @return false if the key was new and the store is full under {@link OverloadPolicy#REJECT_NEW}
+     */
+    public boolean put(K key, V value, long expiresAtMillis) {
+        if (!entries.containsKey(key) && !ensureCapacity()) {
+            return false;
+        }
+        entries.put(key, new Entry<>(value, expiresAtMillis));
+        return true;
+    }
+
+    /**
+     * Returns the live value for {@code key}, creating it with the given expiry when absent or expired.
+     *
+     * @return null only if a new entry was needed and the store refused it
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> factory, long expiresAtMillis) {
+        long now = clock.getAsLong();
+        Entry<V> current = entries.get(key);
+        if (current != null && !current.isExpired(now)) {
+            return current.value();
+        }
+        if (current == null && !ensureCapacity()) {
+            return null;
+        }
+        return entries.compute(key, (k, existing) -> {
+            if (existing != null && !existing.isExpired(now)) {
+                return existing;
+            }
+            if (existing != null) {
+                expiredEvictions.incrementAndGet();
+            }
+            return new Entry<>(factory.apply(k), expiresAtMillis);
+        }).value();
+    }
+
+    public V get(K key) {
+        return get(key, clock.getAsLong());
+    }
+
+    /** {@link #get(Object)} for a caller that has just read the store's clock. */
+    public V get(K key, long nowMillis) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired(nowMillis)) {
+            if (entries.remove(key, entry)) {
+                expiredEvictions.incrementAndGet();
+            }
+            return null;
+        }
+        return entry.value();
+    }
+
+    /** Absolute expiry of the live entry for {@code key}, or 0 if there is none. */
+    public long expiresAtMillis(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null || entry.isExpired(clock.getAsLong())) {
+            return 0;
+        }
+        return entry.expiresAtMillis();
+    }
+
+    /**
+     * Pushes the expiry of a live entry forward (never backwards), for state that should
+     * live as long as it is being used. An entry the sweeper removes at the same instant
+     * is simply recreated by the next {@link #computeIfAbsent}.
+     */
+    public void extendTo(K key, long expiresAtMillis) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null && entry.expiresAtMillis < expiresAtMillis) {
+            entry.expiresAtMillis = expiresAtMillis;
+        }
+    }
+
+    public void remove(K key) {
+        entries.remove(key);
+    }
+
+    /** Removes every entry whose value matches. Scans the whole store; meant for rare bulk invalidation. */
+    public int removeIf(Predicate<? super V> filter) {
+        int removed = 0;
+        for (Map.Entry<K, Entry<V>> e : entries.entrySet()) {
+            if (filter.test(e.getValue().value()) && entries.remove(e.getKey(), e.getValue())) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /** Removes every expired entry. Safe to run concurrently with readers and writers. */
+    public int sweep() {
+        long start = System.nanoTime();
+        long now = clock.getAsLong();
+        int removed = 0;
+        for (Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator(); it.hasNext();) {
+            Map.Entry<K, Entry<V>> e = it.next();
+            // remove(key, value) so an entry refreshed after we read it is kept
+            if (e.getValue().isExpired(now) && entries.remove(e.getKey(), e.getValue())) {
+                removed++;
+            }
+        }
+        expiredEvictions.addAndGet(removed);
+        lastSweepNanos = System.nanoTime() - start;
+        return removed;
+    }
+
+    private boolean ensureCapacity() {
+        if (entries.size() < maxEntries) {
+            return true;
+        }
+        if (claimInlineSweep()) {
+            sweep();
+        } else {
+            evictSampled(true);
+        }
+        if (entries.size() < maxEntries) {
+            return true;
+        }
+        if (overloadPolicy == OverloadPolicy.EVICT_SOONEST_EXPIRING && evictSampled(false)) {
+            return true;
+        }
+        rejections.incrementAndGet();
+        return false;
+    }
+
+    // One caller per interval wins the right to sweep; the others fall back to sampling
+    private boolean claimInlineSweep() {
+        long now = clock.getAsLong();
+        long next = nextInlineSweepMillis.get();
+        return now >= next && nextInlineSweepMillis.compareAndSet(next, now + MIN_INLINE_SWEEP_INTERVAL_MILLIS);
+    }
+
+    // Sampled eviction: ConcurrentHashMap iteration order follows key hashes, so the first
+    // few entries are an effectively random sample. With expiredOnly the soonest-expiring
+    // sampled entry is removed only if it has already expired.
+    private boolean evictSampled(boolean expiredOnly) {
+        K victimKey = null;
+        Entry<V> victim = null;
+        int sampled = 0;
+        for (Map.Entry<K, Entry<V>> e : entries.entrySet()) {
+            if (victim == null || e.getValue().expiresAtMillis() < victim.expiresAtMillis()) {
+                victimKey = e.getKey();
+                victim = e.getValue();
+            }
+            if (++sampled >= EVICTION_SAMPLE_SIZE) {
+                break;
+            }
+        }
+        if (victim == null) {
+            return false;
+        }
+        boolean expired = victim.isExpired(clock.getAsLong());
+        if (expiredOnly && !expired) {
+            return false;
+        }
+        if (entries.remove(victimKey, victim)) {
+            (expired ? expiredEvictions : overloadEvictions).incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    private void registerMetrics(String name, MeterRegistry registry) {
+        Gauge.builder("auth.expiring_store.size", entries, Map::size)
+                .tag("store", name)
+                .description("Entries currently held, including expired ones not yet swept")
+                .register(registry);
+        FunctionCounter.builder("auth.expiring_store.evictions", expiredEvictions, AtomicLong::get)
+                .tags("store", name, "cause", "expired")
+                .register(registry);
+        FunctionCounter.builder("auth.expiring_store.evictions", overloadEvictions, AtomicLong::get)
+                .tags("store", name, "cause", "overload")
+                .register(registry);
+        FunctionCounter.builder("auth.expiring_store.rejections", rejections, AtomicLong::get)
+                .tag("store", name)
+                .description("Inserts refused because the store was full")
+                .register(registry);
+        TimeGauge.builder("auth.expiring_store.sweep.duration", this, TimeUnit.NANOSECONDS, s -> s.lastSweepNanos)
+                .tag("store", name)
+                .description("Duration of the most recent sweep")
+                .register(registry);
+    }
+}
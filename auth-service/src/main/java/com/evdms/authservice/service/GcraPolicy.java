@@ -0,0 +1,57 @@
+package com.evdms.authservice.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Generic cell rate algorithm: requests are spaced {@code window / limit} apart, with
+ * up to {@code burst} allowed back to back. State is a single long, the theoretical
+ * arrival time (TAT) in microseconds, so each check is one read and at most one CAS.
+ */
+public final class GcraPolicy implements RateLimitPolicy {
+
+    private final long emissionIntervalMicros;
+    private final long burstToleranceMicros;
+    private final long windowMillis;
+
+    public GcraPolicy(int limit, long windowMillis, int burst) {
+        if (limit <= 0 || windowMillis <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("GCRA needs limit, window and burst > 0");
+        }
+        this.emissionIntervalMicros = Math.max(1, windowMillis * 1000 / limit);
+        this.burstToleranceMicros = emissionIntervalMicros * (burst - 1);
+        this.windowMillis = windowMillis;
+    }
+
+    @Override
+    public AtomicLongArray newState(long nowMillis) {
+        AtomicLongArray state = new AtomicLongArray(1);
+        state.set(0, nowMillis * 1000);
+        return state;
+    }
+
+    @Override
+    public boolean tryAcquire(AtomicLongArray state, long nowMillis) {
+        long now = nowMillis * 1000;
+        while (true) {
+            long tat = state.get(0);
+            long base = Math.max(tat, now);
+            if (base - now > burstToleranceMicros) {
+                return false;
+            }
+            if (state.compareAndSet(0, tat, base + emissionIntervalMicros)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public long millisUntilAllowed(AtomicLongArray state, long nowMillis) {
+        long wait = state.get(0) - burstToleranceMicros - nowMillis * 1000;
+        return wait <= 0 ? 0 : (wait + 999) / 1000;
+    }
+
+    @Override
+    public long idleTtlMillis() {
+        return Math.max(windowMillis, (burstToleranceMicros + emissionIntervalMicros) / 1000 + 1);
+    }
+}
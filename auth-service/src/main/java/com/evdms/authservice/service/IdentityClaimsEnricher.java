@@ -0,0 +1,24 @@
+package com.evdms.authservice.service;
+
+import com.evdms.authservice.entity.User;
+import com.evdms.security.core.TokenClaims;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/** Who the token is for: role, username, user id and, for dealer accounts, the dealer scope. */
+@Component
+@Order(0)
+public class IdentityClaimsEnricher implements TokenClaimsEnricher {
+
+    @Override
+    public void enrich(User user, Map<String, Object> claims) {
+        claims.put(TokenClaims.ROLE, user.getRole() != null ? user.getRole().toString() : "USER");
+        claims.put(TokenClaims.USERNAME, user.getUsername());
+        claims.put(TokenClaims.USER_ID, user.getId().toString());
+        if (user.getDealerId() != null) {
+            claims.put(TokenClaims.DEALER_ID, user.getDealerId().toString());
+        }
+    }
+}
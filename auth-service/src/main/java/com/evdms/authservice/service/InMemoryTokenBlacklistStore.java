@@ -0,0 +1,30 @@
+package com.evdms.authservice.service;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Single-node blacklist. Only correct when auth-service runs as one replica.
+ */
+public class InMemoryTokenBlacklistStore implements TokenBlacklistStore {
+
+    private final ExpiringEntryStore<String, Boolean> blacklist;
+
+    public InMemoryTokenBlacklistStore(ExpiringEntryStore<String, Boolean> blacklist) {
+        this.blacklist = blacklist;
+    }
+
+    @Override
+    public void add(String tokenDigest, long ttlSeconds) {
+        blacklist.put(tokenDigest, Boolean.TRUE, System.currentTimeMillis() + ttlSeconds * 1000);
+    }
+
+    @Override
+    public boolean contains(String tokenDigest) {
+        return blacklist.get(tokenDigest) != null;
+    }
+
+    @Scheduled(fixedDelayString = "${security.token-blacklist.sweep-interval-ms:30000}")
+    public void sweepExpired() {
+        blacklist.sweep();
+    }
+}
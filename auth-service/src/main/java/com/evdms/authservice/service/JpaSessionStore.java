@@ -0,0 +1,85 @@
+package com.evdms.authservice.service;
+
+import com.evdms.authservice.entity.Session;
+import com.evdms.authservice.repository.SessionRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Writes every change straight to the {@code sessions} table. Safe with any number of replicas.
+ * Lookups go through the unique index on the token digest.
+ */
+public class JpaSessionStore implements SessionStore {
+
+    private final SessionRepository sessionRepository;
+    private final EntityManager entityManager;
+
+    public JpaSessionStore(SessionRepository sessionRepository, EntityManager entityManager) {
+        this.sessionRepository = sessionRepository;
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @Transactional
+    public Session create(Session session) {
+        if (session.getId() == null) {
+            session.setId(UUID.randomUUID());
+        }
+        // persist, not save(): the id is assigned, so save() would merge and SELECT first
+        entityManager.persist(session);
+        return session;
+    }
+
+    @Override
+    public Optional<Session> findByRefreshToken(String refreshToken) {
+        if (refreshToken == null) {
+            return Optional.empty();
+        }
+        return sessionRepository.findByRefreshTokenHash(TokenHashing.sha256Hex(refreshToken));
+    }
+
+    @Override
+    public Optional<Session> findById(UUID id) {
+        return sessionRepository.findById(id);
+    }
+
+    @Override
+    public List<Session> findByUserId(UUID userId) {
+        return sessionRepository.findByUserId(userId);
+    }
+
+    @Override
+    @Transactional
+    public Optional<Session> rotate(Session session, String newRefreshToken, Instant expiresAt) {
+        String newHash = TokenHashing.sha256Hex(newRefreshToken);
+        if (sessionRepository.rotate(session.getId(), session.getRefreshTokenHash(), newHash, expiresAt) == 0) {
+            return Optional.empty();
+        }
+        session.setRefreshTokenHash(newHash);
+        session.setExpiresAt(expiresAt);
+        return Optional.of(session);
+    }
+
+    @Override
+    public void delete(Session session) {
+        sessionRepository.delete(session);
+    }
+
+    @Override
+    @Transactional
+    public void deleteByUserId(UUID userId) {
+        sessionRepository.deleteByUserId(userId);
+    }
+
+    @Override
+    @Transactional
+    public int deleteByUserIds(Collection<UUID> userIds) {
+        return sessionRepository.deleteByUserIdIn(userIds);
+    }
+}
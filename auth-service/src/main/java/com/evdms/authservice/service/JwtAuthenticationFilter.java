@@ -1,77 +0,0 @@
-package com.evdms.authservice.service;
-
-import com.evdms.authservice.service.JwtUtil;
-import jakarta.servlet.FilterChain;
-import jakarta.servlet.ServletException;
-import jakarta.servlet.http.HttpServletRequest;
-import jakarta.servlet.http.HttpServletResponse;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.http.HttpHeaders;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.stereotype.Component;
-import org.springframework.web.filter.OncePerRequestFilter;
-
-import java.io.IOException;
-import java.util.Collections;
-import java.util.List;
-
-@Component
-public class JwtAuthenticationFilter extends OncePerRequestFilter {
-
-    private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
-    private final JwtUtil jwtUtil;
-    private final TokenBlacklistService tokenBlacklistService;
-
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, TokenBlacklistService tokenBlacklistService) {
-        this.jwtUtil = jwtUtil;
-        this.tokenBlacklistService = tokenBlacklistService;
-    }
-
-    @Override
-    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
-            throws ServletException, IOException {
-        String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            String token = authHeader.substring(7);
-            try {
-                // Check blacklist
-                if (tokenBlacklistService.isBlacklisted(token)) {
-                    logger.warn("Token is blacklisted, clearing security context for: {}", request.getRequestURI());
-                    SecurityContextHolder.clearContext();
-                    filterChain.doFilter(request, response);
-                    return;
-                }
-
-                // Validate token before extracting claims
-                if (jwtUtil.isTokenExpired(token)) {
-                    logger.warn("Token expired for: {}", request.getRequestURI());
-                    SecurityContextHolder.clearContext();
-                    filterChain.doFilter(request, response);
-                    return;
-                }
-
-                String email = jwtUtil.extractEmail(token);
-                String role = (String) jwtUtil.extractClaims(token).get("role");
-
-                if (email != null && !email.isBlank()) {
-                    List<SimpleGrantedAuthority> authorities = role != null
-                            ? List.of(new SimpleGrantedAuthority("ROLE_" + role))
-                            : Collections.emptyList();
-                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                            email, null, authorities);
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
-                    logger.debug("Authenticated user: {} with role: {}", email, role);
-                } else {
-                    logger.warn("Email extracted from token is null or empty");
-                }
-            } catch (Exception e) {
-                logger.error("JWT authentication failed: {} for URI: {}", e.getMessage(), request.getRequestURI());
-                SecurityContextHolder.clearContext();
-            }
-        }
-        filterChain.doFilter(request, response);
-    }
-}
@@ -0,0 +1,9 @@
+package com.evdms.authservice.service;
+
+/** Thrown when the password hashing queue is full; mapped to 503 so clients back off and retry. */
+public class PasswordHashingOverloadedException extends RuntimeException {
+
+    public PasswordHashingOverloadedException() {
+        super("Server is busy. Please try again shortly.");
+    }
+}
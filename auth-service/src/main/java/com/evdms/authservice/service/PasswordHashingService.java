@@ -0,0 +1,138 @@
+package com.evdms.authservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs password hashing and verification on a dedicated pool sized to the CPU, so a login
+ * spike cannot tie up every request thread in BCrypt while {@code /verify} and {@code /refresh}
+ * wait. The queue is bounded: when it is full new work fails fast with
+ * {@link PasswordHashingOverloadedException} (503) instead of piling up latency.
+ * <p>
+ * Metrics: {@code auth.password_hash.duration{operation=encode|matches}} and
+ * {@code auth.password_hash.queue.wait} (with histogram buckets),
+ * {@code auth.password_hash.queue.depth}, {@code auth.password_hash.active},
+ * {@code auth.password_hash.rejections} and {@code auth.password_hash.upgrades}.
+ */
+@Service
+public class PasswordHashingService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Timer queueWait;
+    private final Counter rejections;
+    private final Counter upgrades;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder, MeterRegistry meterRegistry,
+            @Value("${security.password-hashing.threads:0}") int threads,
+            @Value("${security.password-hashing.queue-capacity:64}") int queueCapacity) {
+        this.passwordEncoder = passwordEncoder;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread t = new Thread(r, "password-hash-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }, new ThreadPoolExecutor.AbortPolicy());
+
+        this.encodeTimer = hashTimer("encode", meterRegistry);
+        this.matchesTimer = hashTimer("matches", meterRegistry);
+        this.queueWait = Timer.builder("auth.password_hash.queue.wait")
+                .description("Time a hashing task waited for a pool thread")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejections = Counter.builder("auth.password_hash.rejections")
+                .description("Hashing tasks refused because the queue was full")
+                .register(meterRegistry);
+        this.upgrades = Counter.builder("auth.password_hash.upgrades")
+                .description("Stored hashes re-hashed at login because their format or cost was outdated")
+                .register(meterRegistry);
+        Gauge.builder("auth.password_hash.queue.depth", executor, e -> e.getQueue().size())
+                .description("Hashing tasks waiting for a pool thread")
+                .register(meterRegistry);
+        Gauge.builder("auth.password_hash.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Pool threads currently hashing")
+                .register(meterRegistry);
+    }
+
+    /** Result of {@link #verify}: {@code upgradedHash} is set when the stored hash should be replaced. */
+    public record PasswordCheck(boolean matches, String upgradedHash) {
+    }
+
+    public CompletableFuture<String> encode(CharSequence rawPassword) {
+        return submit(() -> encodeTimer.record(() -> passwordEncoder.encode(rawPassword)));
+    }
+
+    public CompletableFuture<Boolean> matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> matchesTimer.record(() -> passwordEncoder.matches(rawPassword, encodedPassword)));
+    }
+
+    /**
+     * Checks the password and, if it matches but the stored hash uses an outdated format or
+     * cost, re-hashes it in the same task so the caller can persist the stronger hash.
+     */
+    public CompletableFuture<PasswordCheck> verify(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> {
+            boolean matches = matchesTimer.record(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+            if (!matches) {
+                return new PasswordCheck(false, null);
+            }
+            String upgraded = null;
+            if (passwordEncoder.upgradeEncoding(encodedPassword)) {
+                upgraded = encodeTimer.record(() -> passwordEncoder.encode(rawPassword));
+                upgrades.increment();
+            }
+            return new PasswordCheck(true, upgraded);
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> work) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        long queuedAt = System.nanoTime();
+        try {
+            executor.execute(() -> {
+                queueWait.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                try {
+                    result.complete(work.get());
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejections.increment();
+            result.completeExceptionally(new PasswordHashingOverloadedException());
+        }
+        return result;
+    }
+
+    private static Timer hashTimer(String operation, MeterRegistry registry) {
+        return Timer.builder("auth.password_hash.duration")
+                .tag("operation", operation)
+                .description("Time spent hashing or verifying a password")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
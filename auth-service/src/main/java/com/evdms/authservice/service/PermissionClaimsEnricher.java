@@ -0,0 +1,20 @@
+package com.evdms.authservice.service;
+
+import com.evdms.authservice.entity.User;
+import com.evdms.security.core.RolePermissions;
+import com.evdms.security.core.TokenClaims;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/** Resolves the role to its permission bitmask once, at issuance, so verifiers only test bits. */
+@Component
+@Order(100)
+public class PermissionClaimsEnricher implements TokenClaimsEnricher {
+
+    @Override
+    public void enrich(User user, Map<String, Object> claims) {
+        claims.put(TokenClaims.PERMISSIONS, RolePermissions.maskOf((String) claims.get(TokenClaims.ROLE)));
+    }
+}
@@ -0,0 +1,5 @@
+package com.evdms.authservice.service;
+
+/** One permit requested from the named policy for {@code key} (e.g. an IP or an e-mail). */
+public record RateLimitCheck(String policy, String key) {
+}
@@ -0,0 +1,9 @@
+package com.evdms.authservice.service;
+
+/** Thrown when a rate limit rejects a request; mapped to 429 so clients slow down. */
+public class RateLimitExceededException extends RuntimeException {
+
+    public RateLimitExceededException(String message) {
+        super(message);
+    }
+}
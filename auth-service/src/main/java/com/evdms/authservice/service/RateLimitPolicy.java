@@ -0,0 +1,23 @@
+package com.evdms.authservice.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A rate limiting algorithm whose per-key state is a small array of packed longs.
+ * Implementations update the state only with compare-and-set, never with locks, so
+ * unrelated keys never contend and hot keys only contend on their own cache line.
+ * Times are milliseconds on the engine's monotonic clock.
+ */
+public interface RateLimitPolicy {
+
+    AtomicLongArray newState(long nowMillis);
+
+    /** Consumes one permit if available. */
+    boolean tryAcquire(AtomicLongArray state, long nowMillis);
+
+    /** Milliseconds until the next permit becomes available, 0 if one is available now. */
+    long millisUntilAllowed(AtomicLongArray state, long nowMillis);
+
+    /** Time after the last acquisition at which the state is equivalent to a fresh one. */
+    long idleTtlMillis();
+}
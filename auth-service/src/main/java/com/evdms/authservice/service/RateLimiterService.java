@@ -1,45 +1,200 @@
 package com.evdms.authservice.service;
 
+import com.evdms.authservice.config.RateLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
 
+/**
+ * Lock-free rate limiter over named policies (see {@link RateLimitProperties}).
+ * <p>
+ * Each (policy, key) pair owns a small {@link AtomicLongArray} updated only with CAS by its
+ * {@link RateLimitPolicy}, so concurrent requests for different keys never contend. State
+ * is dropped once it has been idle long enough to be equivalent to a fresh one.
+ * <p>
+ * With {@code rate-limit.store=redis} checks go to {@link RedisRateLimiter} so the allowance
+ * is shared by all replicas. If Redis fails, checks use the local state for
+ * {@code rate-limit.fallback-retry-ms} before Redis is tried again: limits then apply per
+ * replica instead of not at all.
+ * <p>
+ * Metrics: {@code auth.rate_limiter.latency{backend=redis}} (with histogram buckets) and
+ * {@code auth.rate_limiter.fallbacks}. Local checks are not timed: they take well under a
+ * microsecond, and recording a histogram sample cost more than the check itself.
+ */
 @Service
 public class RateLimiterService {
-    private static class Bucket {
-        int count;
-        long resetAt;
+
+    public static final String LOGIN = "login";
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimiterService.class);
+
+    private final Map<String, NamedPolicy> policies;
+    private final ExpiringEntryStore<String, AtomicLongArray> states;
+    // Monotonic milliseconds; wall clock steps must not refill or drain buckets
+    private final LongSupplier clock;
+
+    private final RedisRateLimiter distributed;
+    private final long fallbackRetryMillis;
+    private volatile long redisRetryAtMillis;
+
+    private final Timer redisLatency;
+    private final Counter fallbacks;
+
+    @Autowired
+    public RateLimiterService(RateLimitProperties properties, MeterRegistry meterRegistry,
+            ObjectProvider<RedisRateLimiter> distributed) {
+        this(properties, meterRegistry, monotonicMillis(), distributed.getIfAvailable());
     }
 
-    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    RateLimiterService(RateLimitProperties properties, MeterRegistry meterRegistry, LongSupplier clock,
+            RedisRateLimiter distributed) {
+        Map<String, NamedPolicy> built = new HashMap<>();
+        properties.allPolicies().forEach((name, policy) -> built.put(name,
+                new NamedPolicy(policy.build(), name + '|')));
+        this.policies = Map.copyOf(built);
+        this.states = new ExpiringEntryStore<>("rate-limiter", properties.getMaxEntries(),
+                properties.getOverloadPolicy(), meterRegistry, clock);
+        this.clock = clock;
+        this.distributed = distributed;
+        this.fallbackRetryMillis = properties.getFallbackRetryMs();
+        this.redisLatency = Timer.builder("auth.rate_limiter.latency")
+                .tag("backend", "redis")
+                .description("Time to answer a rate limit check")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.fallbacks = Counter.builder("auth.rate_limiter.fallbacks")
+                .description("Checks answered locally because Redis failed")
+                .register(meterRegistry);
+    }
 
-    // 5 requests per 15 minutes
-    private static final int LIMIT = 5;
-    private static final long WINDOW_SECONDS = 15 * 60;
+    /** Checks {@code key} against the login policy. */
+    public boolean allow(String key) {
+        return allow(LOGIN, key);
+    }
 
-    public synchronized boolean allow(String key) {
-        long now = Instant.now().getEpochSecond();
-        Bucket b = buckets.get(key);
-        if (b == null || now > b.resetAt) {
-            b = new Bucket();
-            b.count = 0;
-            b.resetAt = now + WINDOW_SECONDS;
-            buckets.put(key, b);
+    public boolean allow(String policyName, String key) {
+        if (useRedis()) {
+            return allowAll(new RateLimitCheck(policyName, key));
         }
-        if (b.count >= LIMIT) {
-            return false;
+        // Local single check: no varargs array or RateLimitCheck on the hot path
+        return acquireLocally(policy(policyName), key);
+    }
+
+    /**
+     * Takes one permit from every check (e.g. per IP and per account) and allows the request
+     * only if all of them granted one. In Redis mode this is a single round trip.
+     */
+    public boolean allowAll(RateLimitCheck... checks) {
+        if (useRedis()) {
+            for (RateLimitCheck check : checks) {
+                policy(check.policy());
+            }
+            long start = System.nanoTime();
+            try {
+                long[] waits = distributed.tryAcquire(List.of(checks));
+                boolean allowed = true;
+                for (long wait : waits) {
+                    allowed &= wait == 0;
+                }
+                return allowed;
+            } catch (RuntimeException e) {
+                onRedisFailure(e);
+            } finally {
+                redisLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
         }
-        b.count++;
-        return true;
+        boolean allowed = true;
+        // No short circuit: every key is charged, as in Redis mode
+        for (RateLimitCheck check : checks) {
+            allowed &= acquireLocally(policy(check.policy()), check.key());
+        }
+        return allowed;
     }
 
     public long secondsUntilReset(String key) {
-        Bucket b = buckets.get(key);
-        if (b == null)
+        return secondsUntilReset(LOGIN, key);
+    }
+
+    public long secondsUntilReset(String policyName, String key) {
+        NamedPolicy policy = policy(policyName);
+        if (useRedis()) {
+            try {
+                return (distributed.millisUntilAllowed(new RateLimitCheck(policyName, key)) + 999) / 1000;
+            } catch (RuntimeException e) {
+                onRedisFailure(e);
+            }
+        }
+        AtomicLongArray state = states.get(policy.keyPrefix().concat(key));
+        if (state == null)
             return 0;
-        long now = Instant.now().getEpochSecond();
-        return Math.max(0, b.resetAt - now);
+        return (policy.policy().millisUntilAllowed(state, clock.getAsLong()) + 999) / 1000;
+    }
+
+    @Scheduled(fixedDelayString = "${rate-limit.sweep-interval-ms:30000}")
+    public void sweepExpired() {
+        states.sweep();
+    }
+
+    private boolean acquireLocally(NamedPolicy named, String key) {
+        RateLimitPolicy policy = named.policy();
+        String stateKey = named.keyPrefix().concat(key);
+        // One clock read per check; the store keeps idle expiries on the same clock
+        long now = clock.getAsLong();
+        long idleExpiry = now + policy.idleTtlMillis();
+        AtomicLongArray state = states.get(stateKey, now);
+        if (state == null) {
+            // The factory lambda is only allocated for a key without live state
+            state = states.computeIfAbsent(stateKey, k -> policy.newState(now), idleExpiry);
+            if (state == null) {
+                // Store is full: fail closed rather than let new keys through unmetered
+                return false;
+            }
+        }
+        if (!policy.tryAcquire(state, now)) {
+            return false;
+        }
+        states.extendTo(stateKey, idleExpiry);
+        return true;
+    }
+
+    private boolean useRedis() {
+        return distributed != null && System.currentTimeMillis() >= redisRetryAtMillis;
+    }
+
+    private void onRedisFailure(RuntimeException e) {
+        redisRetryAtMillis = System.currentTimeMillis() + fallbackRetryMillis;
+        fallbacks.increment();
+        logger.warn("Redis rate limit check failed, using local limits for {} ms: {}", fallbackRetryMillis,
+                e.getMessage());
+    }
+
+    private NamedPolicy policy(String name) {
+        NamedPolicy policy = policies.get(name);
+        if (policy == null) {
+            throw new IllegalArgumentException("Unknown rate limit policy: " + name);
+        }
+        return policy;
+    }
+
+    // State keys are "<policy>|<key>"; the prefix is built once per policy, not per check
+    private record NamedPolicy(RateLimitPolicy policy, String keyPrefix) {
+    }
+
+    private static LongSupplier monotonicMillis() {
+        long origin = System.nanoTime();
+        return () -> (System.nanoTime() - origin) / 1_000_000;
     }
 }
@@ -0,0 +1,161 @@
+package com.evdms.authservice.service;
+
+import com.evdms.authservice.config.RateLimitProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cluster-wide rate limiting: every check is an atomic Lua script on Redis, so all
+ * replicas share one allowance per key. The scripts read the clock with {@code TIME},
+ * making results independent of clock skew between nodes.
+ * <p>
+ * SLIDING_LOG policies keep a sorted set of attempt times per key; TOKEN_BUCKET and GCRA
+ * policies share a hash-based bucket script (GCRA with burst {@code b} admits exactly
+ * what a bucket of capacity {@code b} does). All checks passed to {@link #tryAcquire} go
+ * out as one pipeline, i.e. one network round trip.
+ * <p>
+ * Errors are not handled here; {@link RateLimiterService} falls back to local limits.
+ */
+public class RedisRateLimiter {
+
+    public static final String KEY_PREFIX = "auth:ratelimit:";
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisRateLimiter.class);
+
+    // KEYS[1] = log, ARGV = limit, window ms, cost (0 = peek), unique member.
+    // Returns 0 if a permit is (or was) available, otherwise milliseconds until one is.
+    private static final DefaultRedisScript<Long> SLIDING_LOG = new DefaultRedisScript<>("""
+            local t = redis.call('TIME')
+            local now = tonumber(t[1]) * 1000 + math.floor(tonumber(t[2]) / 1000)
+            local limit = tonumber(ARGV[1])
+            local window = tonumber(ARGV[2])
+            redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', now - window)
+            if redis.call('ZCARD', KEYS[1]) < limit then
+                if ARGV[3] == '1' then
+                    redis.call('ZADD', KEYS[1], now, ARGV[4])
+                    redis.call('PEXPIRE', KEYS[1], window)
+                end
+                return 0
+            end
+            local oldest = redis.call('ZRANGE', KEYS[1], 0, 0, 'WITHSCORES')
+            return math.max(1, tonumber(oldest[2]) + window - now)
+            """, Long.class);
+
+    // KEYS[1] = bucket, ARGV = capacity, limit, window ms, cost (0 = peek). Same result as above.
+    // A denied request writes nothing, so fractional refill is never lost.
+    private static final DefaultRedisScript<Long> TOKEN_BUCKET = new DefaultRedisScript<>("""
+            local t = redis.call('TIME')
+            local now = tonumber(t[1]) * 1000 + math.floor(tonumber(t[2]) / 1000)
+            local capacity = tonumber(ARGV[1])
+            local rate = tonumber(ARGV[2]) / tonumber(ARGV[3])
+            local state = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+            local tokens = tonumber(state[1]) or capacity
+            local ts = tonumber(state[2]) or now
+            tokens = math.min(capacity, tokens + math.max(0, now - ts) * rate)
+            if tokens < 1 then
+                return math.max(1, math.ceil((1 - tokens) / rate))
+            end
+            if ARGV[4] == '1' then
+                redis.call('HSET', KEYS[1], 'tokens', tokens - 1, 'ts', now)
+                redis.call('PEXPIRE', KEYS[1], math.ceil(capacity / rate))
+            end
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate redis;
+    private final Map<String, RateLimitProperties.Policy> policies;
+    // Sorted-set members must be unique across nodes
+    private final String nodeId = UUID.randomUUID().toString();
+    private final AtomicLong sequence = new AtomicLong();
+
+    public RedisRateLimiter(StringRedisTemplate redis, Map<String, RateLimitProperties.Policy> policies) {
+        this.redis = redis;
+        this.policies = Map.copyOf(policies);
+    }
+
+    /**
+     * Consumes one permit per check, in a single round trip.
+     *
+     * @return per check, 0 if granted or the milliseconds until a permit becomes available
+     */
+    public long[] tryAcquire(List<RateLimitCheck> checks) {
+        return run(checks, true);
+    }
+
+    /** Milliseconds until {@code check} would be granted, without consuming anything. */
+    public long millisUntilAllowed(RateLimitCheck check) {
+        return run(List.of(check), false)[0];
+    }
+
+    /** Preloads the scripts so pipelined EVALSHA calls find them. Failures are only logged. */
+    public void loadScripts() {
+        try {
+            redis.execute((RedisCallback<Object>) connection -> {
+                connection.scriptingCommands().scriptLoad(bytes(SLIDING_LOG.getScriptAsString()));
+                connection.scriptingCommands().scriptLoad(bytes(TOKEN_BUCKET.getScriptAsString()));
+                return null;
+            });
+        } catch (RuntimeException e) {
+            logger.warn("Could not load rate limit scripts: {}", e.getMessage());
+        }
+    }
+
+    private long[] run(List<RateLimitCheck> checks, boolean consume) {
+        List<Object> results;
+        try {
+            results = pipeline(checks, consume);
+        } catch (RuntimeException e) {
+            Throwable cause = NestedExceptionUtils.getMostSpecificCause(e);
+            if (cause.getMessage() == null || !cause.getMessage().contains("NOSCRIPT")) {
+                throw e;
+            }
+            // Redis restarted or flushed its script cache
+            loadScripts();
+            results = pipeline(checks, consume);
+        }
+        long[] waits = new long[checks.size()];
+        for (int i = 0; i < waits.length; i++) {
+            waits[i] = ((Number) results.get(i)).longValue();
+        }
+        return waits;
+    }
+
+    private List<Object> pipeline(List<RateLimitCheck> checks, boolean consume) {
+        return redis.executePipelined((RedisCallback<Object>) connection -> {
+            for (RateLimitCheck check : checks) {
+                RateLimitProperties.Policy policy = policies.get(check.policy());
+                if (policy == null) {
+                    throw new IllegalArgumentException("Unknown rate limit policy: " + check.policy());
+                }
+                byte[] key = bytes(KEY_PREFIX + check.policy() + ":" + check.key());
+                long windowMillis = policy.getWindowMinutes() * 60_000;
+                String cost = consume ? "1" : "0";
+                if (policy.getAlgorithm() == RateLimitProperties.Algorithm.SLIDING_LOG) {
+                    connection.scriptingCommands().evalSha(SLIDING_LOG.getSha1(), ReturnType.INTEGER, 1, key,
+                            bytes(String.valueOf(policy.getMaxAttempts())), bytes(String.valueOf(windowMillis)),
+                            bytes(cost), bytes(nodeId + ":" + sequence.incrementAndGet()));
+                } else {
+                    connection.scriptingCommands().evalSha(TOKEN_BUCKET.getSha1(), ReturnType.INTEGER, 1, key,
+                            bytes(String.valueOf(policy.effectiveBurst())), bytes(String.valueOf(policy.getMaxAttempts())),
+                            bytes(String.valueOf(windowMillis)), bytes(cost));
+                }
+            }
+            return null;
+        });
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
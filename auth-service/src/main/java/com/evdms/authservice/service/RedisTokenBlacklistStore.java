@@ -0,0 +1,174 @@
+package com.evdms.authservice.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cluster-wide blacklist backed by Redis, with a local Bloom filter in front.
+ * <p>
+ * Each revoked token is stored as {@code auth:blacklist:<sha256>} with a TTL equal to
+ * the token's remaining life, so Redis purges it on its own. Every node keeps a Bloom
+ * filter of known digests: a miss (the common "not revoked" case) is answered without
+ * leaving the JVM, and only possible hits are confirmed with an EXISTS.
+ * <p>
+ * Nodes learn about revocations from other replicas through the
+ * {@code auth:blacklist:events} pub/sub channel. Because Bloom filters cannot drop
+ * entries, the filter is periodically rebuilt from a SCAN of live keys, which also
+ * recovers anything missed while a node was disconnected.
+ * <p>
+ * A revocation that cannot reach Redis is still honoured by this node: it is kept locally
+ * until its TTL ends and written to Redis (and announced) by {@link #retryUnsynced()} once
+ * Redis answers again. Other replicas learn about it only then.
+ */
+public class RedisTokenBlacklistStore implements TokenBlacklistStore, MessageListener {
+
+    public static final String KEY_PREFIX = "auth:blacklist:";
+    public static final String CHANNEL = "auth:blacklist:events";
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisTokenBlacklistStore.class);
+
+    private final StringRedisTemplate redis;
+    private final long expectedEntries;
+    private final double falsePositiveRate;
+
+    private volatile BloomFilter filter;
+    // Non-null while a rebuild is scanning; pub/sub events are applied to it as well
+    private BloomFilter rebuilding;
+    // Guards 'rebuilding' and the swap, so a digest is never put into a filter being retired only
+    private final ReentrantLock filterLock = new ReentrantLock();
+    // Revocations Redis has not accepted yet: digest -> expiry (epoch millis)
+    private final Map<String, Long> unsynced = new ConcurrentHashMap<>();
+    // Until the first successful rebuild the filter may be incomplete, so every lookup goes to Redis
+    private volatile boolean ready;
+
+    public RedisTokenBlacklistStore(StringRedisTemplate redis, long expectedEntries, double falsePositiveRate) {
+        this.redis = redis;
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = new BloomFilter(expectedEntries, falsePositiveRate);
+    }
+
+    @Override
+    public void add(String tokenDigest, long ttlSeconds) {
+        try {
+            // Write the key before touching the filter so a concurrent rebuild's SCAN either sees it
+            // or is already registered in 'rebuilding'
+            publish(tokenDigest, ttlSeconds);
+        } catch (RuntimeException e) {
+            // Logout must not fail on Redis; this node rejects the token meanwhile
+            unsynced.put(tokenDigest, System.currentTimeMillis() + ttlSeconds * 1000);
+            logger.warn("Could not store token revocation in Redis, keeping it locally until Redis is back: {}",
+                    e.getMessage());
+        }
+        remember(tokenDigest);
+    }
+
+    @Override
+    public boolean contains(String tokenDigest) {
+        if (unsynced.containsKey(tokenDigest)) {
+            return true;
+        }
+        if (ready && !filter.mightContain(tokenDigest)) {
+            return false;
+        }
+        try {
+            return Boolean.TRUE.equals(redis.hasKey(KEY_PREFIX + tokenDigest));
+        } catch (RuntimeException e) {
+            // Only Bloom positives (or a cold filter) reach Redis; fail closed for those
+            logger.warn("Blacklist lookup failed, treating token as revoked: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        remember(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Replaces the Bloom filter with one built from the keys currently in Redis,
+     * dropping digests whose keys have expired.
+     */
+    @Scheduled(initialDelayString = "${security.token-blacklist.bloom.rebuild-interval-ms:600000}",
+            fixedDelayString = "${security.token-blacklist.bloom.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        BloomFilter fresh = new BloomFilter(expectedEntries, falsePositiveRate);
+        setRebuilding(fresh);
+        long count = 0;
+        try (Cursor<String> keys = redis.scan(ScanOptions.scanOptions().match(KEY_PREFIX + "*").count(1000).build())) {
+            while (keys.hasNext()) {
+                fresh.put(keys.next().substring(KEY_PREFIX.length()));
+                count++;
+            }
+            filterLock.lock();
+            try {
+                filter = fresh;
+                rebuilding = null;
+            } finally {
+                filterLock.unlock();
+            }
+            ready = true;
+            logger.debug("Rebuilt token blacklist bloom filter with {} entries", count);
+        } catch (RuntimeException e) {
+            setRebuilding(null);
+            logger.warn("Could not rebuild token blacklist bloom filter: {}", e.getMessage());
+        }
+    }
+
+    /** Writes revocations that failed while Redis was unreachable; stops at the first failure. */
+    @Scheduled(fixedDelayString = "${security.token-blacklist.retry-interval-ms:5000}")
+    public void retryUnsynced() {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<String, Long> entry : unsynced.entrySet()) {
+            long remainingSeconds = (entry.getValue() - now) / 1000;
+            if (remainingSeconds > 0) {
+                try {
+                    publish(entry.getKey(), remainingSeconds);
+                } catch (RuntimeException e) {
+                    logger.debug("Redis still unavailable for {} pending revocations: {}", unsynced.size(),
+                            e.getMessage());
+                    return;
+                }
+            }
+            unsynced.remove(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private void publish(String tokenDigest, long ttlSeconds) {
+        redis.opsForValue().set(KEY_PREFIX + tokenDigest, "1", Duration.ofSeconds(ttlSeconds));
+        redis.convertAndSend(CHANNEL, tokenDigest);
+    }
+
+    private void setRebuilding(BloomFilter next) {
+        filterLock.lock();
+        try {
+            rebuilding = next;
+        } finally {
+            filterLock.unlock();
+        }
+    }
+
+    private void remember(String tokenDigest) {
+        filterLock.lock();
+        try {
+            filter.put(tokenDigest);
+            if (rebuilding != null) {
+                rebuilding.put(tokenDigest);
+            }
+        } finally {
+            filterLock.unlock();
+        }
+    }
+}
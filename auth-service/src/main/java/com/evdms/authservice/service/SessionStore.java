@@ -0,0 +1,40 @@
+package com.evdms.authservice.service;
+
+import com.evdms.authservice.entity.Session;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Where refresh-token sessions live. Selected with {@code security.sessions.store}:
+ * {@code database} writes through to the {@code sessions} table, {@code memory} serves
+ * reads from a hot in-memory tier and writes the table behind in batches.
+ */
+public interface SessionStore {
+
+    /** Stores a new session, assigning its id. */
+    Session create(Session session);
+
+    Optional<Session> findByRefreshToken(String refreshToken);
+
+    Optional<Session> findById(UUID id);
+
+    List<Session> findByUserId(UUID userId);
+
+    /**
+     * Replaces the session's refresh token; the old token stops resolving immediately. Empty when
+     * the session no longer holds that token (rotated by a concurrent refresh, or revoked): of
+     * concurrent rotations of one token exactly one succeeds.
+     */
+    Optional<Session> rotate(Session session, String newRefreshToken, Instant expiresAt);
+
+    void delete(Session session);
+
+    void deleteByUserId(UUID userId);
+
+    /** Revokes all sessions of these users with one DELETE; returns the rows deleted from the table. */
+    int deleteByUserIds(Collection<UUID> userIds);
+}
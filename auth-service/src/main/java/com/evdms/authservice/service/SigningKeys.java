@@ -0,0 +1,155 @@
+package com.evdms.authservice.service;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Locator;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.Jwks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * ES256 (P-256) keys used to sign tokens, loaded from a PKCS12 key store whose aliases are the
+ * key ids ({@code kid}).
+ * <p>
+ * The entry named by {@code security.jwt.signing.active-key-id} signs new tokens. Every other
+ * entry is published for verification only: private-key entries waiting to become active, and
+ * certificate-only entries for retired keys whose tokens have not expired yet. Rotation:
+ * <ol>
+ * <li>add the new key pair and deploy; it is published but not used yet;</li>
+ * <li>after the verifiers' {@code security.jwt.jwks.refresh-interval}, make it the active key;</li>
+ * <li>replace the old key pair by its certificate and drop that once the longest-lived token
+ * it signed has expired.</li>
+ * </ol>
+ * Without a key store an ephemeral key is generated at startup. That only works for a single
+ * replica: tokens issued before a restart stop verifying and clients have to refresh. Deployed
+ * profiles set {@code security.jwt.signing.require-key-store} so a missing store fails startup
+ * instead.
+ */
+@Component
+public class SigningKeys {
+
+    private static final Logger logger = LoggerFactory.getLogger(SigningKeys.class);
+
+    private final String activeKeyId;
+    private final PrivateKey activeKey;
+    private final Map<String, PublicKey> verificationKeys;
+    private final List<Map<String, Object>> jwks;
+
+    public SigningKeys(ResourceLoader resourceLoader,
+            @Value("${security.jwt.signing.key-store:}") String keyStore,
+            @Value("${security.jwt.signing.key-store-password:}") String keyStorePassword,
+            @Value("${security.jwt.signing.active-key-id:}") String activeKeyId,
+            @Value("${security.jwt.signing.require-key-store:false}") boolean requireKeyStore) throws Exception {
+        Map<String, PublicKey> publicKeys = new LinkedHashMap<>();
+        Map<String, PrivateKey> privateKeys = new LinkedHashMap<>();
+        if (keyStore.isBlank() && requireKeyStore) {
+            throw new IllegalStateException("security.jwt.signing.key-store is required: an ephemeral key would "
+                    + "invalidate every token on restart and differ between replicas");
+        }
+        if (keyStore.isBlank()) {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec("secp256r1"));
+            KeyPair pair = generator.generateKeyPair();
+            String kid = "ephemeral-" + UUID.randomUUID();
+            publicKeys.put(kid, pair.getPublic());
+            privateKeys.put(kid, pair.getPrivate());
+            logger.warn("security.jwt.signing.key-store is not set; signing with ephemeral key {}. "
+                    + "Use a key store when running more than one auth-service replica.", kid);
+        } else {
+            // Plain paths are files; classpath: and other prefixes are honoured
+            String location = keyStore.contains(":") ? keyStore : "file:" + keyStore;
+            load(resourceLoader.getResource(location), keyStorePassword.toCharArray(), publicKeys, privateKeys);
+        }
+
+        String active = activeKeyId;
+        if (active.isBlank() && privateKeys.size() == 1) {
+            active = privateKeys.keySet().iterator().next();
+        }
+        if (!privateKeys.containsKey(active)) {
+            throw new IllegalStateException("security.jwt.signing.active-key-id must name a private key entry, one of "
+                    + privateKeys.keySet());
+        }
+        for (Map.Entry<String, PublicKey> e : publicKeys.entrySet()) {
+            if (!(e.getValue() instanceof ECPublicKey ec) || ec.getParams().getCurve().getField().getFieldSize() != 256) {
+                throw new IllegalStateException("Signing key " + e.getKey() + " is not a P-256 EC key");
+            }
+        }
+
+        this.activeKeyId = active;
+        this.activeKey = privateKeys.get(active);
+        this.verificationKeys = Collections.unmodifiableMap(publicKeys);
+        this.jwks = toJwks(publicKeys);
+        logger.info("Signing tokens with key {}; publishing {}", active, publicKeys.keySet());
+    }
+
+    public String activeKeyId() {
+        return activeKeyId;
+    }
+
+    public PrivateKey activeKey() {
+        return activeKey;
+    }
+
+    /** Public JWKs for every published key id, ready to serialize as the {@code keys} member. */
+    public List<Map<String, Object>> jwks() {
+        return jwks;
+    }
+
+    /** Resolves verification keys by {@code kid} for this service's own verifier. */
+    public Locator<Key> locator() {
+        return new LocatorAdapter<>() {
+            @Override
+            protected Key locate(JwsHeader header) {
+                PublicKey key = header.getKeyId() != null ? verificationKeys.get(header.getKeyId()) : null;
+                if (key == null) {
+                    throw new UnsupportedJwtException("Unknown signing key id: " + header.getKeyId());
+                }
+                return key;
+            }
+        };
+    }
+
+    private static void load(Resource resource, char[] password, Map<String, PublicKey> publicKeys,
+            Map<String, PrivateKey> privateKeys) throws Exception {
+        KeyStore store = KeyStore.getInstance("PKCS12");
+        try (InputStream in = resource.getInputStream()) {
+            store.load(in, password);
+        }
+        for (String alias : Collections.list(store.aliases())) {
+            if (store.isKeyEntry(alias)) {
+                privateKeys.put(alias, (PrivateKey) store.getKey(alias, password));
+            }
+            if (store.getCertificate(alias) != null) {
+                publicKeys.put(alias, store.getCertificate(alias).getPublicKey());
+            }
+        }
+    }
+
+    private static List<Map<String, Object>> toJwks(Map<String, PublicKey> publicKeys) {
+        List<Map<String, Object>> keys = new ArrayList<>();
+        publicKeys.forEach((kid, key) -> keys.add(Collections.unmodifiableMap(new LinkedHashMap<String, Object>(
+                Jwks.builder().key((ECPublicKey) key).id(kid).publicKeyUse("sig").algorithm("ES256").build()))));
+        return List.copyOf(keys);
+    }
+}
@@ -0,0 +1,80 @@
+package com.evdms.authservice.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Exact sliding window: remembers the timestamps of the last {@code limit} permits in a
+ * ring and allows a request only if the oldest of them is at least {@code window} old.
+ * <p>
+ * Slot 0 holds the ring cursor (a sequence number); slots 1..limit hold packed entries
+ * ({@code (timestamp + 1) << 24 | seq & 0xFFFFFF}, 0 = empty), with timestamps counted from the
+ * clock reading in the last slot, taken when the state was created, so that any clock fits in
+ * the 40 timestamp bits. Writers claim the slot for the
+ * current sequence with CAS and then advance the cursor. A thread that finds the slot already
+ * stamped with the current sequence knows the cursor is lagging and helps advance it, so no
+ * thread ever waits on another.
+ */
+public final class SlidingWindowLogPolicy implements RateLimitPolicy {
+
+    private static final int SEQ_BITS = 24;
+    private static final long SEQ_MASK = (1L << SEQ_BITS) - 1;
+
+    private final int limit;
+    private final long windowMillis;
+
+    public SlidingWindowLogPolicy(int limit, long windowMillis) {
+        if (limit <= 0 || limit > 65535 || windowMillis <= 0) {
+            throw new IllegalArgumentException("Sliding window log needs 0 < limit <= 65535 and window > 0");
+        }
+        this.limit = limit;
+        this.windowMillis = windowMillis;
+    }
+
+    @Override
+    public AtomicLongArray newState(long nowMillis) {
+        AtomicLongArray state = new AtomicLongArray(limit + 2);
+        state.set(limit + 1, nowMillis);
+        return state;
+    }
+
+    @Override
+    public boolean tryAcquire(AtomicLongArray state, long nowMillis) {
+        long elapsed = Math.max(0, nowMillis - state.get(limit + 1));
+        while (true) {
+            long seq = state.get(0);
+            int slot = 1 + (int) (seq % limit);
+            long entry = state.get(slot);
+            if (entry != 0 && (entry & SEQ_MASK) == (seq & SEQ_MASK)) {
+                // Another thread already used this sequence; help move the cursor on
+                state.compareAndSet(0, seq, seq + 1);
+                continue;
+            }
+            if (entry != 0 && elapsed - timestamp(entry) < windowMillis) {
+                return false;
+            }
+            long stamped = ((elapsed + 1) << SEQ_BITS) | (seq & SEQ_MASK);
+            if (state.compareAndSet(slot, entry, stamped)) {
+                state.compareAndSet(0, seq, seq + 1);
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public long millisUntilAllowed(AtomicLongArray state, long nowMillis) {
+        long seq = state.get(0);
+        long entry = state.get(1 + (int) (seq % limit));
+        if (entry == 0)
+            return 0;
+        return Math.max(0, timestamp(entry) + windowMillis - (nowMillis - state.get(limit + 1)));
+    }
+
+    @Override
+    public long idleTtlMillis() {
+        return windowMillis;
+    }
+
+    private static long timestamp(long entry) {
+        return (entry >>> SEQ_BITS) - 1;
+    }
+}
@@ -1,33 +1,33 @@
 package com.evdms.authservice.service;
 
+import com.evdms.security.core.JwtVerifier;
+import com.evdms.security.core.VerifiedToken;
 import org.springframework.stereotype.Service;
 
-import java.time.Instant;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-
 @Service
 public class TokenBlacklistService {
-    private static class Entry {
-        long expiresAt;
-    }
 
-    private final Map<String, Entry> blacklist = new ConcurrentHashMap<>();
+    private final TokenBlacklistStore store;
+    private final JwtVerifier jwtVerifier;
+
+    public TokenBlacklistService(TokenBlacklistStore store, JwtVerifier jwtVerifier) {
+        this.store = store;
+        this.jwtVerifier = jwtVerifier;
+    }
 
     public void blacklist(String token, long ttlSeconds) {
-        Entry e = new Entry();
-        e.expiresAt = Instant.now().getEpochSecond() + ttlSeconds;
-        blacklist.put(token, e);
+        if (token == null || ttlSeconds <= 0)
+            return;
+        store.add(TokenHashing.sha256Hex(token), ttlSeconds);
+    }
+
+    // Keep the token revoked for exactly its remaining life; expired or invalid tokens are already rejected
+    public void blacklist(String token) {
+        long remaining = jwtVerifier.verify(token).map(VerifiedToken::remainingSeconds).orElse(0L);
+        blacklist(token, remaining);
     }
 
     public boolean isBlacklisted(String token) {
-        Entry e = blacklist.get(token);
-        if (e == null)
-            return false;
-        if (Instant.now().getEpochSecond() > e.expiresAt) {
-            blacklist.remove(token);
-            return false;
-        }
-        return true;
+        return store.contains(TokenHashing.sha256Hex(token));
     }
 }
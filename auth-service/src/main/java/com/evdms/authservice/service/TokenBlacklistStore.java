@@ -0,0 +1,12 @@
+package com.evdms.authservice.service;
+
+/**
+ * Backing store for revoked access tokens. Keys are SHA-256 hex digests of the
+ * token, never the raw JWT. Entries must disappear once their TTL has elapsed.
+ */
+public interface TokenBlacklistStore {
+
+    void add(String tokenDigest, long ttlSeconds);
+
+    boolean contains(String tokenDigest);
+}
@@ -0,0 +1,98 @@
+package com.evdms.authservice.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Token bucket refilled continuously at {@code limit / window}, holding at most {@code capacity} tokens.
+ * <p>
+ * State is one long: the high 40 bits hold the last refill time in ms (about 34 years of
+ * range), the low 24 bits hold the token count in 1/256 units (capacity up to 65535).
+ */
+public final class TokenBucketPolicy implements RateLimitPolicy {
+
+    private static final int TOKEN_BITS = 24;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+    private static final long ONE_TOKEN = 256;
+
+    private final long capacityUnits;
+    // Refill rate as a ratio, kept in integers so results do not depend on rounding
+    private final long unitsPerWindow;
+    private final long windowMillis;
+    private final long fullRefillMillis;
+
+    public TokenBucketPolicy(int limit, long windowMillis, int capacity) {
+        if (limit <= 0 || windowMillis <= 0 || capacity <= 0 || capacity * ONE_TOKEN > TOKEN_MASK) {
+            throw new IllegalArgumentException("Token bucket needs limit > 0, window > 0 and 0 < capacity <= 65535");
+        }
+        this.capacityUnits = capacity * ONE_TOKEN;
+        this.unitsPerWindow = limit * ONE_TOKEN;
+        this.windowMillis = windowMillis;
+        this.fullRefillMillis = millisFor(capacityUnits);
+    }
+
+    @Override
+    public AtomicLongArray newState(long nowMillis) {
+        AtomicLongArray state = new AtomicLongArray(1);
+        state.set(0, pack(nowMillis, capacityUnits));
+        return state;
+    }
+
+    @Override
+    public boolean tryAcquire(AtomicLongArray state, long nowMillis) {
+        while (true) {
+            long current = state.get(0);
+            long refilled = refill(current, nowMillis);
+            if ((refilled & TOKEN_MASK) < ONE_TOKEN) {
+                return false;
+            }
+            if (state.compareAndSet(0, current, refilled - ONE_TOKEN)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public long millisUntilAllowed(AtomicLongArray state, long nowMillis) {
+        long refilled = refill(state.get(0), nowMillis);
+        long units = refilled & TOKEN_MASK;
+        if (units >= ONE_TOKEN)
+            return 0;
+        long sinceRefill = nowMillis - (refilled >>> TOKEN_BITS);
+        return Math.max(0, millisFor(ONE_TOKEN - units) - sinceRefill);
+    }
+
+    @Override
+    public long idleTtlMillis() {
+        return Math.max(windowMillis, fullRefillMillis);
+    }
+
+    // Adds the tokens earned since the last refill. Only the time actually converted into
+    // whole units is consumed, so frequent calls do not lose fractional refill.
+    private long refill(long packed, long nowMillis) {
+        long last = packed >>> TOKEN_BITS;
+        long units = packed & TOKEN_MASK;
+        long elapsed = nowMillis - last;
+        if (units >= capacityUnits || elapsed >= fullRefillMillis) {
+            return pack(Math.max(last, nowMillis), capacityUnits);
+        }
+        if (elapsed <= 0) {
+            return packed;
+        }
+        long earned = elapsed * unitsPerWindow / windowMillis;
+        if (earned == 0) {
+            return packed;
+        }
+        if (units + earned >= capacityUnits) {
+            return pack(nowMillis, capacityUnits);
+        }
+        return pack(last + earned * windowMillis / unitsPerWindow, units + earned);
+    }
+
+    private long millisFor(long units) {
+        return (units * windowMillis + unitsPerWindow - 1) / unitsPerWindow;
+    }
+
+    private static long pack(long millis, long units) {
+        return (millis << TOKEN_BITS) | units;
+    }
+}
@@ -0,0 +1,15 @@
+package com.evdms.authservice.service;
+
+import com.evdms.authservice.entity.User;
+
+import java.util.Map;
+
+/**
+ * One step of access-token claim assembly. {@link JwtUtil} runs every enricher bean in
+ * {@link org.springframework.core.annotation.Order} order; later steps may read or override
+ * what earlier ones put. Enrichers work from the loaded {@link User} only and must not query.
+ */
+public interface TokenClaimsEnricher {
+
+    void enrich(User user, Map<String, Object> claims);
+}
@@ -0,0 +1,216 @@
+package com.evdms.authservice.service;
+
+import com.evdms.authservice.dto.BulkUserUpdateRequest;
+import com.evdms.authservice.dto.BulkUserUpdateResult;
+import com.evdms.authservice.dto.UserPage;
+import com.evdms.authservice.dto.UserSummary;
+import com.evdms.authservice.repository.UserChanges;
+import com.evdms.authservice.repository.UserFilter;
+import com.evdms.authservice.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Admin listing, export and bulk changes of users.
+ * <p>
+ * Listing is keyset-paginated by id and returns {@link UserSummary} projections. Export
+ * streams rows from a database cursor straight to the response, so memory stays flat however
+ * many users there are. Bulk changes run in chunks of {@code admin.users.bulk-chunk-size}:
+ * one UPDATE and one session DELETE per chunk, each chunk in its own transaction so locks
+ * are held briefly and a failure leaves earlier chunks applied.
+ */
+@Service
+public class UserAdminService {
+
+    public enum ExportFormat {
+        NDJSON, CSV;
+
+        /** Case-insensitive; an unknown name is a client error, not a server one. */
+        public static ExportFormat parse(String name) {
+            for (ExportFormat format : values()) {
+                if (format.name().equalsIgnoreCase(name)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported export format '" + name + "', expected ndjson or csv");
+        }
+    }
+
+    private static final String CSV_HEADER = "id,username,email,fullName,role,dealerId,active,emailVerified,"
+            + "lastLogin,createdAt,deletedAt";
+
+    private final UserRepository userRepository;
+    private final SessionStore sessionStore;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transaction;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int maxPageSize;
+    private final int exportFetchSize;
+    private final int bulkChunkSize;
+
+    public UserAdminService(UserRepository userRepository, SessionStore sessionStore, ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${admin.users.max-page-size:500}") int maxPageSize,
+            @Value("${admin.users.export-fetch-size:1000}") int exportFetchSize,
+            @Value("${admin.users.bulk-chunk-size:500}") int bulkChunkSize) {
+        this.userRepository = userRepository;
+        this.sessionStore = sessionStore;
+        this.objectMapper = objectMapper;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.maxPageSize = maxPageSize;
+        this.exportFetchSize = exportFetchSize;
+        this.bulkChunkSize = bulkChunkSize;
+    }
+
+    public UserPage listUsers(UserFilter filter, String after, int limit) {
+        int size = Math.max(1, Math.min(limit, maxPageSize));
+        UUID cursor = after != null && !after.isBlank() ? parseCursor(after) : null;
+        // One extra row tells whether another page exists without a COUNT
+        List<UserSummary> rows = userRepository.findSummaries(filter, cursor, size + 1);
+        if (rows.size() <= size) {
+            return new UserPage(rows, null);
+        }
+        List<UserSummary> page = rows.subList(0, size);
+        return new UserPage(List.copyOf(page), page.get(size - 1).id().toString());
+    }
+
+    /**
+     * Writes every matching user to {@code out}, one line per user. The cursor stays open in a
+     * read-only transaction for the duration of the export.
+     *
+     * @return number of users written
+     */
+    public long export(UserFilter filter, ExportFormat format, OutputStream out) {
+        Long written = readOnlyTransaction.execute(status -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            try (Stream<UserSummary> users = userRepository.streamSummaries(filter, exportFetchSize)) {
+                if (format == ExportFormat.CSV) {
+                    writer.write(CSV_HEADER);
+                    writer.write('\n');
+                }
+                long count = 0;
+                for (UserSummary user : (Iterable<UserSummary>) users::iterator) {
+                    writer.write(format == ExportFormat.CSV ? toCsv(user) : objectMapper.writeValueAsString(user));
+                    writer.write('\n');
+                    count++;
+                }
+                writer.flush();
+                return count;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return written != null ? written : 0;
+    }
+
+    /**
+     * Applies the request's changes to its target users chunk by chunk and revokes their
+     * sessions, so deactivated or re-roled users must log in again.
+     */
+    public BulkUserUpdateResult bulkUpdate(BulkUserUpdateRequest request) {
+        UserChanges changes = request.changes();
+        if (changes.isEmpty()) {
+            throw new IllegalArgumentException("No changes requested");
+        }
+        boolean byIds = request.ids() != null && !request.ids().isEmpty();
+        boolean byFilter = request.filter() != null && !request.filter().isEmpty();
+        if (byIds == byFilter) {
+            throw new IllegalArgumentException("Specify either ids or a non-empty filter");
+        }
+
+        long start = System.nanoTime();
+        List<BulkUserUpdateResult.Chunk> chunks = new ArrayList<>();
+        if (byIds) {
+            List<UUID> ids = List.copyOf(new LinkedHashSet<>(request.ids()));
+            for (int from = 0; from < ids.size(); from += bulkChunkSize) {
+                chunks.add(applyChunk(chunks.size(), ids.subList(from, Math.min(from + bulkChunkSize, ids.size())),
+                        changes));
+            }
+        } else {
+            // Keyset walk: the cursor moves past updated rows even when they stop matching the filter
+            UUID after = null;
+            List<UUID> ids;
+            do {
+                ids = userRepository.findIds(request.filter(), after, bulkChunkSize);
+                if (!ids.isEmpty()) {
+                    chunks.add(applyChunk(chunks.size(), ids, changes));
+                    after = ids.get(ids.size() - 1);
+                }
+            } while (ids.size() == bulkChunkSize);
+        }
+
+        long users = 0;
+        long sessions = 0;
+        for (BulkUserUpdateResult.Chunk chunk : chunks) {
+            users += chunk.usersUpdated();
+            sessions += chunk.sessionsRevoked();
+        }
+        return new BulkUserUpdateResult(users, sessions, (System.nanoTime() - start) / 1_000_000, chunks);
+    }
+
+    private BulkUserUpdateResult.Chunk applyChunk(int index, List<UUID> ids, UserChanges changes) {
+        long start = System.nanoTime();
+        int[] counts = transaction.execute(status -> new int[] {
+                userRepository.updateAll(ids, changes, Instant.now()),
+                sessionStore.deleteByUserIds(ids) });
+        return new BulkUserUpdateResult.Chunk(index, ids.size(), counts[0], counts[1],
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static String toCsv(UserSummary user) {
+        return String.join(",",
+                csv(user.id()),
+                csv(user.username()),
+                csv(user.email()),
+                csv(user.fullName()),
+                csv(user.role()),
+                csv(user.dealerId()),
+                csv(user.active()),
+                csv(user.emailVerified()),
+                csv(user.lastLogin()),
+                csv(user.createdAt()),
+                csv(user.deletedAt()));
+    }
+
+    // RFC 4180 quoting; a leading formula character is neutralised for spreadsheet safety
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String s = value.toString();
+        if (!s.isEmpty() && "=+-@".indexOf(s.charAt(0)) >= 0) {
+            s = "'" + s;
+        }
+        if (s.indexOf(',') >= 0 || s.indexOf('"') >= 0 || s.indexOf('\n') >= 0 || s.indexOf('\r') >= 0) {
+            return '"' + s.replace("\"", "\"\"") + '"';
+        }
+        return s;
+    }
+
+    private static UUID parseCursor(String after) {
+        try {
+            return UUID.fromString(after);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor '" + after + "'");
+        }
+    }
+}
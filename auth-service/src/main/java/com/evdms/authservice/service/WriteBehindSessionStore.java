@@ -0,0 +1,381 @@
+package com.evdms.authservice.service;
+
+import com.evdms.authservice.entity.Session;
+import com.evdms.authservice.repository.SessionRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Session store with a hot in-memory tier and write-behind persistence.
+ * <p>
+ * Live sessions are kept by the SHA-256 of their refresh token, so a refresh is answered
+ * without touching the database. Creates and rotations are queued per session id (later
+ * changes overwrite earlier ones) and written to the {@code sessions} table in one transaction
+ * every {@code flush-interval-ms} (new sessions as batched INSERTs, rotations as one batched
+ * UPDATE of token and expiry by id); a crash loses at most that window, i.e. new logins and the
+ * latest rotation of a session. Deletes (logout, revocation) are written through before they
+ * return, so no crash brings a revoked token back. When the queue reaches {@code max-pending}
+ * an early flush is handed to the task executor; request threads never write the batch.
+ * <p>
+ * The hot tier is per JVM, so this store is for a single replica. Lookups that miss it fall
+ * back to the table, which is also how a restarted node warms up.
+ * <p>
+ * Rotation is a compare-and-set on the old token: rotations, deletes and table lookups of one
+ * token hold the same striped lock, and a rotation only goes ahead while the session still
+ * holds that token, so two refreshes racing with one token cannot both get a new one.
+ * <p>
+ * Metrics: {@code auth.sessions.write_behind.pending} and {@code auth.sessions.write_behind.flush}.
+ */
+public class WriteBehindSessionStore implements SessionStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(WriteBehindSessionStore.class);
+    private static final String UPDATE_TOKEN =
+            "UPDATE sessions SET refresh_token_hash = ?, expires_at = ? WHERE id = ?";
+    private static final int BATCH_SIZE = 50;
+
+    private final SessionRepository sessionRepository;
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ExpiringEntryStore<String, Session> hot;
+    private final int maxPending;
+    private final Executor flushExecutor;
+
+    // Latest unwritten state per session id
+    private final Map<UUID, Session> pending = new ConcurrentHashMap<>();
+    // The same sessions by token hash, for lookups the hot tier no longer answers
+    private final Map<String, Session> pendingByToken = new ConcurrentHashMap<>();
+    // Sessions created here and not yet inserted; decides INSERT vs UPDATE at flush time
+    private final Set<UUID> unflushed = ConcurrentHashMap.newKeySet();
+    // Held across database writes: a lock, not a monitor, so waiting virtual threads unmount
+    // instead of pinning their carrier
+    private final ReentrantLock writeLock = new ReentrantLock();
+    // Per token hash: rotation and delete of a token, and loading it from the table
+    private final ReentrantLock[] tokenLocks = new ReentrantLock[64];
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final Timer flushTimer;
+
+    public WriteBehindSessionStore(SessionRepository sessionRepository, EntityManager entityManager,
+            JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, ExpiringEntryStore<String, Session> hot, int maxPending,
+            Executor flushExecutor, MeterRegistry meterRegistry) {
+        this.sessionRepository = sessionRepository;
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.hot = hot;
+        this.maxPending = maxPending;
+        this.flushExecutor = flushExecutor;
+        for (int i = 0; i < tokenLocks.length; i++) {
+            tokenLocks[i] = new ReentrantLock();
+        }
+        Gauge.builder("auth.sessions.write_behind.pending", pending, Map::size)
+                .description("Session changes not yet written to the database")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("auth.sessions.write_behind.flush")
+                .description("Time to write queued session changes")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Session create(Session session) {
+        if (session.getId() == null) {
+            session.setId(UUID.randomUUID());
+        }
+        unflushed.add(session.getId());
+        cache(session);
+        enqueue(session);
+        return session;
+    }
+
+    @Override
+    public Optional<Session> findByRefreshToken(String refreshToken) {
+        if (refreshToken == null) {
+            return Optional.empty();
+        }
+        String digest = TokenHashing.sha256Hex(refreshToken);
+        Session session = hot.get(digest);
+        if (session != null) {
+            return Optional.of(session);
+        }
+        // Evicted under memory pressure but not yet written
+        session = pendingByToken.get(digest);
+        if (session != null) {
+            return Optional.of(session);
+        }
+        // Locked so a concurrent rotation cannot land between reading the row and caching it
+        ReentrantLock lock = tokenLock(digest);
+        lock.lock();
+        try {
+            session = hot.get(digest);
+            if (session != null) {
+                return Optional.of(session);
+            }
+            // A row with queued changes is outdated (rotated); the queue is authoritative
+            Optional<Session> stored = sessionRepository.findByRefreshTokenHash(digest)
+                    .filter(s -> !pending.containsKey(s.getId()));
+            stored.ifPresent(this::cache);
+            return stored;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Optional<Session> findById(UUID id) {
+        Session session = pending.get(id);
+        if (session != null) {
+            return Optional.of(session);
+        }
+        return sessionRepository.findById(id);
+    }
+
+    @Override
+    public List<Session> findByUserId(UUID userId) {
+        // Rare (session list); make the table current and read it
+        flush();
+        return sessionRepository.findByUserId(userId);
+    }
+
+    @Override
+    public Optional<Session> rotate(Session session, String newRefreshToken, Instant expiresAt) {
+        String oldHash = session.getRefreshTokenHash();
+        ReentrantLock lock = tokenLock(oldHash);
+        lock.lock();
+        try {
+            if (!holdsToken(session)) {
+                return Optional.empty();
+            }
+            // A copy per version, so a concurrent flush never sees half a rotation
+            Session rotated = copyOf(session);
+            rotated.setRefreshToken(newRefreshToken);
+            rotated.setExpiresAt(expiresAt);
+            hot.remove(oldHash);
+            cache(rotated);
+            enqueue(rotated);
+            return Optional.of(rotated);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Whether the session's token is still its current one; called with the token's lock held
+    private boolean holdsToken(Session session) {
+        Session queued = pending.get(session.getId());
+        if (queued != null) {
+            return queued.getRefreshTokenHash().equals(session.getRefreshTokenHash());
+        }
+        Session cached = hot.get(session.getRefreshTokenHash());
+        if (cached != null) {
+            return cached.getId().equals(session.getId());
+        }
+        // Evicted from memory or revoked: the table decides
+        return sessionRepository.findByRefreshTokenHash(session.getRefreshTokenHash())
+                .filter(s -> s.getId().equals(session.getId()))
+                .isPresent();
+    }
+
+    // Deletes are serialized with flush() so a queued version cannot be written after them, and
+    // hit the table before memory: if the delete fails, the session stays as it was everywhere
+    @Override
+    public void delete(Session session) {
+        UUID id = session.getId();
+        ReentrantLock lock = tokenLock(session.getRefreshTokenHash());
+        writeLock.lock();
+        lock.lock();
+        try {
+            if (!unflushed.contains(id)) {
+                transactionTemplate.executeWithoutResult(
+                        status -> sessionRepository.deleteAllByIdInBatch(List.of(id)));
+            }
+            unflushed.remove(id);
+            Session queued = pending.remove(id);
+            if (queued != null) {
+                pendingByToken.remove(queued.getRefreshTokenHash(), queued);
+                hot.remove(queued.getRefreshTokenHash());
+            }
+            hot.remove(session.getRefreshTokenHash());
+        } finally {
+            lock.unlock();
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void deleteByUserId(UUID userId) {
+        writeLock.lock();
+        try {
+            transactionTemplate.executeWithoutResult(status -> sessionRepository.deleteByUserId(userId));
+            forget(userId::equals);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public int deleteByUserIds(Collection<UUID> userIds) {
+        Set<UUID> users = Set.copyOf(userIds);
+        writeLock.lock();
+        try {
+            Integer deleted = transactionTemplate.execute(status -> sessionRepository.deleteByUserIdIn(users));
+            // One scan of each tier for the whole set, not one per user
+            forget(users::contains);
+            return deleted != null ? deleted : 0;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Writes all queued changes in one transaction; after a failure they stay queued for the
+     * next run. Must not be called inside another transaction.
+     */
+    @Scheduled(fixedDelayString = "${security.sessions.write-behind.flush-interval-ms:1000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            flushLocked();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void flushLocked() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        // Entries stay queued until committed, so lookups never fall through to a stale row
+        List<Session> batch = new ArrayList<>(pending.values());
+        long start = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(batch));
+            for (Session session : batch) {
+                unflushed.remove(session.getId());
+                // Keep changes queued while we were writing
+                if (pending.remove(session.getId(), session)) {
+                    pendingByToken.remove(session.getRefreshTokenHash(), session);
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Session write-behind flush of {} changes failed, will retry: {}", batch.size(),
+                    e.getMessage());
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    // Only token and expiry change after a session is inserted, so a rotation is a plain UPDATE
+    // by id: no SELECT first, as merge() of the detached session would do
+    private void write(List<Session> batch) {
+        List<Session> rotations = new ArrayList<>();
+        for (Session session : batch) {
+            if (unflushed.contains(session.getId())) {
+                // Persist a copy: the cached instance is shared with request threads
+                entityManager.persist(copyOf(session));
+            } else {
+                rotations.add(session);
+            }
+        }
+        if (!rotations.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_TOKEN, rotations, BATCH_SIZE, (ps, session) -> {
+                ps.setString(1, session.getRefreshTokenHash());
+                ps.setTimestamp(2, Timestamp.from(session.getExpiresAt()));
+                ps.setObject(3, session.getId());
+            });
+        }
+    }
+
+    // Drops cached and queued sessions of the matching users
+    private void forget(Predicate<UUID> user) {
+        hot.removeIf(s -> user.test(s.getUserId()));
+        pendingByToken.values().removeIf(s -> user.test(s.getUserId()));
+        pending.entrySet().removeIf(e -> {
+            boolean matches = user.test(e.getValue().getUserId());
+            if (matches) {
+                unflushed.remove(e.getKey());
+            }
+            return matches;
+        });
+    }
+
+    private void enqueue(Session session) {
+        Session replaced = pending.put(session.getId(), session);
+        if (replaced != null) {
+            pendingByToken.remove(replaced.getRefreshTokenHash(), replaced);
+        }
+        pendingByToken.put(session.getRefreshTokenHash(), session);
+        if (pending.size() >= maxPending) {
+            requestFlush();
+        }
+    }
+
+    // At most one early flush in flight; the scheduled flush covers a rejected one
+    private void requestFlush() {
+        if (!flushRequested.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            flushExecutor.execute(() -> {
+                try {
+                    flush();
+                } finally {
+                    flushRequested.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            flushRequested.set(false);
+        }
+    }
+
+    private ReentrantLock tokenLock(String tokenHash) {
+        return tokenLocks[Math.floorMod(tokenHash.hashCode(), tokenLocks.length)];
+    }
+
+    private void cache(Session session) {
+        hot.put(session.getRefreshTokenHash(), session, session.getExpiresAt().toEpochMilli());
+    }
+
+    private static Session copyOf(Session session) {
+        Session copy = new Session();
+        copy.setId(session.getId());
+        copy.setUserId(session.getUserId());
+        copy.setRefreshTokenHash(session.getRefreshTokenHash());
+        copy.setDeviceInfo(session.getDeviceInfo());
+        copy.setIpAddress(session.getIpAddress());
+        copy.setExpiresAt(session.getExpiresAt());
+        copy.setCreatedAt(session.getCreatedAt());
+        return copy;
+    }
+}
@@ -0,0 +1,74 @@
+package com.evdms.authservice.controller;
+
+import com.evdms.authservice.config.GlobalExceptionHandler;
+import com.evdms.authservice.config.RateLimitProperties;
+import com.evdms.authservice.repository.UserRepository;
+import com.evdms.authservice.service.AuthService;
+import com.evdms.authservice.service.RateLimiterService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class AuthControllerTest {
+
+    private static final String LOGIN = """
+            {"username": "dealer.staff", "password": "wrong-password"}
+            """;
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    @Test
+    void loginOverTheLimitIsTooManyRequests() throws Exception {
+        MockMvc mockMvc = mockMvc(true);
+        // rate-limit.login defaults to 5 attempts per 15 minutes
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(login()).andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.error").value("User not found"));
+        }
+        mockMvc.perform(login()).andExpect(status().isTooManyRequests())
+                .andExpect(jsonPath("$.error").value("Too many login attempts. Please try again later."));
+    }
+
+    @Test
+    void disabledLoginLimitLetsEveryAttemptThrough() throws Exception {
+        MockMvc mockMvc = mockMvc(false);
+        for (int i = 0; i < 10; i++) {
+            mockMvc.perform(login()).andExpect(status().isBadRequest());
+        }
+    }
+
+    private MockMvc mockMvc(boolean loginRateLimitEnabled) {
+        when(userRepository.findByUsernameOrEmail(anyString())).thenReturn(List.of());
+        @SuppressWarnings("unchecked")
+        RateLimiterService rateLimiterService = new RateLimiterService(new RateLimitProperties(),
+                new SimpleMeterRegistry(), mock(ObjectProvider.class));
+        AuthService authService = new AuthService();
+        ReflectionTestUtils.setField(authService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(authService, "rateLimiterService", rateLimiterService);
+        ReflectionTestUtils.setField(authService, "loginRateLimitEnabled", loginRateLimitEnabled);
+        AuthController controller = new AuthController();
+        ReflectionTestUtils.setField(controller, "authService", authService);
+        ReflectionTestUtils.setField(controller, "rateLimiterService", rateLimiterService);
+        return MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    private static RequestBuilder login() {
+        return post("/api/v1/auth/login").contentType(MediaType.APPLICATION_JSON).content(LOGIN);
+    }
+}
@@ -0,0 +1,48 @@
+package com.evdms.authservice.controller;
+
+import com.evdms.authservice.config.GlobalExceptionHandler;
+import com.evdms.authservice.repository.UserRepository;
+import com.evdms.authservice.service.SessionStore;
+import com.evdms.authservice.service.UserAdminService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class UserAdminControllerTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final MockMvc mockMvc = MockMvcBuilders
+            .standaloneSetup(new UserAdminController(userRepository,
+                    new UserAdminService(userRepository, mock(SessionStore.class), new ObjectMapper(),
+                            mock(PlatformTransactionManager.class), 500, 1000, 500)))
+            .setControllerAdvice(new GlobalExceptionHandler())
+            .build();
+
+    @Test
+    void unknownExportFormatIsABadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/auth/users/export").param("format", "xml").accept("text/csv"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Unsupported export format 'xml', expected ndjson or csv"));
+    }
+
+    @Test
+    void malformedCursorIsABadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/auth/users").param("after", "not-a-uuid"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid cursor 'not-a-uuid'"));
+    }
+
+    @Test
+    void malformedUserIdIsABadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/auth/users/123"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid value for 'id'"));
+    }
+}
@@ -0,0 +1,114 @@
+package com.evdms.authservice.repository;
+
+import com.evdms.authservice.entity.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class UserRepositoryLoginTest {
+
+    @Autowired
+    private UserRepository users;
+
+    @Autowired
+    private TestEntityManager em;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = em.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    // Round trips for the user row of a successful login by e-mail (the session insert is the same in both)
+    @Test
+    void targetedLoginPathNeedsFewerRoundTrips() {
+        saveUser("dealer01", "dealer01@example.com");
+
+        statistics.clear();
+        User legacy = users.findByUsername("dealer01@example.com")
+                .or(() -> users.findByEmail("dealer01@example.com"))
+                .orElseThrow();
+        em.clear(); // login completes on another thread, so the entity is detached
+        legacy.setFailedLoginAttempts(0);
+        legacy.setLockedUntil(null);
+        legacy.setLastLogin(Instant.now());
+        users.save(legacy);
+        em.flush();
+        long legacyStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        List<User> found = users.findByUsernameOrEmail("dealer01@example.com");
+        Instant now = Instant.now().plusSeconds(120);
+        users.recordSuccessfulLogin(found.get(0).getId(), now, now.minus(Duration.ofMinutes(1)));
+        long targetedStatements = statistics.getPrepareStatementCount();
+
+        assertEquals(2, targetedStatements);
+        assertTrue(legacyStatements >= 4, "legacy path used " + legacyStatements + " statements");
+    }
+
+    @Test
+    void failedAttemptsAreCountedInPlaceAndLockAtThreshold() {
+        User user = saveUser("shared", "shared@example.com");
+        Instant lockUntil = Instant.now().plusSeconds(900);
+
+        for (int i = 0; i < 4; i++) {
+            users.recordFailedLogin(user.getId(), 5, lockUntil);
+        }
+        em.clear();
+        User afterFour = users.findById(user.getId()).orElseThrow();
+        assertEquals(4, afterFour.getFailedLoginAttempts());
+        assertNull(afterFour.getLockedUntil());
+
+        users.recordFailedLogin(user.getId(), 5, lockUntil);
+        em.clear();
+        User locked = users.findById(user.getId()).orElseThrow();
+        assertEquals(5, locked.getFailedLoginAttempts());
+        assertNotNull(locked.getLockedUntil());
+
+        Instant now = Instant.now();
+        assertEquals(1, users.recordSuccessfulLogin(user.getId(), now, now.minus(Duration.ofMinutes(1))));
+        // Nothing left to change: the row is not written again
+        assertEquals(0, users.recordSuccessfulLogin(user.getId(), now, now.minus(Duration.ofMinutes(1))));
+        em.clear();
+        User reset = users.findById(user.getId()).orElseThrow();
+        assertEquals(0, reset.getFailedLoginAttempts());
+        assertNull(reset.getLockedUntil());
+    }
+
+    @Test
+    void usernameOrEmailLookupMatchesEither() {
+        saveUser("alice", "alice@example.com");
+
+        assertEquals(1, users.findByUsernameOrEmail("alice").size());
+        assertEquals(1, users.findByUsernameOrEmail("alice@example.com").size());
+        assertTrue(users.findByUsernameOrEmail("bob").isEmpty());
+    }
+
+    private User saveUser(String username, String email) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(email);
+        user.setPasswordHash("{bcrypt}hash");
+        user.setRole(User.Role.USER);
+        user.setCreatedAt(Instant.now());
+        user.setUpdatedAt(Instant.now());
+        User saved = em.persistAndFlush(user);
+        em.clear();
+        return saved;
+    }
+}
@@ -0,0 +1,110 @@
+package com.evdms.authservice.repository;
+
+import com.evdms.authservice.dto.UserSummary;
+import com.evdms.authservice.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+class UserSearchRepositoryTest {
+
+    @Autowired
+    private UserRepository users;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Test
+    void keysetPagesVisitEveryUserOnce() {
+        for (int i = 0; i < 7; i++) {
+            saveUser("user" + i, User.Role.USER, true, null);
+        }
+
+        List<UUID> seen = new ArrayList<>();
+        UUID after = null;
+        List<UserSummary> page;
+        do {
+            page = users.findSummaries(UserFilter.NONE, after, 3);
+            page.forEach(u -> seen.add(u.id()));
+            after = page.isEmpty() ? null : page.get(page.size() - 1).id();
+        } while (page.size() == 3);
+
+        assertEquals(7, seen.size());
+        assertEquals(7, new HashSet<>(seen).size());
+    }
+
+    @Test
+    void filtersCombine() {
+        saveUser("admin", User.Role.ADMIN, true, null);
+        saveUser("inactive", User.Role.USER, false, null);
+        saveUser("deleted", User.Role.USER, false, Instant.now());
+        saveUser("regular", User.Role.USER, true, null);
+
+        assertEquals(1, users.findSummaries(new UserFilter(User.Role.ADMIN, null, null), null, 10).size());
+        assertEquals(2, users.findSummaries(new UserFilter(User.Role.USER, false, null), null, 10).size());
+        List<UserSummary> deleted = users.findSummaries(new UserFilter(null, null, true), null, 10);
+        assertEquals(1, deleted.size());
+        assertEquals("deleted", deleted.get(0).username());
+        assertEquals(3, users.findSummaries(new UserFilter(null, null, false), null, 10).size());
+    }
+
+    @Test
+    void streamReturnsAllMatchingRows() {
+        for (int i = 0; i < 5; i++) {
+            saveUser("stream" + i, User.Role.USER, i % 2 == 0, null);
+        }
+
+        try (Stream<UserSummary> stream = users.streamSummaries(new UserFilter(null, true, null), 2)) {
+            List<UserSummary> active = stream.toList();
+            assertEquals(3, active.size());
+            assertTrue(active.stream().allMatch(UserSummary::active));
+        }
+    }
+
+    @Test
+    void bulkUpdateChangesOnlyTargetedRows() {
+        saveUser("staff1", User.Role.USER, true, null);
+        saveUser("staff2", User.Role.USER, true, null);
+        saveUser("bystander", User.Role.USER, true, null);
+        List<UUID> ids = users.findSummaries(UserFilter.NONE, null, 10).stream()
+                .filter(u -> u.username().startsWith("staff"))
+                .map(UserSummary::id)
+                .toList();
+
+        int updated = users.updateAll(ids, new UserChanges(User.Role.DEALER_STAFF, false, false), Instant.now());
+
+        assertEquals(2, updated);
+        assertEquals(2, users.findIds(new UserFilter(User.Role.DEALER_STAFF, false, null), null, 10).size());
+        assertEquals(1, users.findIds(new UserFilter(User.Role.USER, true, null), null, 10).size());
+
+        assertEquals(1, users.updateAll(ids.subList(0, 1), new UserChanges(null, null, true), Instant.now()));
+        assertEquals(1, users.findIds(new UserFilter(null, false, true), null, 10).size());
+    }
+
+    private void saveUser(String username, User.Role role, boolean active, Instant deletedAt) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPasswordHash("{bcrypt}hash");
+        user.setRole(role);
+        user.setActive(active);
+        user.setDeletedAt(deletedAt);
+        user.setCreatedAt(Instant.now());
+        user.setUpdatedAt(Instant.now());
+        em.persist(user);
+        em.flush();
+        em.clear();
+    }
+}
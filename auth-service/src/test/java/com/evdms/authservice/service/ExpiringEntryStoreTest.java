@@ -0,0 +1,84 @@
+package com.evdms.authservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExpiringEntryStoreTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void sweepRemovesExpiredEntries() {
+        ExpiringEntryStore<String, String> store = new ExpiringEntryStore<>("test", 10,
+                ExpiringEntryStore.OverloadPolicy.REJECT_NEW, registry);
+        long now = System.currentTimeMillis();
+        store.put("expired", "a", now - 1);
+        store.put("live", "b", now + 60_000);
+
+        assertEquals(1, store.sweep());
+        assertEquals(1, store.size());
+        assertEquals("b", store.get("live"));
+        assertEquals(1.0, registry.get("auth.expiring_store.size").gauge().value());
+    }
+
+    @Test
+    void rejectNewWhenFull() {
+        ExpiringEntryStore<String, String> store = new ExpiringEntryStore<>("test", 2,
+                ExpiringEntryStore.OverloadPolicy.REJECT_NEW, registry);
+        long later = System.currentTimeMillis() + 60_000;
+        assertTrue(store.put("a", "1", later));
+        assertTrue(store.put("b", "2", later));
+
+        assertFalse(store.put("c", "3", later));
+        assertNull(store.computeIfAbsent("d", k -> "4", later));
+        // existing keys can still be updated
+        assertTrue(store.put("a", "updated", later));
+        assertEquals(2.0, registry.get("auth.expiring_store.rejections").functionCounter().count());
+    }
+
+    @Test
+    void evictSoonestExpiringWhenFull() {
+        ExpiringEntryStore<String, String> store = new ExpiringEntryStore<>("test", 2,
+                ExpiringEntryStore.OverloadPolicy.EVICT_SOONEST_EXPIRING, registry);
+        long now = System.currentTimeMillis();
+        store.put("soon", "1", now + 1_000);
+        store.put("later", "2", now + 60_000);
+
+        assertTrue(store.put("new", "3", now + 30_000));
+        assertNull(store.get("soon"));
+        assertEquals("2", store.get("later"));
+        assertEquals("3", store.get("new"));
+    }
+
+    @Test
+    void expiredEntriesMakeRoomBeforeOverloadPolicy() {
+        ExpiringEntryStore<String, String> store = new ExpiringEntryStore<>("test", 1,
+                ExpiringEntryStore.OverloadPolicy.REJECT_NEW, registry);
+        store.put("old", "1", System.currentTimeMillis() - 1);
+
+        assertEquals("2", store.computeIfAbsent("new", k -> "2", System.currentTimeMillis() + 60_000));
+    }
+
+    @Test
+    void expiredEntryMakesRoomBetweenInlineSweeps() throws Exception {
+        ExpiringEntryStore<String, String> store = new ExpiringEntryStore<>("test", 2,
+                ExpiringEntryStore.OverloadPolicy.REJECT_NEW, registry);
+        long now = System.currentTimeMillis();
+        store.put("short", "1", now + 30);
+        store.put("long", "2", now + 60_000);
+        // Full of live entries: this insert uses up the inline sweep for the next second
+        assertFalse(store.put("new", "3", now + 60_000));
+
+        Thread.sleep(60);
+
+        assertTrue(store.put("new", "3", System.currentTimeMillis() + 60_000));
+        assertNull(store.get("short"));
+        assertEquals(1.0, registry.get("auth.expiring_store.evictions").tag("cause", "expired")
+                .functionCounter().count());
+    }
+}
@@ -0,0 +1,69 @@
+package com.evdms.authservice.service;
+
+import com.evdms.authservice.entity.User;
+import com.evdms.security.core.JwtVerifier;
+import com.evdms.security.core.Permission;
+import com.evdms.security.core.RolePermissions;
+import com.evdms.security.core.VerifiedToken;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtUtilTest {
+
+    private final SigningKeys signingKeys = new SigningKeys(new DefaultResourceLoader(), "", "", "", false);
+    private final JwtUtil jwtUtil = new JwtUtil(signingKeys,
+            List.of(new IdentityClaimsEnricher(), new PermissionClaimsEnricher()));
+    private final JwtVerifier verifier = new JwtVerifier(signingKeys.locator(), false, 0);
+
+    JwtUtilTest() throws Exception {
+    }
+
+    @Test
+    void missingKeyStoreFailsStartupWhenRequired() {
+        assertThrows(IllegalStateException.class,
+                () -> new SigningKeys(new DefaultResourceLoader(), "", "", "", true));
+    }
+
+    @Test
+    void embedsIdsDealerScopeAndPermissionMask() {
+        User user = user(User.Role.DEALER_STAFF, UUID.randomUUID());
+
+        VerifiedToken token = verifier.verify(jwtUtil.generateToken(user)).orElseThrow();
+
+        assertEquals(user.getEmail(), token.subject());
+        assertEquals("DEALER_STAFF", token.role());
+        assertEquals(user.getId(), token.userId());
+        assertEquals(user.getDealerId(), token.dealerId());
+        assertEquals(RolePermissions.maskOf("DEALER_STAFF"), token.permissions());
+        assertTrue(token.claims().get("prm") instanceof Number);
+        assertFalse(token.hasPermission(Permission.ALL_DEALERS));
+    }
+
+    @Test
+    void omitsDealerScopeForAccountsWithoutDealer() {
+        VerifiedToken token = verifier.verify(jwtUtil.generateToken(user(User.Role.ADMIN, null))).orElseThrow();
+
+        assertNull(token.dealerId());
+        assertFalse(token.claims().containsKey("dlr"));
+        assertTrue(token.hasPermission(Permission.ALL_DEALERS));
+    }
+
+    private static User user(User.Role role, UUID dealerId) {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setEmail("staff@example.com");
+        user.setUsername("staff");
+        user.setRole(role);
+        user.setDealerId(dealerId);
+        return user;
+    }
+}
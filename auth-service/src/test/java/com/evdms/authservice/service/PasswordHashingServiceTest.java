@@ -0,0 +1,91 @@
+package com.evdms.authservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordHashingServiceTest {
+
+    @Test
+    void rejectsWorkBeyondQueueCapacity() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder slowEncoder = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hashed:" + rawPassword;
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encode(rawPassword).equals(encodedPassword);
+            }
+        };
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PasswordHashingService hashing = new PasswordHashingService(slowEncoder, registry, 1, 1);
+        try {
+            CompletableFuture<String> running = hashing.encode("a");
+            // Wait until the single worker has picked up the first task
+            while (registry.get("auth.password_hash.active").gauge().value() < 1) {
+                Thread.sleep(5);
+            }
+            CompletableFuture<Boolean> queued = hashing.matches("b", "hashed:b");
+            CompletableFuture<String> rejected = hashing.encode("c");
+
+            ExecutionException e = assertThrows(ExecutionException.class, () -> rejected.get(1, TimeUnit.SECONDS));
+            assertInstanceOf(PasswordHashingOverloadedException.class, e.getCause());
+            assertEquals(1.0, registry.get("auth.password_hash.queue.depth").gauge().value());
+
+            release.countDown();
+            assertEquals("hashed:a", running.get(5, TimeUnit.SECONDS));
+            assertTrue(queued.get(5, TimeUnit.SECONDS));
+            assertEquals(1.0, registry.get("auth.password_hash.rejections").counter().count());
+            assertEquals(1, registry.get("auth.password_hash.duration").tag("operation", "matches").timer().count());
+        } finally {
+            hashing.shutdown();
+        }
+    }
+
+    @Test
+    void verifyUpgradesOutdatedHashes() throws Exception {
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt",
+                Map.of("bcrypt", new BCryptPasswordEncoder(5)));
+        encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        PasswordHashingService hashing = new PasswordHashingService(encoder, new SimpleMeterRegistry(), 1, 4);
+        try {
+            String legacy = new BCryptPasswordEncoder(4).encode("Secret1!");
+
+            PasswordHashingService.PasswordCheck check = hashing.verify("Secret1!", legacy).get(5, TimeUnit.SECONDS);
+            assertTrue(check.matches());
+            assertTrue(check.upgradedHash().startsWith("{bcrypt}$2a$05$"));
+
+            PasswordHashingService.PasswordCheck again = hashing.verify("Secret1!", check.upgradedHash())
+                    .get(5, TimeUnit.SECONDS);
+            assertTrue(again.matches());
+            assertNull(again.upgradedHash());
+
+            assertFalse(hashing.verify("wrong", legacy).get(5, TimeUnit.SECONDS).matches());
+        } finally {
+            hashing.shutdown();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.evdms.authservice.service;
+
+import com.evdms.authservice.config.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Login rate limit checks from 1, 8 and 64 threads, each thread spreading its checks over
+ * {@value #KEYS} client keys: the former {@code synchronized} fixed-window limiter against
+ * {@link RateLimiterService} with each local policy. All use the login defaults (5 per 15
+ * minutes), so after warmup most checks are denials, as under a credential-stuffing burst.
+ * Not run by the test suite; after {@code mvn test-compile}:
+ *
+ * <pre>
+ * mvn -q dependency:build-classpath -Dmdep.outputFile=cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat cp.txt) org.openjdk.jmh.Main RateLimiterContentionBenchmark
+ * </pre>
+ *
+ * Measured on JDK 21 with one CPU (ops/us). One CPU is all this host has, so the threads only
+ * take turns and never contend for the monitor or a CAS: these rows show the single-threaded
+ * cost of a check, not scaling. The 8 and 64 thread columns still have to be measured on a
+ * multi-core host before anything is concluded about contention.
+ *
+ * <pre>
+ * limiter         1 thread   8 threads   64 threads
+ * SYNCHRONIZED    6.9        6.8         7.0
+ * SLIDING_LOG     5.2        3.9         4.7
+ * TOKEN_BUCKET    4.7        3.9         4.4
+ * GCRA            5.2        3.4         5.1
+ * </pre>
+ *
+ * The remaining single-threaded gap is mostly building the {@code <policy>|<key>} state key,
+ * 64 bytes per check, where the old limiter looked up the caller's string as is.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimiterContentionBenchmark {
+
+    static final int KEYS = 4096;
+
+    @Param({ "SYNCHRONIZED", "SLIDING_LOG", "TOKEN_BUCKET", "GCRA" })
+    public String limiter;
+
+    private final String[] keys = new String[KEYS];
+    private Predicate<String> allow;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = "login:10.0." + (i >> 8) + '.' + (i & 0xff);
+        }
+        if (limiter.equals("SYNCHRONIZED")) {
+            allow = new SynchronizedFixedWindow()::allow;
+            return;
+        }
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getLogin().setAlgorithm(RateLimitProperties.Algorithm.valueOf(limiter));
+        RateLimiterService service = new RateLimiterService(properties, new SimpleMeterRegistry(),
+                System::currentTimeMillis, null);
+        allow = service::allow;
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean threads1() {
+        return check();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean threads8() {
+        return check();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public boolean threads64() {
+        return check();
+    }
+
+    private boolean check() {
+        return allow.test(keys[ThreadLocalRandom.current().nextInt(KEYS)]);
+    }
+
+    /** The limiter this service had before: one fixed window per key behind one monitor. */
+    static class SynchronizedFixedWindow {
+
+        private static final int LIMIT = 5;
+        private static final long WINDOW_SECONDS = 15 * 60;
+
+        private final Map<String, long[]> buckets = new HashMap<>();
+
+        synchronized boolean allow(String key) {
+            long now = Instant.now().getEpochSecond();
+            long[] bucket = buckets.get(key);
+            if (bucket == null || now > bucket[1]) {
+                bucket = new long[] { 0, now + WINDOW_SECONDS };
+                buckets.put(key, bucket);
+            }
+            if (bucket[0] >= LIMIT) {
+                return false;
+            }
+            bucket[0]++;
+            return true;
+        }
+    }
+}
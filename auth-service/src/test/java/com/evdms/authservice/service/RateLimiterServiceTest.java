@@ -0,0 +1,133 @@
+package com.evdms.authservice.service;
+
+import com.evdms.authservice.config.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimiterServiceTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000);
+
+    @Test
+    void slidingLogAllowsExactlyLimitPerWindow() {
+        RateLimiterService limiter = limiter(RateLimitProperties.Algorithm.SLIDING_LOG, 5, 15, null);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.allow("login:10.0.0.1"));
+            clock.addAndGet(60_000);
+        }
+        assertFalse(limiter.allow("login:10.0.0.1"));
+        // Another key is independent
+        assertTrue(limiter.allow("login:10.0.0.2"));
+        // The first attempt leaves the window 15 minutes after it was made
+        assertEquals(600, limiter.secondsUntilReset("login:10.0.0.1"));
+        clock.addAndGet(600_000);
+        assertTrue(limiter.allow("login:10.0.0.1"));
+        assertFalse(limiter.allow("login:10.0.0.1"));
+    }
+
+    @Test
+    void tokenBucketRefillsContinuously() {
+        // 4 per minute, bursts of 2
+        RateLimiterService limiter = limiter(RateLimitProperties.Algorithm.TOKEN_BUCKET, 4, 1, 2);
+        assertTrue(limiter.allow("k"));
+        assertTrue(limiter.allow("k"));
+        assertFalse(limiter.allow("k"));
+        assertEquals(15, limiter.secondsUntilReset("k"));
+        // Partial refills add up instead of being lost
+        for (int i = 0; i < 2; i++) {
+            clock.addAndGet(5_000);
+            assertFalse(limiter.allow("k"));
+        }
+        clock.addAndGet(5_000);
+        assertTrue(limiter.allow("k"));
+        assertFalse(limiter.allow("k"));
+        // Never more than the burst after a long idle period
+        clock.addAndGet(3_600_000);
+        assertTrue(limiter.allow("k"));
+        assertTrue(limiter.allow("k"));
+        assertFalse(limiter.allow("k"));
+    }
+
+    @Test
+    void gcraSpacesRequestsAfterBurst() {
+        // 6 per minute (one every 10s), bursts of 3
+        RateLimiterService limiter = limiter(RateLimitProperties.Algorithm.GCRA, 6, 1, 3);
+        assertTrue(limiter.allow("k"));
+        assertTrue(limiter.allow("k"));
+        assertTrue(limiter.allow("k"));
+        assertFalse(limiter.allow("k"));
+        assertEquals(10, limiter.secondsUntilReset("k"));
+        clock.addAndGet(10_000);
+        assertTrue(limiter.allow("k"));
+        assertFalse(limiter.allow("k"));
+    }
+
+    @Test
+    void namedPoliciesAreIndependent() {
+        RateLimitProperties properties = new RateLimitProperties();
+        RateLimitProperties.Policy refresh = new RateLimitProperties.Policy();
+        refresh.setAlgorithm(RateLimitProperties.Algorithm.GCRA);
+        refresh.setMaxAttempts(1);
+        refresh.setWindowMinutes(1);
+        properties.getPolicies().put("refresh", refresh);
+        RateLimiterService limiter = new RateLimiterService(properties, new SimpleMeterRegistry(), clock::get, null);
+
+        assertTrue(limiter.allow("refresh", "user-1"));
+        assertFalse(limiter.allow("refresh", "user-1"));
+        assertTrue(limiter.allow("user-1"));
+    }
+
+    @Test
+    void grantsExactlyLimitUnderContention() throws Exception {
+        int limit = 1_000;
+        for (RateLimitProperties.Algorithm algorithm : RateLimitProperties.Algorithm.values()) {
+            RateLimiterService limiter = limiter(algorithm, limit, 15, limit);
+            int threads = 64;
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    int granted = 0;
+                    for (int i = 0; i < 100; i++) {
+                        if (limiter.allow("login:hot")) {
+                            granted++;
+                        }
+                    }
+                    return granted;
+                }));
+            }
+            start.countDown();
+            int granted = 0;
+            for (Future<Integer> result : results) {
+                granted += result.get(30, TimeUnit.SECONDS);
+            }
+            pool.shutdown();
+            assertEquals(limit, granted, algorithm.name());
+        }
+    }
+
+    private RateLimiterService limiter(RateLimitProperties.Algorithm algorithm, int maxAttempts,
+            long windowMinutes, Integer burst) {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getLogin().setAlgorithm(algorithm);
+        properties.getLogin().setMaxAttempts(maxAttempts);
+        properties.getLogin().setWindowMinutes(windowMinutes);
+        properties.getLogin().setBurst(burst);
+        return new RateLimiterService(properties, new SimpleMeterRegistry(), clock::get, null);
+    }
+}
@@ -0,0 +1,151 @@
+package com.evdms.authservice.service;
+
+import com.evdms.authservice.config.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RedisRateLimiterTest {
+
+    private RedisServer redisServer;
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate redis;
+    private final RateLimitProperties properties = new RateLimitProperties();
+
+    @BeforeEach
+    void startRedis() throws Exception {
+        int port = freePort();
+        redisServer = new RedisServer(port);
+        redisServer.start();
+        connectionFactory = connectionFactory(port);
+        redis = new StringRedisTemplate(connectionFactory);
+
+        RateLimitProperties.Policy forgotPassword = new RateLimitProperties.Policy();
+        forgotPassword.setMaxAttempts(1);
+        properties.getPolicies().put("forgot-password", forgotPassword);
+        RateLimitProperties.Policy refresh = new RateLimitProperties.Policy();
+        refresh.setAlgorithm(RateLimitProperties.Algorithm.TOKEN_BUCKET);
+        refresh.setMaxAttempts(30);
+        refresh.setWindowMinutes(1);
+        refresh.setBurst(2);
+        properties.getPolicies().put("refresh", refresh);
+    }
+
+    @AfterEach
+    void stopRedis() throws Exception {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @Test
+    void allowanceIsSharedAcrossReplicas() {
+        RateLimiterService nodeA = newNode(redis);
+        RateLimiterService nodeB = newNode(redis);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue((i % 2 == 0 ? nodeA : nodeB).allow("ip:10.0.0.1"));
+        }
+        assertFalse(nodeA.allow("ip:10.0.0.1"));
+        assertFalse(nodeB.allow("ip:10.0.0.1"));
+        assertTrue(nodeB.secondsUntilReset("ip:10.0.0.1") > 0);
+        assertTrue(nodeA.allow("ip:10.0.0.2"));
+    }
+
+    @Test
+    void pipelinedChecksAreAnsweredPerKey() {
+        RedisRateLimiter limiter = newLimiter(redis);
+        List<RateLimitCheck> checks = List.of(
+                new RateLimitCheck("login", "ip:10.0.0.1"),
+                new RateLimitCheck("forgot-password", "email:a@example.com"),
+                new RateLimitCheck("refresh", "ip:10.0.0.1"));
+
+        assertArrayEquals(new long[] { 0, 0, 0 }, limiter.tryAcquire(checks));
+
+        long[] second = limiter.tryAcquire(checks);
+        assertEquals(0, second[0]);
+        assertTrue(second[1] > 0, "forgot-password allows one attempt per window");
+        assertEquals(0, second[2]);
+
+        // Bucket of 2 is now empty; at 30/min the next token is 2s away
+        long[] third = limiter.tryAcquire(List.of(checks.get(2)));
+        assertTrue(third[0] > 0 && third[0] <= 2_000);
+    }
+
+    @Test
+    void scriptsAreReloadedAfterFlush() {
+        RedisRateLimiter limiter = newLimiter(redis);
+        assertArrayEquals(new long[] { 0 }, limiter.tryAcquire(List.of(new RateLimitCheck("login", "k"))));
+
+        redis.execute((RedisCallback<Object>) connection -> {
+            connection.scriptingCommands().scriptFlush();
+            return null;
+        });
+
+        assertArrayEquals(new long[] { 0 }, limiter.tryAcquire(List.of(new RateLimitCheck("login", "k"))));
+    }
+
+    @Test
+    void fallsBackToLocalLimitsWhenRedisIsUnreachable() throws Exception {
+        LettuceConnectionFactory deadFactory = connectionFactory(freePort());
+        try {
+            SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            RateLimiterService node = new RateLimiterService(properties, registry, System::currentTimeMillis,
+                    newLimiter(new StringRedisTemplate(deadFactory)));
+
+            for (int i = 0; i < 5; i++) {
+                assertTrue(node.allow("ip:10.0.0.1"));
+            }
+            assertFalse(node.allow("ip:10.0.0.1"));
+            assertEquals(1.0, registry.get("auth.rate_limiter.fallbacks").counter().count());
+            assertEquals(1, registry.get("auth.rate_limiter.latency").tag("backend", "redis").timer().count());
+            // Local checks are not timed
+            assertNull(registry.find("auth.rate_limiter.latency").tag("backend", "local").timer());
+        } finally {
+            deadFactory.destroy();
+        }
+    }
+
+    private RateLimiterService newNode(StringRedisTemplate template) {
+        return new RateLimiterService(properties, new SimpleMeterRegistry(), System::currentTimeMillis,
+                newLimiter(template));
+    }
+
+    private RedisRateLimiter newLimiter(StringRedisTemplate template) {
+        RedisRateLimiter limiter = new RedisRateLimiter(template, properties.allPolicies());
+        limiter.loadScripts();
+        return limiter;
+    }
+
+    private static LettuceConnectionFactory connectionFactory(int port) {
+        LettuceConnectionFactory factory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration("localhost", port),
+                LettuceClientConfiguration.builder().commandTimeout(Duration.ofMillis(500)).build());
+        factory.afterPropertiesSet();
+        factory.start();
+        return factory;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.evdms.authservice.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import redis.embedded.RedisServer;
+
+import java.net.ServerSocket;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RedisTokenBlacklistStoreTest {
+
+    private RedisServer redisServer;
+    private LettuceConnectionFactory connectionFactory;
+    private RedisMessageListenerContainer listenerContainer;
+    private StringRedisTemplate redis;
+
+    @BeforeEach
+    void startRedis() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = new RedisServer(port);
+        redisServer.start();
+        // Short timeout: one test stops the server and expects commands to fail quickly
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port),
+                LettuceClientConfiguration.builder().commandTimeout(Duration.ofMillis(500)).build());
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redis = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterEach
+    void stopRedis() throws Exception {
+        if (listenerContainer != null) {
+            listenerContainer.stop();
+            listenerContainer.destroy();
+        }
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @Test
+    void revocationOnOneNodeIsVisibleOnAnother() throws Exception {
+        RedisTokenBlacklistStore nodeA = newStore();
+        RedisTokenBlacklistStore nodeB = newStore();
+        subscribe(nodeB);
+
+        String digest = TokenHashing.sha256Hex("access-token-1");
+        assertFalse(nodeB.contains(digest));
+
+        nodeA.add(digest, 60);
+
+        assertTrue(nodeA.contains(digest));
+        assertTrue(awaitContains(nodeB, digest), "node B should see the revocation via pub/sub");
+    }
+
+    @Test
+    void unknownTokenIsNotBlacklisted() {
+        RedisTokenBlacklistStore store = newStore();
+        store.add(TokenHashing.sha256Hex("revoked"), 60);
+
+        assertFalse(store.contains(TokenHashing.sha256Hex("still-valid")));
+    }
+
+    @Test
+    void entryExpiresWithTokenLifetime() throws Exception {
+        RedisTokenBlacklistStore store = newStore();
+        String digest = TokenHashing.sha256Hex("short-lived");
+        store.add(digest, 1);
+        assertTrue(store.contains(digest));
+
+        Thread.sleep(1500);
+
+        assertFalse(store.contains(digest));
+    }
+
+    @Test
+    void rebuildLoadsRevocationsMadeBeforeStartup() {
+        String digest = TokenHashing.sha256Hex("revoked-before-start");
+        newStore().add(digest, 60);
+
+        RedisTokenBlacklistStore restarted = newStore();
+
+        assertTrue(restarted.contains(digest));
+    }
+
+    @Test
+    void revocationIsKeptLocallyWhileRedisIsDownAndWrittenOnceItIsBack() throws Exception {
+        RedisTokenBlacklistStore store = newStore();
+        String digest = TokenHashing.sha256Hex("revoked-during-outage");
+
+        redisServer.stop();
+        store.add(digest, 60);
+        assertTrue(store.contains(digest));
+
+        redisServer.start();
+        for (int i = 0; i < 40 && !Boolean.TRUE.equals(hasKey(digest)); i++) {
+            store.retryUnsynced();
+            Thread.sleep(100);
+        }
+        assertTrue(newStore().contains(digest), "the revocation should reach Redis after the outage");
+    }
+
+    private Boolean hasKey(String digest) {
+        try {
+            return redis.hasKey(RedisTokenBlacklistStore.KEY_PREFIX + digest);
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private RedisTokenBlacklistStore newStore() {
+        RedisTokenBlacklistStore store = new RedisTokenBlacklistStore(redis, 1000, 0.01);
+        store.rebuild();
+        return store;
+    }
+
+    private void subscribe(RedisTokenBlacklistStore store) {
+        listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(connectionFactory);
+        listenerContainer.addMessageListener(store, new ChannelTopic(RedisTokenBlacklistStore.CHANNEL));
+        listenerContainer.afterPropertiesSet();
+        listenerContainer.start();
+    }
+
+    private static boolean awaitContains(RedisTokenBlacklistStore store, String digest) throws InterruptedException {
+        for (int i = 0; i < 40; i++) {
+            if (store.contains(digest))
+                return true;
+            Thread.sleep(50);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,100 @@
+package com.evdms.authservice.service;
+
+import com.evdms.authservice.entity.Session;
+import com.evdms.authservice.repository.SessionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// H2 has no jsonb, the column type of Session.deviceInfo
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sessions;INIT=CREATE DOMAIN IF NOT EXISTS JSONB AS JSON",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// flush() runs its own transaction, as on the scheduler thread
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class WriteBehindSessionStoreJpaTest {
+
+    @Autowired
+    private SessionRepository sessions;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void flushInsertsAndRotatesInBatches() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        WriteBehindSessionStore store = new WriteBehindSessionStore(sessions, entityManager, jdbcTemplate,
+                new TransactionTemplate(transactionManager),
+                new ExpiringEntryStore<>("sessions", 100, ExpiringEntryStore.OverloadPolicy.EVICT_SOONEST_EXPIRING,
+                        registry),
+                100, Runnable::run, registry);
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class)
+                .getStatistics();
+        List<Session> created = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            created.add(store.create(session("login-" + i)));
+        }
+
+        statistics.clear();
+        store.flush();
+        // All ten rows in one batched INSERT
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(10, sessions.count());
+
+        Instant expiresAt = Instant.now().plus(7, ChronoUnit.DAYS).truncatedTo(ChronoUnit.MILLIS);
+        for (int i = 0; i < 10; i += 2) {
+            assertTrue(store.rotate(created.get(i), "refresh-" + i, expiresAt).isPresent());
+        }
+        statistics.clear();
+        store.flush();
+
+        // Rotations are UPDATEs by id, never loaded first
+        assertEquals(0, statistics.getEntityLoadCount());
+        for (int i = 0; i < 10; i++) {
+            Session stored = sessions.findById(created.get(i).getId()).orElseThrow();
+            String token = i % 2 == 0 ? "refresh-" + i : "login-" + i;
+            assertEquals(TokenHashing.sha256Hex(token), stored.getRefreshTokenHash());
+            if (i % 2 == 0) {
+                assertEquals(expiresAt, stored.getExpiresAt().truncatedTo(ChronoUnit.MILLIS));
+            }
+        }
+    }
+
+    private static Session session(String refreshToken) {
+        Session session = new Session();
+        session.setUserId(UUID.randomUUID());
+        session.setRefreshToken(refreshToken);
+        session.setDeviceInfo("{}");
+        session.setIpAddress("10.0.0.1");
+        session.setExpiresAt(Instant.now().plusSeconds(3600));
+        session.setCreatedAt(Instant.now());
+        return session;
+    }
+}
@@ -0,0 +1,233 @@
+package com.evdms.authservice.service;
+
+import com.evdms.authservice.entity.Session;
+import com.evdms.authservice.repository.SessionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WriteBehindSessionStoreTest {
+
+    private final SessionRepository repository = mock(SessionRepository.class);
+    private final EntityManager entityManager = mock(EntityManager.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final List<Runnable> submitted = new ArrayList<>();
+    private WriteBehindSessionStore store;
+
+    @BeforeEach
+    void setUp() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        when(repository.findByRefreshTokenHash(anyString())).thenReturn(Optional.empty());
+        store = new WriteBehindSessionStore(repository, entityManager, jdbcTemplate,
+                new TransactionTemplate(transactionManager),
+                new ExpiringEntryStore<>("sessions", 100, ExpiringEntryStore.OverloadPolicy.EVICT_SOONEST_EXPIRING,
+                        registry),
+                3, submitted::add, registry);
+    }
+
+    @Test
+    void newSessionIsServedFromMemoryAndInsertedOnFlush() {
+        Session session = store.create(session("refresh-1"));
+
+        assertTrue(store.findByRefreshToken("refresh-1").isPresent());
+        verify(repository, never()).findByRefreshTokenHash(anyString());
+        verify(entityManager, never()).persist(any());
+
+        store.flush();
+        store.flush();
+
+        verify(entityManager, times(1)).persist(any(Session.class));
+        assertEquals(0.0, pending());
+        assertEquals(session.getId(), store.findByRefreshToken("refresh-1").orElseThrow().getId());
+    }
+
+    @Test
+    void rotatedTokenReplacesOldOneBeforeAndAfterFlush() {
+        Session session = store.create(session("old"));
+        store.flush();
+        // The table still holds the old token until the rotation is written
+        Session stale = session("old");
+        stale.setId(session.getId());
+        when(repository.findByRefreshTokenHash(TokenHashing.sha256Hex("old"))).thenReturn(Optional.of(stale));
+
+        store.rotate(session, "new", Instant.now().plusSeconds(3600));
+
+        assertTrue(store.findByRefreshToken("old").isEmpty());
+        assertTrue(store.findByRefreshToken("new").isPresent());
+
+        store.flush();
+        verify(jdbcTemplate).batchUpdate(anyString(), anyCollection(), anyInt(), any());
+        verify(entityManager, never()).merge(any());
+    }
+
+    @Test
+    void concurrentRefreshesWithOneTokenRotateItOnce() throws Exception {
+        for (int round = 0; round < 50; round++) {
+            Session session = store.create(session("shared-" + round));
+            if (round % 2 == 0) {
+                store.flush();
+            }
+            int threads = 8;
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Optional<Session>>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                String newToken = "rotated-" + round + "-" + t;
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return store.rotate(session, newToken, Instant.now().plusSeconds(3600));
+                }));
+            }
+            start.countDown();
+            List<Session> winners = new ArrayList<>();
+            List<String> live = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.get(t).get(10, TimeUnit.SECONDS).ifPresent(winners::add);
+                if (store.findByRefreshToken("rotated-" + round + "-" + t).isPresent()) {
+                    live.add("rotated-" + round + "-" + t);
+                }
+            }
+            pool.shutdown();
+
+            assertEquals(1, winners.size());
+            assertEquals(1, live.size());
+            assertTrue(store.findByRefreshToken("shared-" + round).isEmpty());
+            // Logout with the surviving token leaves no token of the session behind
+            store.delete(store.findByRefreshToken(live.get(0)).orElseThrow());
+            assertTrue(store.findByRefreshToken(live.get(0)).isEmpty());
+        }
+    }
+
+    @Test
+    void staleSessionCannotBeRotatedAgain() {
+        Session session = store.create(session("once"));
+        store.flush();
+
+        assertTrue(store.rotate(session, "first", Instant.now().plusSeconds(3600)).isPresent());
+        store.flush();
+
+        assertTrue(store.rotate(session, "second", Instant.now().plusSeconds(3600)).isEmpty());
+        assertTrue(store.findByRefreshToken("second").isEmpty());
+        assertTrue(store.findByRefreshToken("first").isPresent());
+    }
+
+    @Test
+    void sessionDeletedBeforeFlushIsNeverWritten() {
+        Session session = store.create(session("short-lived"));
+        store.delete(session);
+
+        store.flush();
+
+        verify(entityManager, never()).persist(any());
+        verify(repository, never()).deleteAllByIdInBatch(any());
+        assertTrue(store.findByRefreshToken("short-lived").isEmpty());
+    }
+
+    @Test
+    void deleteOfAWrittenSessionReachesTheTableBeforeReturning() {
+        Session session = store.create(session("logged-out"));
+        store.flush();
+
+        store.delete(session);
+
+        verify(repository).deleteAllByIdInBatch(List.of(session.getId()));
+        assertTrue(store.findByRefreshToken("logged-out").isEmpty());
+    }
+
+    @Test
+    void failedDeleteLeavesTheSessionInPlace() {
+        Session session = store.create(session("still-valid"));
+        store.flush();
+        doThrow(new IllegalStateException("database down")).when(repository).deleteAllByIdInBatch(any());
+
+        assertThrows(IllegalStateException.class, () -> store.delete(session));
+        assertTrue(store.findByRefreshToken("still-valid").isPresent());
+    }
+
+    @Test
+    void fullQueueIsFlushedOnTheExecutor() {
+        store.create(session("a"));
+        store.create(session("b"));
+        assertTrue(submitted.isEmpty());
+
+        store.create(session("c"));
+        store.create(session("d"));
+
+        // One early flush, not run by the caller
+        assertEquals(1, submitted.size());
+        verify(entityManager, never()).persist(any());
+        submitted.get(0).run();
+        verify(entityManager, times(4)).persist(any(Session.class));
+        assertEquals(0.0, pending());
+    }
+
+    @Test
+    void failedFlushKeepsChangesQueued() {
+        doThrow(new IllegalStateException("database down")).doNothing().when(entityManager).persist(any());
+        store.create(session("refresh-2"));
+
+        store.flush();
+        assertEquals(1.0, pending());
+
+        store.flush();
+        assertEquals(0.0, pending());
+        verify(entityManager, times(2)).persist(any(Session.class));
+    }
+
+    @Test
+    void deleteByUserIdDropsQueuedAndCachedSessions() {
+        Session session = store.create(session("device-a"));
+
+        store.deleteByUserId(session.getUserId());
+        store.flush();
+
+        verify(repository).deleteByUserId(session.getUserId());
+        verify(entityManager, never()).persist(any());
+        assertTrue(store.findByRefreshToken("device-a").isEmpty());
+    }
+
+    private double pending() {
+        return registry.get("auth.sessions.write_behind.pending").gauge().value();
+    }
+
+    private static Session session(String refreshToken) {
+        Session session = new Session();
+        session.setUserId(UUID.nameUUIDFromBytes("user".getBytes()));
+        session.setRefreshToken(refreshToken);
+        session.setExpiresAt(Instant.now().plusSeconds(3600));
+        session.setCreatedAt(Instant.now());
+        return session;
+    }
+}
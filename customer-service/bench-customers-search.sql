@@ -0,0 +1,90 @@
+-- =====================================================
+-- Customer search benchmark at 1M rows (psql, PostgreSQL 13+ with pg_trgm)
+-- Builds a scratch table shaped like customers, then EXPLAIN ANALYZEs the old
+-- LIKE '%q%' query next to the trigram and phone-prefix queries the service
+-- now runs. Does not touch the customers table; drops the scratch table at the end.
+--   psql "$DATABASE_URL" -f bench-customers-search.sql
+-- =====================================================
+
+\timing on
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+DROP TABLE IF EXISTS customers_search_bench;
+CREATE TABLE customers_search_bench (
+    id UUID PRIMARY KEY,
+    dealer_id UUID NOT NULL,
+    full_name VARCHAR(255) NOT NULL,
+    phone VARCHAR(255) NOT NULL,
+    email VARCHAR(255),
+    deleted BOOLEAN NOT NULL DEFAULT false,
+    search_text VARCHAR(512),
+    phone_digits VARCHAR(20)
+);
+
+-- Names drawn from common Vietnamese family, middle and given names; the unaccented
+-- arrays hold what SearchText.normalize produces for the same position
+INSERT INTO customers_search_bench
+SELECT gen_random_uuid(),
+       ('00000000-0000-0000-0000-' || lpad((i % 50)::text, 12, '0'))::uuid,
+       f.v[1 + i % 14] || ' ' || m.v[1 + (i / 14) % 8] || ' ' || g.v[1 + (i / 112) % 20],
+       '09' || lpad((i % 100000000)::text, 8, '0'),
+       'kh' || i || '@example.vn',
+       i % 20 = 0,
+       fa.v[1 + i % 14] || ' ' || ma.v[1 + (i / 14) % 8] || ' ' || ga.v[1 + (i / 112) % 20] || ' kh' || i || '@example.vn',
+       '09' || lpad((i % 100000000)::text, 8, '0')
+FROM generate_series(1, 1000000) AS i,
+     (SELECT ARRAY['Nguyễn','Trần','Lê','Phạm','Hoàng','Huỳnh','Phan','Vũ','Võ','Đặng','Bùi','Đỗ','Hồ','Ngô'] v) f,
+     (SELECT ARRAY['nguyen','tran','le','pham','hoang','huynh','phan','vu','vo','dang','bui','do','ho','ngo'] v) fa,
+     (SELECT ARRAY['Văn','Thị','Hữu','Minh','Đức','Ngọc','Quốc','Thanh'] v) m,
+     (SELECT ARRAY['van','thi','huu','minh','duc','ngoc','quoc','thanh'] v) ma,
+     (SELECT ARRAY['An','Bình','Châu','Dũng','Giang','Hà','Hải','Hùng','Khánh','Linh',
+                   'Long','Mai','Nam','Phúc','Quân','Sơn','Tâm','Thảo','Trang','Tuấn'] v) g,
+     (SELECT ARRAY['an','binh','chau','dung','giang','ha','hai','hung','khanh','linh',
+                   'long','mai','nam','phuc','quan','son','tam','thao','trang','tuan'] v) ga;
+
+CREATE INDEX ON customers_search_bench (dealer_id);
+CREATE INDEX ON customers_search_bench (full_name);
+CREATE INDEX ON customers_search_bench USING gin (search_text gin_trgm_ops) WHERE deleted = false;
+CREATE INDEX ON customers_search_bench (phone_digits text_pattern_ops) WHERE deleted = false;
+ANALYZE customers_search_bench;
+
+-- Before: what searchMulti ran for an admin typing "tuấn"
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM customers_search_bench c
+WHERE c.deleted = false
+  AND (lower(c.full_name) LIKE '%tuấn%' OR lower(c.phone) LIKE '%tuấn%' OR lower(c.email) LIKE '%tuấn%')
+LIMIT 20;
+
+-- After: TrigramCustomerTextSearch for "tuan" (normalized), admin scope
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT c.* FROM customers_search_bench c
+WHERE c.deleted = false
+  AND (c.search_text LIKE '%tuan%' OR 'tuan' <% c.search_text)
+ORDER BY CASE WHEN c.search_text LIKE 'tuan%' THEN 0 WHEN c.search_text LIKE '% tuan%' THEN 1 ELSE 2 END,
+         word_similarity('tuan', c.search_text) DESC, c.full_name, c.id
+LIMIT 20;
+
+-- After: selective query, dealer scope
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT c.* FROM customers_search_bench c
+WHERE c.deleted = false AND c.dealer_id = '00000000-0000-0000-0000-000000000007'
+  AND (c.search_text LIKE '%kh123456@%' OR 'kh123456@' <% c.search_text)
+ORDER BY CASE WHEN c.search_text LIKE 'kh123456@%' THEN 0 WHEN c.search_text LIKE '% kh123456@%' THEN 1 ELSE 2 END,
+         word_similarity('kh123456@', c.search_text) DESC, c.full_name, c.id
+LIMIT 20;
+
+-- Before: phone typed into the search box
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM customers_search_bench c
+WHERE c.deleted = false
+  AND (lower(c.full_name) LIKE '%0900123%' OR lower(c.phone) LIKE '%0900123%' OR lower(c.email) LIKE '%0900123%')
+LIMIT 20;
+
+-- After: CustomerSearch phone prefix
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT c.* FROM customers_search_bench c
+WHERE c.deleted = false AND c.phone_digits LIKE '0900123%'
+ORDER BY c.phone_digits, c.id
+LIMIT 20;
+
+DROP TABLE customers_search_bench;
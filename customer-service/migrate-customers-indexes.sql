@@ -0,0 +1,70 @@
+-- =====================================================
+-- Customers / leads: indexes for the repository finders
+-- Run once on existing databases (Supabase SQL Editor or psql),
+-- after migrate-customers-search.sql (needs pg_trgm).
+-- This file is the only definition of the customer list indexes:
+-- they are partial, since no finder returns deleted customers, which
+-- entity annotations cannot express. List pages sort by
+-- (created_at, id) newest first, so each filter has an index
+-- ending in those columns: the page is read in order (backwards)
+-- and stops after LIMIT rows, and the COUNT is an index-only scan.
+-- QueryPlanRegressionTest applies this file and fails on any
+-- sequential scan of customers or leads.
+-- =====================================================
+
+-- Superseded by the composites below (dealer_id leads several of them)
+DROP INDEX IF EXISTS idx_customers_dealer;
+DROP INDEX IF EXISTS idx_customers_name;
+DROP INDEX IF EXISTS idx_leads_dealer;
+DROP INDEX IF EXISTS idx_leads_status;
+
+-- Dealer list, keyset pages and the dealer + name filter.
+-- Each index is dropped first in case an earlier version created it
+-- without the WHERE clause.
+DROP INDEX IF EXISTS idx_customers_dealer_created;
+CREATE INDEX idx_customers_dealer_created
+    ON customers (dealer_id, created_at, id)
+    WHERE deleted = false;
+
+-- Dealer + status filter
+DROP INDEX IF EXISTS idx_customers_dealer_status;
+CREATE INDEX idx_customers_dealer_status
+    ON customers (dealer_id, status, created_at, id)
+    WHERE deleted = false;
+
+-- Staff lists (assigned customers only)
+DROP INDEX IF EXISTS idx_customers_staff_created;
+CREATE INDEX idx_customers_staff_created
+    ON customers (assigned_staff_id, created_at, id)
+    WHERE deleted = false;
+
+-- Admin lists across dealers
+DROP INDEX IF EXISTS idx_customers_status_created;
+CREATE INDEX idx_customers_status_created
+    ON customers (status, created_at, id)
+    WHERE deleted = false;
+
+DROP INDEX IF EXISTS idx_customers_created;
+CREATE INDEX idx_customers_created
+    ON customers (created_at, id)
+    WHERE deleted = false;
+
+-- Name filter (upper(full_name) LIKE '%...%', as rendered by ContainingIgnoreCase)
+CREATE INDEX IF NOT EXISTS idx_customers_name_trgm
+    ON customers USING gin (upper(full_name) gin_trgm_ops)
+    WHERE deleted = false;
+
+-- (dealer_id, phone) lookups use the uq_customer_phone_per_dealer constraint's index
+
+-- Leads have no soft delete, so their indexes are plain ones declared
+-- on the Lead entity (idx_leads_dealer_created, idx_leads_status_created,
+-- idx_leads_created) and created by Hibernate
+
+ANALYZE customers;
+ANALYZE leads;
+
+-- Verify
+SELECT indexname, indexdef
+FROM pg_indexes
+WHERE tablename IN ('customers', 'leads')
+ORDER BY tablename, indexname;
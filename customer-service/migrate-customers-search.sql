@@ -0,0 +1,54 @@
+-- =====================================================
+-- Customers: indexed search (customer.search.engine=trigram)
+-- Run once on existing databases (Supabase SQL Editor or psql)
+-- before starting the new customer-service version.
+-- New databases get the columns from Hibernate but still need
+-- the extension and the indexes below.
+-- =====================================================
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+-- Only used by the backfill below; the service normalizes in Java
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+-- Normalized name + email (lower case, no diacritics) and phone digits
+ALTER TABLE customers ADD COLUMN IF NOT EXISTS search_text VARCHAR(512);
+ALTER TABLE customers ADD COLUMN IF NOT EXISTS phone_digits VARCHAR(20);
+
+UPDATE customers
+SET search_text = trim(regexp_replace(
+        lower(unaccent(full_name || coalesce(' ' || nullif(trim(email), ''), ''))), '\s+', ' ', 'g'))
+WHERE search_text IS NULL;
+
+-- Same rules as SearchText.phoneDigits (PhoneDigitsBackfillTest compares them): ASCII digits
+-- only; 0084 -> 0; 84 -> 0 when the number was written with + or has 11+ digits
+UPDATE customers
+SET phone_digits = CASE
+        WHEN regexp_replace(phone, '[^0-9]', '', 'g') LIKE '0084%'
+            THEN '0' || substr(regexp_replace(phone, '[^0-9]', '', 'g'), 5)
+        WHEN regexp_replace(phone, '[^0-9]', '', 'g') LIKE '84%'
+                AND (phone ~ '^[\x01-\x20]*\+' OR length(regexp_replace(phone, '[^0-9]', '', 'g')) >= 11)
+            THEN '0' || substr(regexp_replace(phone, '[^0-9]', '', 'g'), 3)
+        ELSE regexp_replace(phone, '[^0-9]', '', 'g')
+    END
+WHERE phone_digits IS NULL;
+
+-- Substring and word-similarity matching on names/emails; searches never return deleted rows
+CREATE INDEX IF NOT EXISTS idx_customers_search_text_trgm
+    ON customers USING gin (search_text gin_trgm_ops)
+    WHERE deleted = false;
+
+-- Phone prefix (LIKE '090%'): text_pattern_ops works whatever the database collation.
+-- Replaces the plain index Hibernate creates under the same name.
+DROP INDEX IF EXISTS idx_customers_phone_digits;
+CREATE INDEX idx_customers_phone_digits
+    ON customers (phone_digits text_pattern_ops)
+    WHERE deleted = false;
+
+ANALYZE customers;
+
+-- Verify
+SELECT
+    COUNT(*) AS total_customers,
+    COUNT(*) FILTER (WHERE search_text IS NULL) AS missing_search_text,
+    COUNT(*) FILTER (WHERE phone_digits IS NULL) AS missing_phone_digits
+FROM customers;
@@ -0,0 +1,30 @@
+package com.evdms.customerservice.config;
+
+import com.evdms.customerservice.search.CustomerTextSearch;
+import com.evdms.customerservice.search.LikeCustomerTextSearch;
+import com.evdms.customerservice.search.TrigramCustomerTextSearch;
+import jakarta.persistence.EntityManager;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Selects customer text search with {@code customer.search.engine}: {@code trigram} (PostgreSQL
+ * with pg_trgm, indexed and ranked; what application.properties sets) or {@code like} (portable,
+ * scans; the h2 profile, and any context where the property is unset).
+ */
+@Configuration
+public class CustomerSearchConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "customer.search.engine", havingValue = "like", matchIfMissing = true)
+    public CustomerTextSearch likeCustomerTextSearch(EntityManager entityManager) {
+        return new LikeCustomerTextSearch(entityManager);
+    }
+
+    @Bean(initMethod = "verifySchema")
+    @ConditionalOnProperty(name = "customer.search.engine", havingValue = "trigram")
+    public CustomerTextSearch trigramCustomerTextSearch(EntityManager entityManager) {
+        return new TrigramCustomerTextSearch(entityManager);
+    }
+}
@@ -0,0 +1,83 @@
+package com.evdms.customerservice.config;
+
+import com.evdms.customerservice.datasource.ReadWriteRoutingDataSource;
+import com.evdms.customerservice.datasource.ReplicaLagMonitor;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Splits database access between the primary and a read replica when
+ * {@code customer.datasource.replica.jdbc-url} is set; without it the service keeps the single
+ * {@code spring.datasource} pool.
+ * <p>
+ * Read-only transactions ({@code @Transactional(readOnly = true)}) go to the replica while
+ * {@link ReplicaLagMonitor} finds it within {@code customer.datasource.lag.max}, everything else to
+ * the primary. Each route has its own Hikari pool: the primary is sized by
+ * {@code spring.datasource.hikari.*}, the replica by {@code customer.datasource.replica.*} (same
+ * names, credentials default to the primary's). Pool metrics are tagged
+ * {@code pool=customer-primary|customer-replica}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "customer.datasource.replica.jdbc-url")
+public class ReadReplicaConfig {
+
+    // Neither pool is an injection candidate by type: JPA, JdbcTemplate and the health check
+    // see only the routing DataSource below
+    @Bean(defaultCandidate = false)
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties, MeterRegistry meterRegistry) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName("customer-primary");
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return pool;
+    }
+
+    @Bean(defaultCandidate = false)
+    @ConfigurationProperties("customer.datasource.replica")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties, MeterRegistry meterRegistry) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName("customer-replica");
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return pool;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replica,
+            @Value("${customer.datasource.lag.query:" + ReplicaLagMonitor.POSTGRES_LAG_QUERY + "}") String lagQuery,
+            @Value("${customer.datasource.lag.max:PT10S}") Duration maxLag, MeterRegistry meterRegistry) {
+        return new ReplicaLagMonitor(replica, lagQuery, maxLag, meterRegistry);
+    }
+
+    // The lazy proxy takes a physical connection at the first statement, by which time the
+    // transaction's read-only flag is set for the router to pick the pool from
+    @Bean
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+            @Qualifier("replicaDataSource") DataSource replica, ReplicaLagMonitor monitor, MeterRegistry meterRegistry) {
+        return new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(primary, replica, monitor, meterRegistry));
+    }
+
+    // Hibernate otherwise holds a session's connection until the session closes (the whole
+    // request, with open-in-view), so a write after a read in the same request would reuse the
+    // replica connection
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionsAfterTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+}
@@ -0,0 +1,106 @@
+package com.evdms.customerservice.config;
+
+import com.evdms.customerservice.service.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps the requests in progress at {@code customer.bulkhead.max-concurrent}, by default the
+ * primary pool size. On virtual threads Tomcat no longer bounds concurrency, and every request
+ * here holds a connection (open-in-view), so a burst would otherwise pile onto the pool and fail
+ * with Hikari's connection timeout. Excess requests wait in arrival order for up to
+ * {@code customer.bulkhead.max-wait}, then get 503 with {@code Retry-After}.
+ * <p>
+ * Runs after the security filters, so rejected credentials never take a permit; health checks
+ * bypass it. Metrics: {@code customers.bulkhead.active}, {@code customers.bulkhead.waiting} and
+ * {@code customers.bulkhead.rejected}.
+ */
+@Component
+public class RequestBulkheadFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final long maxWaitNanos;
+    private final ObjectMapper objectMapper;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Counter rejected;
+
+    public RequestBulkheadFilter(
+            @Value("${customer.bulkhead.max-concurrent:${spring.datasource.hikari.maximum-pool-size:10}}") int maxConcurrent,
+            @Value("${customer.bulkhead.max-wait:PT10S}") Duration maxWait, ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        if (maxConcurrent <= 0) {
+            throw new IllegalArgumentException("customer.bulkhead.max-concurrent must be positive");
+        }
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxConcurrent = maxConcurrent;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.objectMapper = objectMapper;
+        Gauge.builder("customers.bulkhead.active", this, f -> f.maxConcurrent - f.permits.availablePermits())
+                .description("Requests currently holding a bulkhead permit")
+                .register(meterRegistry);
+        Gauge.builder("customers.bulkhead.waiting", waiting, AtomicInteger::get)
+                .description("Requests waiting for a bulkhead permit")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("customers.bulkhead.rejected")
+                .description("Requests answered 503 after waiting customer.bulkhead.max-wait")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return path.startsWith("/actuator/") || path.equals("/api/v1/health");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!acquire()) {
+            rejected.increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(
+                    HttpStatus.SERVICE_UNAVAILABLE.value(), "Server busy, retry shortly", request.getRequestURI(),
+                    Instant.now()));
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private boolean acquire() {
+        waiting.incrementAndGet();
+        try {
+            return permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+}
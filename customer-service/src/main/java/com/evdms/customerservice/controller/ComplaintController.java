@@ -3,9 +3,10 @@ package com.evdms.customerservice.controller;
 import com.evdms.customerservice.entity.Complaint;
 import com.evdms.customerservice.service.ComplaintService;
 import com.evdms.customerservice.dto.ResolveComplaintRequest;
+import com.evdms.security.core.Permission;
+import com.evdms.security.core.RequiresPermission;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.net.URI;
@@ -22,26 +23,26 @@ public class ComplaintController {
     }
 
     @PostMapping
-    @PreAuthorize("hasAnyAuthority('ADMIN','DEALER_MANAGER','DEALER_STAFF','USER')")
+    @RequiresPermission(Permission.COMPLAINT_WRITE)
     public ResponseEntity<Complaint> create(@Valid @RequestBody Complaint c) {
         Complaint saved = service.create(c);
         return ResponseEntity.created(URI.create("/api/v1/complaints/" + saved.getId())).body(saved);
     }
 
     @GetMapping
-    @PreAuthorize("hasAnyAuthority('ADMIN','DEALER_MANAGER')")
+    @RequiresPermission(Permission.COMPLAINT_MANAGE)
     public List<Complaint> list() {
         return service.list();
     }
 
     @GetMapping("/{id}")
-    @PreAuthorize("hasAnyAuthority('ADMIN','DEALER_MANAGER')")
+    @RequiresPermission(Permission.COMPLAINT_MANAGE)
     public Complaint get(@PathVariable UUID id) {
         return service.get(id);
     }
 
     @PutMapping("/{id}/resolve")
-    @PreAuthorize("hasAnyAuthority('ADMIN','DEALER_MANAGER')")
+    @RequiresPermission(Permission.COMPLAINT_MANAGE)
     public Complaint resolve(@PathVariable UUID id, @RequestBody ResolveComplaintRequest request) {
         return service.resolve(id, request.getResolution());
     }
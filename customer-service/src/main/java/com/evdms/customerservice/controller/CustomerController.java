@@ -1,14 +1,20 @@
 package com.evdms.customerservice.controller;
 
+import com.evdms.customerservice.dto.CountMode;
+import com.evdms.customerservice.dto.CursorPage;
+import com.evdms.customerservice.dto.CustomerListItem;
+import com.evdms.customerservice.dto.CustomerSuggestion;
 import com.evdms.customerservice.entity.Customer;
 import com.evdms.customerservice.entity.CustomerInteraction;
 import com.evdms.customerservice.entity.enums.CustomerStatus;
+import com.evdms.customerservice.repository.CustomerListFilter;
 import com.evdms.customerservice.service.CustomerService;
-import com.evdms.customerservice.service.AuthUtil;
+import com.evdms.security.core.Permission;
+import com.evdms.security.core.RequiresPermission;
+import com.evdms.security.core.TenantScope;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.net.URI;
@@ -26,83 +32,113 @@ public class CustomerController {
     }
 
     @PostMapping
-    @PreAuthorize("hasAnyAuthority('ADMIN','DEALER_MANAGER','DEALER_STAFF','USER')")
-    public ResponseEntity<Customer> create(@Valid @RequestBody Customer customer) {
+    @RequiresPermission(Permission.CUSTOMER_WRITE)
+    public ResponseEntity<Customer> create(@Valid @RequestBody Customer customer, TenantScope scope) {
         // Set dealerId from JWT context if not provided
         if (customer.getDealerId() == null) {
-            customer.setDealerId(AuthUtil.getCurrentDealerId()); // May be null for USER role
+            customer.setDealerId(scope.dealerId()); // May be null for USER role
         }
         Customer saved = service.create(customer);
         return ResponseEntity.created(URI.create("/api/v1/customers/" + saved.getId())).body(saved);
     }
 
     @GetMapping
-    @PreAuthorize("hasAnyAuthority('ADMIN','DEALER_MANAGER','DEALER_STAFF','USER')")
-    public Page<Customer> list(@RequestParam(required = false) UUID dealerId,
+    @RequiresPermission(Permission.CUSTOMER_READ)
+    public Page<CustomerListItem> list(@RequestParam(required = false) UUID dealerId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam Optional<String> name,
-            @RequestParam Optional<CustomerStatus> status) {
-        // Extract context from JWT
-        UUID contextDealerId = AuthUtil.isAdmin() ? dealerId : AuthUtil.getCurrentDealerId();
-        UUID assignedStaffId = AuthUtil.isDealerStaff() ? AuthUtil.getCurrentUserId() : null;
+            @RequestParam Optional<CustomerStatus> status,
+            TenantScope scope) {
+        return service.list(scope.dealerFor(dealerId), scope.assignedStaffId(), page, size, name, status);
+    }
 
-        return service.list(contextDealerId, assignedStaffId, page, size, name, status);
+    // Keyset pagination: start with an empty cursor, then pass back nextCursor. No COUNT unless
+    // count=EXACT or count=ESTIMATED; page/size without a cursor still returns the offset Page
+    @GetMapping(params = "cursor")
+    @RequiresPermission(Permission.CUSTOMER_READ)
+    public CursorPage<CustomerListItem> scroll(@RequestParam(required = false) UUID dealerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam Optional<String> name,
+            @RequestParam Optional<CustomerStatus> status,
+            @RequestParam(defaultValue = "NONE") CountMode count,
+            TenantScope scope) {
+        CustomerListFilter filter = new CustomerListFilter(scope.dealerFor(dealerId), scope.assignedStaffId(),
+                name.orElse(null), status.orElse(null));
+        return service.scroll(filter, cursor, size, count);
     }
 
     @GetMapping("/{id}")
-    @PreAuthorize("hasAnyAuthority('ADMIN','DEALER_MANAGER','DEALER_STAFF','USER')")
+    @RequiresPermission(Permission.CUSTOMER_READ)
     public Customer get(@PathVariable UUID id) {
         return service.get(id);
     }
 
     @PutMapping("/{id}")
-    @PreAuthorize("hasAnyAuthority('ADMIN','DEALER_MANAGER','DEALER_STAFF','USER')")
+    @RequiresPermission(Permission.CUSTOMER_WRITE)
     public Customer update(@PathVariable UUID id, @RequestBody Customer patch) {
         return service.update(id, patch);
     }
 
     @DeleteMapping("/{id}")
-    @PreAuthorize("hasAnyAuthority('ADMIN','DEALER_MANAGER','USER')")
+    @RequiresPermission(Permission.CUSTOMER_DELETE)
     public ResponseEntity<Void> delete(@PathVariable UUID id) {
         service.softDelete(id);
         return ResponseEntity.noContent().build();
     }
 
     @GetMapping("/search")
-    @PreAuthorize("hasAnyAuthority('ADMIN','DEALER_MANAGER','DEALER_STAFF','USER')")
-    public Page<Customer> search(
+    @RequiresPermission(Permission.CUSTOMER_READ)
+    public Page<CustomerListItem> search(
             @RequestParam(required = false) UUID dealerId,
             @RequestParam(required = false) String q,
             @RequestParam(required = false) String phone,
             @RequestParam(required = false) String email,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
-        // Extract context from JWT
-        UUID contextDealerId = AuthUtil.isAdmin() ? dealerId : AuthUtil.getCurrentDealerId();
-        UUID assignedStaffId = AuthUtil.isDealerStaff() ? AuthUtil.getCurrentUserId() : null;
+            @RequestParam(defaultValue = "20") int size,
+            TenantScope scope) {
+        return service.searchMulti(scope.dealerFor(dealerId), scope.assignedStaffId(), searchQuery(q, phone, email),
+                page, size);
+    }
 
-        // Use phone/email if provided, otherwise use q
-        String searchQuery = q;
-        if (phone != null && !phone.isEmpty()) {
-            searchQuery = phone;
-        } else if (email != null && !email.isEmpty()) {
-            searchQuery = email;
-        }
+    @GetMapping(value = "/search", params = "cursor")
+    @RequiresPermission(Permission.CUSTOMER_READ)
+    public CursorPage<CustomerListItem> scrollSearch(
+            @RequestParam(required = false) UUID dealerId,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String phone,
+            @RequestParam(required = false) String email,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "NONE") CountMode count,
+            TenantScope scope) {
+        return service.scrollSearch(scope.dealerFor(dealerId), scope.assignedStaffId(), searchQuery(q, phone, email),
+                cursor, size, count);
+    }
 
-        return service.searchMulti(contextDealerId, assignedStaffId, searchQuery, page, size);
+    // As-you-type lookup, answered from the in-memory index without a database round trip
+    @GetMapping("/typeahead")
+    @RequiresPermission(Permission.CUSTOMER_READ)
+    public List<CustomerSuggestion> typeahead(
+            @RequestParam(required = false) UUID dealerId,
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit,
+            TenantScope scope) {
+        return service.suggest(scope.dealerFor(dealerId), scope.assignedStaffId(), q, Math.min(Math.max(limit, 1), 50));
     }
 
     @GetMapping("/{id}/history")
-    @PreAuthorize("hasAnyAuthority('ADMIN','DEALER_MANAGER','DEALER_STAFF','USER')")
+    @RequiresPermission(Permission.CUSTOMER_READ)
     public List<CustomerInteraction> history(@PathVariable UUID id) {
         return service.history(id);
     }
 
     @PostMapping("/{id}/notes")
-    @PreAuthorize("hasAnyAuthority('ADMIN','DEALER_MANAGER','DEALER_STAFF','USER')")
-    public CustomerInteraction addNote(@PathVariable UUID id, @RequestBody(required = false) String notes) {
-        UUID staffId = AuthUtil.getCurrentUserId();
+    @RequiresPermission(Permission.CUSTOMER_WRITE)
+    public CustomerInteraction addNote(@PathVariable UUID id, @RequestBody(required = false) String notes,
+            TenantScope scope) {
+        UUID staffId = scope.userId();
         // Use default test staff ID if token doesn't have user_id
         if (staffId == null) {
             staffId = UUID.fromString("00000000-0000-0000-0000-000000000003"); // Default test staff
@@ -110,8 +146,19 @@ public class CustomerController {
         return service.addNote(id, staffId, notes != null ? notes : "");
     }
 
+    // Use phone/email if provided, otherwise use q
+    private static String searchQuery(String q, String phone, String email) {
+        if (phone != null && !phone.isEmpty()) {
+            return phone;
+        }
+        if (email != null && !email.isEmpty()) {
+            return email;
+        }
+        return q;
+    }
+
     @GetMapping("/{id}/orders")
-    @PreAuthorize("hasAnyAuthority('ADMIN','DEALER_MANAGER','DEALER_STAFF','USER')")
+    @RequiresPermission(Permission.CUSTOMER_READ)
     public ResponseEntity<?> orders(@PathVariable UUID id) {
         return ResponseEntity.status(501).body("Orders API is handled by Order Service");
     }
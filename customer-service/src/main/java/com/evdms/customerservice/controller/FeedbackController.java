@@ -2,9 +2,10 @@ package com.evdms.customerservice.controller;
 
 import com.evdms.customerservice.entity.Feedback;
 import com.evdms.customerservice.service.FeedbackService;
+import com.evdms.security.core.Permission;
+import com.evdms.security.core.RequiresPermission;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.net.URI;
@@ -21,26 +22,26 @@ public class FeedbackController {
     }
 
     @PostMapping
-    @PreAuthorize("hasAnyAuthority('ADMIN','DEALER_MANAGER','DEALER_STAFF','USER')")
+    @RequiresPermission(Permission.FEEDBACK_WRITE)
     public ResponseEntity<Feedback> create(@Valid @RequestBody Feedback f) {
         Feedback saved = service.create(f);
         return ResponseEntity.created(URI.create("/api/v1/feedbacks/" + saved.getId())).body(saved);
     }
 
     @GetMapping
-    @PreAuthorize("hasAnyAuthority('ADMIN','DEALER_MANAGER','DEALER_STAFF','USER')")
+    @RequiresPermission(Permission.FEEDBACK_READ)
     public List<Feedback> list() {
         return service.list();
     }
 
     @GetMapping("/{id}")
-    @PreAuthorize("hasAnyAuthority('ADMIN','DEALER_MANAGER','DEALER_STAFF','USER')")
+    @RequiresPermission(Permission.FEEDBACK_READ)
     public Feedback get(@PathVariable UUID id) {
         return service.get(id);
     }
 
     @PutMapping("/{id}/resolve")
-    @PreAuthorize("hasAnyAuthority('ADMIN','DEALER_MANAGER')")
+    @RequiresPermission(Permission.FEEDBACK_RESOLVE)
     public Feedback resolve(@PathVariable UUID id, @RequestParam UUID resolvedBy, @RequestParam String response) {
         return service.resolve(id, resolvedBy, response);
     }
@@ -1,16 +1,19 @@
 package com.evdms.customerservice.controller;
 
+import com.evdms.customerservice.dto.CountMode;
+import com.evdms.customerservice.dto.CursorPage;
 import com.evdms.customerservice.dto.LeadCreateRequest;
 import com.evdms.customerservice.entity.Customer;
 import com.evdms.customerservice.entity.Lead;
 import com.evdms.customerservice.entity.enums.LeadStatus;
 import com.evdms.customerservice.dto.UpdateStatusRequest;
-import com.evdms.customerservice.service.AuthUtil;
 import com.evdms.customerservice.service.LeadService;
+import com.evdms.security.core.Permission;
+import com.evdms.security.core.RequiresPermission;
+import com.evdms.security.core.TenantScope;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.net.URI;
@@ -27,7 +30,7 @@ public class LeadController {
 
     // Public endpoint (website form)
     @PostMapping
-    public ResponseEntity<Lead> create(@Valid @RequestBody LeadCreateRequest request) {
+    public ResponseEntity<Lead> create(@Valid @RequestBody LeadCreateRequest request, TenantScope scope) {
         // Map DTO to entity
         Lead lead = Lead.builder()
                 .name(request.getFullName())
@@ -36,7 +39,7 @@ public class LeadController {
                 .interestedModels(request.getInterestedVehicleModel())
                 .source(request.getSource())
                 .notes(request.getNotes())
-                .dealerId(AuthUtil.getCurrentDealerId()) // May be null for public/USER
+                .dealerId(scope.dealerId()) // May be null for public/USER
                 .build();
 
         Lead saved = service.create(lead);
@@ -44,42 +47,55 @@ public class LeadController {
     }
 
     @GetMapping
-    @PreAuthorize("hasAnyAuthority('ADMIN','DEALER_MANAGER','DEALER_STAFF','USER')")
+    @RequiresPermission(Permission.LEAD_READ)
     public Page<Lead> list(@RequestParam(required = false) UUID dealerId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(defaultValue = "20") int size,
+            TenantScope scope) {
         // Use dealerId from JWT if not provided
-        UUID contextDealerId = dealerId != null ? dealerId : AuthUtil.getCurrentDealerId();
+        UUID contextDealerId = dealerId != null ? dealerId : scope.dealerId();
         return service.list(contextDealerId, page, size);
     }
 
+    // Keyset pagination: start with an empty cursor, then pass back nextCursor
+    @GetMapping(params = "cursor")
+    @RequiresPermission(Permission.LEAD_READ)
+    public CursorPage<Lead> scroll(@RequestParam(required = false) UUID dealerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "NONE") CountMode count,
+            TenantScope scope) {
+        UUID contextDealerId = dealerId != null ? dealerId : scope.dealerId();
+        return service.scroll(contextDealerId, cursor, size, count);
+    }
+
     @GetMapping("/{id}")
-    @PreAuthorize("hasAnyAuthority('ADMIN','DEALER_MANAGER','DEALER_STAFF','USER')")
+    @RequiresPermission(Permission.LEAD_READ)
     public Lead get(@PathVariable UUID id) {
         return service.get(id);
     }
 
     @PutMapping("/{id}")
-    @PreAuthorize("hasAnyAuthority('ADMIN','DEALER_MANAGER','DEALER_STAFF','USER')")
+    @RequiresPermission(Permission.LEAD_WRITE)
     public Lead update(@PathVariable UUID id, @RequestBody Lead patch) {
         return service.update(id, patch);
     }
 
     @PutMapping("/{id}/status")
-    @PreAuthorize("hasAnyAuthority('ADMIN','DEALER_MANAGER','DEALER_STAFF','USER')")
+    @RequiresPermission(Permission.LEAD_WRITE)
     public Lead updateStatus(@PathVariable UUID id, @RequestBody UpdateStatusRequest request) {
         LeadStatus status = LeadStatus.valueOf(request.getStatus().toUpperCase());
         return service.updateStatus(id, status);
     }
 
     @PostMapping("/{id}/convert")
-    @PreAuthorize("hasAnyAuthority('ADMIN','DEALER_MANAGER','DEALER_STAFF','USER')")
+    @RequiresPermission({ Permission.LEAD_WRITE, Permission.CUSTOMER_WRITE })
     public Customer convert(@PathVariable UUID id) {
         return service.convert(id);
     }
 
     @PutMapping("/{id}/assign")
-    @PreAuthorize("hasAnyAuthority('ADMIN','DEALER_MANAGER')")
+    @RequiresPermission(Permission.LEAD_ASSIGN)
     public Lead assign(@PathVariable UUID id, @RequestParam UUID staffId) {
         return service.assign(id, staffId);
     }
@@ -1,7 +1,8 @@
 package com.evdms.customerservice.controller;
 
+import com.evdms.security.core.Permission;
+import com.evdms.security.core.RequiresPermission;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -16,7 +17,7 @@ public class SegmentController {
 
     // AI Optional: return mock segments
     @GetMapping("/segments")
-    @PreAuthorize("hasAnyAuthority('ADMIN','DEALER_MANAGER')")
+    @RequiresPermission(Permission.SEGMENT_READ)
     public Map<String, Object> segments() {
         return Map.of(
                 "VIP", 12,
@@ -25,7 +26,7 @@ public class SegmentController {
     }
 
     @GetMapping("/{id}/score")
-    @PreAuthorize("hasAnyAuthority('ADMIN','DEALER_MANAGER','DEALER_STAFF','USER')")
+    @RequiresPermission(Permission.CUSTOMER_READ)
     public ResponseEntity<Map<String, Object>> score(@PathVariable UUID id) {
         // Placeholder scoring logic
         return ResponseEntity.ok(Map.of("customer_id", id, "score", 72));
@@ -4,9 +4,10 @@ import com.evdms.customerservice.entity.TestDrive;
 import com.evdms.customerservice.entity.enums.TestDriveStatus;
 import com.evdms.customerservice.service.TestDriveService;
 import com.evdms.customerservice.dto.TestDriveRequest;
+import com.evdms.security.core.Permission;
+import com.evdms.security.core.RequiresPermission;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.net.URI;
@@ -26,7 +27,7 @@ public class TestDriveController {
     }
 
     @PostMapping
-    @PreAuthorize("hasAnyAuthority('ADMIN','DEALER_MANAGER','DEALER_STAFF','USER')")
+    @RequiresPermission(Permission.TEST_DRIVE_WRITE)
     public ResponseEntity<TestDrive> create(@Valid @RequestBody TestDriveRequest request) {
         // Map DTO to entity
         TestDrive td = new TestDrive();
@@ -50,7 +51,7 @@ public class TestDriveController {
     }
 
     @GetMapping
-    @PreAuthorize("hasAnyAuthority('ADMIN','DEALER_MANAGER','DEALER_STAFF','USER')")
+    @RequiresPermission(Permission.TEST_DRIVE_READ)
     public List<TestDrive> list(
             @RequestParam(required = false) UUID dealerId,
             @RequestParam(required = false) LocalDate from,
@@ -64,32 +65,32 @@ public class TestDriveController {
     }
 
     @GetMapping("/{id}")
-    @PreAuthorize("hasAnyAuthority('ADMIN','DEALER_MANAGER','DEALER_STAFF','USER')")
+    @RequiresPermission(Permission.TEST_DRIVE_READ)
     public TestDrive get(@PathVariable UUID id) {
         return service.get(id);
     }
 
     @PutMapping("/{id}")
-    @PreAuthorize("hasAnyAuthority('ADMIN','DEALER_MANAGER','DEALER_STAFF','USER')")
+    @RequiresPermission(Permission.TEST_DRIVE_WRITE)
     public TestDrive update(@PathVariable UUID id, @RequestBody TestDrive patch) {
         return service.update(id, patch);
     }
 
     @PutMapping("/{id}/status")
-    @PreAuthorize("hasAnyAuthority('ADMIN','DEALER_MANAGER','DEALER_STAFF','USER')")
+    @RequiresPermission(Permission.TEST_DRIVE_WRITE)
     public TestDrive updateStatus(@PathVariable UUID id, @RequestParam TestDriveStatus status) {
         return service.updateStatus(id, status);
     }
 
     @PostMapping("/{id}/feedback")
-    @PreAuthorize("hasAnyAuthority('ADMIN','DEALER_MANAGER','DEALER_STAFF','USER')")
+    @RequiresPermission(Permission.TEST_DRIVE_WRITE)
     public TestDrive addFeedback(@PathVariable UUID id, @RequestParam String feedback,
             @RequestParam(required = false) Integer rating) {
         return service.addFeedback(id, feedback, rating);
     }
 
     @GetMapping("/calendar")
-    @PreAuthorize("hasAnyAuthority('ADMIN','DEALER_MANAGER','DEALER_STAFF','USER')")
+    @RequiresPermission(Permission.TEST_DRIVE_READ)
     public List<TestDrive> calendar(@RequestParam(required = false) LocalDate date) {
         // Set default to current month if not provided
         if (date == null)
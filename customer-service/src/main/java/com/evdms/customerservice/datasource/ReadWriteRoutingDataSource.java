@@ -0,0 +1,78 @@
+package com.evdms.customerservice.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Routes connections by the current transaction: read-only transactions to the replica while
+ * {@link ReplicaLagMonitor} finds it usable, everything else to the primary. A read-only
+ * transaction also falls back to the primary when the replica pool cannot hand out a connection.
+ * Read-only transactions are counted per route as {@code customers.datasource.reads}.
+ * <p>
+ * The transaction's read-only flag is only set once it has begun, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, which asks for the
+ * connection at the first statement.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY, REPLICA
+    }
+
+    private final ReplicaLagMonitor monitor;
+    private final Counter replicaReads;
+    private final Counter primaryReads;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor monitor,
+            MeterRegistry meterRegistry) {
+        this.monitor = monitor;
+        this.replicaReads = reads(meterRegistry, "replica");
+        this.primaryReads = reads(meterRegistry, "primary");
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && monitor.isReplicaUsable()
+                ? Route.REPLICA
+                : Route.PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return target(Route.PRIMARY).getConnection();
+        }
+        if (determineCurrentLookupKey() == Route.REPLICA) {
+            try {
+                Connection connection = target(Route.REPLICA).getConnection();
+                replicaReads.increment();
+                return connection;
+            } catch (SQLException e) {
+                monitor.replicaFailed(e);
+            }
+        }
+        primaryReads.increment();
+        return target(Route.PRIMARY).getConnection();
+    }
+
+    private DataSource target(Route route) {
+        return getResolvedDataSources().get(route);
+    }
+
+    private static Counter reads(MeterRegistry meterRegistry, String route) {
+        return Counter.builder("customers.datasource.reads")
+                .description("Read-only transactions by the pool that served them")
+                .tag("route", route)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,92 @@
+package com.evdms.customerservice.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Decides whether read-only transactions may use the replica. Every
+ * {@code customer.datasource.lag.check-interval-ms} it asks the replica how far its replay is
+ * behind the primary; the replica is usable while that stays within the allowed lag. A failed
+ * check or connection marks it unusable until a later check succeeds.
+ * <p>
+ * Until the first check completes reads stay on the primary. Metrics:
+ * {@code customers.datasource.replica.lag} (seconds, NaN while unreachable) and
+ * {@code customers.datasource.replica.usable}.
+ */
+public class ReplicaLagMonitor {
+
+    /**
+     * Seconds since the last replayed transaction, or 0 when everything received has been replayed
+     * (an idle primary writes nothing, so the timestamp alone would keep growing). Null, read as 0,
+     * when the server is not a standby.
+     */
+    public static final String POSTGRES_LAG_QUERY = "select case when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn()"
+            + " then 0 else extract(epoch from now() - pg_last_xact_replay_timestamp()) end";
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final JdbcTemplate replica;
+    private final String lagQuery;
+    private final double maxLagSeconds;
+
+    private volatile boolean usable;
+    private volatile double lagSeconds = Double.NaN;
+
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, Duration maxLag, MeterRegistry meterRegistry) {
+        this.replica = new JdbcTemplate(replica);
+        this.replica.setQueryTimeout(5);
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+        Gauge.builder("customers.datasource.replica.lag", this, m -> m.lagSeconds)
+                .description("Replication lag of the read replica as of the last check")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("customers.datasource.replica.usable", this, m -> m.usable ? 1 : 0)
+                .description("Whether read-only transactions currently use the replica")
+                .register(meterRegistry);
+    }
+
+    public boolean isReplicaUsable() {
+        return usable;
+    }
+
+    @Scheduled(fixedDelayString = "${customer.datasource.lag.check-interval-ms:5000}")
+    public void check() {
+        double lag;
+        try {
+            Double measured = replica.queryForObject(lagQuery, Double.class);
+            lag = measured != null ? measured : 0;
+        } catch (DataAccessException e) {
+            replicaFailed(e);
+            return;
+        }
+        lagSeconds = lag;
+        boolean withinLag = lag <= maxLagSeconds;
+        if (withinLag != usable) {
+            if (withinLag) {
+                logger.info("Read replica usable ({} s behind), routing read-only transactions to it", lag);
+            } else {
+                logger.warn("Read replica {} s behind (max {} s), routing read-only transactions to the primary",
+                        lag, maxLagSeconds);
+            }
+        }
+        usable = withinLag;
+    }
+
+    /** Called when the replica cannot be reached; reads go to the primary until the next good check. */
+    public void replicaFailed(Exception e) {
+        lagSeconds = Double.NaN;
+        if (usable) {
+            logger.warn("Read replica unreachable, routing read-only transactions to the primary: {}", e.toString());
+        }
+        usable = false;
+    }
+}
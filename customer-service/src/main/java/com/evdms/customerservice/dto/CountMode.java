@@ -0,0 +1,11 @@
+package com.evdms.customerservice.dto;
+
+/** Whether a cursor listing also counts the matching rows. */
+public enum CountMode {
+    /** No count; enough for infinite scrolling and "next page" links. */
+    NONE,
+    /** Exact count of every matching row. */
+    EXACT,
+    /** Counts up to {@code customer.paging.count-cap} rows and reports the cap as a lower bound beyond that. */
+    ESTIMATED
+}
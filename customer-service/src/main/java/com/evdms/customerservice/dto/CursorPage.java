@@ -0,0 +1,11 @@
+package com.evdms.customerservice.dto;
+
+import java.util.List;
+
+/**
+ * One page of a cursor listing. Pass {@code nextCursor} back as {@code cursor} to get the next
+ * page; it is null on the last page. {@code total} is null unless a count was requested, and
+ * only a lower bound when {@code totalExact} is false.
+ */
+public record CursorPage<T>(List<T> items, String nextCursor, Long total, boolean totalExact) {
+}
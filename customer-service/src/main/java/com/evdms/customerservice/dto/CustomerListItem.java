@@ -0,0 +1,26 @@
+package com.evdms.customerservice.dto;
+
+import com.evdms.customerservice.entity.enums.CustomerStatus;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A customer as the list and search grids show it. Selected column by column, so listing and
+ * searching never load managed entities, nor the address, tags or identity number.
+ */
+public record CustomerListItem(
+        UUID id,
+        UUID dealerId,
+        UUID assignedStaffId,
+        String fullName,
+        String phone,
+        String email,
+        CustomerStatus status,
+        Instant createdAt) {
+
+    /** Select list matching the constructor, for queries over {@code Customer c}. */
+    public static final String SELECT = "select new com.evdms.customerservice.dto.CustomerListItem("
+            + "c.id, c.dealerId, c.assignedStaffId, c.fullName, c.phone, c.email, c.status, c.createdAt) "
+            + "from Customer c";
+}
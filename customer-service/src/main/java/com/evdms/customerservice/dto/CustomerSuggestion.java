@@ -0,0 +1,27 @@
+package com.evdms.customerservice.dto;
+
+import com.evdms.customerservice.entity.Customer;
+
+import java.util.UUID;
+
+/**
+ * What the typeahead index keeps per customer and returns as a suggestion. Selected column by
+ * column when the index is built, so the build never loads managed entities.
+ */
+public record CustomerSuggestion(
+        UUID id,
+        UUID dealerId,
+        UUID assignedStaffId,
+        String fullName,
+        String phone,
+        String email) {
+
+    public static CustomerSuggestion of(Customer c) {
+        return new CustomerSuggestion(c.getId(), c.getDealerId(), c.getAssignedStaffId(), c.getFullName(),
+                c.getPhone(), c.getEmail());
+    }
+
+    public static CustomerSuggestion of(CustomerListItem c) {
+        return new CustomerSuggestion(c.id(), c.dealerId(), c.assignedStaffId(), c.fullName(), c.phone(), c.email());
+    }
+}
@@ -1,6 +1,8 @@
 package com.evdms.customerservice.entity;
 
 import com.evdms.customerservice.entity.enums.*;
+import com.evdms.customerservice.search.SearchText;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
@@ -15,8 +17,10 @@ import java.util.UUID;
 @Table(name = "customers", uniqueConstraints = {
                 @UniqueConstraint(name = "uq_customer_phone_per_dealer", columnNames = { "dealer_id", "phone" })
 }, indexes = {
-                @Index(name = "idx_customers_dealer", columnList = "dealer_id"),
-                @Index(name = "idx_customers_name", columnList = "full_name")
+                // Plain version of the partial index in migrate-customers-search.sql, which
+                // replaces it under the same name. The list indexes are partial too and live only
+                // in migrate-customers-indexes.sql
+                @Index(name = "idx_customers_phone_digits", columnList = "phone_digits")
 })
 @Getter
 @Setter
@@ -98,6 +102,17 @@ public class Customer {
         @Builder.Default
         private boolean deleted = false;
 
+        // Search columns, derived from the fields above on every write (see SearchText)
+        @JsonIgnore
+        @Setter(AccessLevel.NONE)
+        @Column(name = "search_text", length = 512)
+        private String searchText;
+
+        @JsonIgnore
+        @Setter(AccessLevel.NONE)
+        @Column(name = "phone_digits", length = 20)
+        private String phoneDigits;
+
         // Custom setter to auto-populate firstName and lastName from fullName
         public void setFullName(String fullName) {
                 this.fullName = fullName;
@@ -107,4 +122,11 @@ public class Customer {
                         this.lastName = parts.length > 1 ? parts[1] : "";
                 }
         }
+
+        @PrePersist
+        @PreUpdate
+        void refreshSearchColumns() {
+                this.searchText = SearchText.customerText(fullName, email);
+                this.phoneDigits = SearchText.phoneDigits(phone);
+        }
 }
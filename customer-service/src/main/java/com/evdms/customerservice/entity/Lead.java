@@ -12,8 +12,9 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "leads", indexes = {
-        @Index(name = "idx_leads_dealer", columnList = "dealer_id"),
-        @Index(name = "idx_leads_status", columnList = "status")
+        @Index(name = "idx_leads_dealer_created", columnList = "dealer_id, created_at, id"),
+        @Index(name = "idx_leads_status_created", columnList = "status, created_at, id"),
+        @Index(name = "idx_leads_created", columnList = "created_at, id")
 })
 @Getter
 @Setter
@@ -0,0 +1,13 @@
+package com.evdms.customerservice.repository;
+
+import com.evdms.customerservice.entity.enums.CustomerStatus;
+
+import java.util.UUID;
+
+/**
+ * Optional criteria for customer listings; a null field does not filter.
+ *
+ * @param name case-insensitive substring of the full name
+ */
+public record CustomerListFilter(UUID dealerId, UUID assignedStaffId, String name, CustomerStatus status) {
+}
@@ -0,0 +1,20 @@
+package com.evdms.customerservice.repository;
+
+import com.evdms.customerservice.dto.CustomerListItem;
+
+import java.util.List;
+
+/** Keyset listing of undeleted customers; implemented by {@link CustomerListRepositoryImpl}. */
+public interface CustomerListRepository {
+
+    /**
+     * Up to {@code limit} customers newest first, ordered by {@code (created_at, id)}, starting
+     * after {@code after} (or from the newest when null). Cost does not grow with the page number.
+     */
+    List<CustomerListItem> findPage(CustomerListFilter filter, SeekPosition after, int limit);
+
+    long count(CustomerListFilter filter);
+
+    /** {@link #count} but stopping at {@code cap}. */
+    long countUpTo(CustomerListFilter filter, long cap);
+}
@@ -0,0 +1,72 @@
+package com.evdms.customerservice.repository;
+
+import com.evdms.customerservice.dto.CustomerListItem;
+import com.evdms.customerservice.entity.enums.CustomerStatus;
+import com.evdms.customerservice.search.SearchText;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+class CustomerListRepositoryImpl implements CustomerListRepository {
+
+    // Columns of CustomerListItem, in constructor order
+    private static final Map<String, Class<?>> COLUMNS = new LinkedHashMap<>();
+
+    static {
+        COLUMNS.put("id", UUID.class);
+        COLUMNS.put("dealer_id", UUID.class);
+        COLUMNS.put("assigned_staff_id", UUID.class);
+        COLUMNS.put("full_name", String.class);
+        COLUMNS.put("phone", String.class);
+        COLUMNS.put("email", String.class);
+        COLUMNS.put("status", String.class);
+        COLUMNS.put("created_at", Instant.class);
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<CustomerListItem> findPage(CustomerListFilter filter, SeekPosition after, int limit) {
+        return query(filter).page(COLUMNS, after, limit).stream()
+                .map(row -> new CustomerListItem((UUID) row[0], (UUID) row[1], (UUID) row[2], (String) row[3],
+                        (String) row[4], (String) row[5], row[6] != null ? CustomerStatus.valueOf((String) row[6]) : null,
+                        (Instant) row[7]))
+                .toList();
+    }
+
+    @Override
+    public long count(CustomerListFilter filter) {
+        return query(filter).count();
+    }
+
+    @Override
+    public long countUpTo(CustomerListFilter filter, long cap) {
+        return query(filter).countUpTo(cap);
+    }
+
+    private SeekQuery query(CustomerListFilter filter) {
+        SeekQuery query = new SeekQuery(entityManager, "customers").where("t.deleted = false");
+        if (filter.dealerId() != null) {
+            query.where("t.dealer_id = :dealerId", "dealerId", filter.dealerId());
+        }
+        if (filter.assignedStaffId() != null) {
+            query.where("t.assigned_staff_id = :staffId", "staffId", filter.assignedStaffId());
+        }
+        if (filter.name() != null && !filter.name().isBlank()) {
+            // Same expression as the derived ContainingIgnoreCase finders, served by idx_customers_name_trgm
+            query.where("upper(t.full_name) like :name escape '\\'", "name",
+                    "%" + SearchText.escapeLike(filter.name().trim().toUpperCase(Locale.ROOT)) + "%");
+        }
+        if (filter.status() != null) {
+            query.where("t.status = :status", "status", filter.status().name());
+        }
+        return query;
+    }
+}
@@ -1,46 +1,46 @@
 package com.evdms.customerservice.repository;
 
+import com.evdms.customerservice.dto.CustomerListItem;
+import com.evdms.customerservice.dto.CustomerSuggestion;
 import com.evdms.customerservice.entity.Customer;
 import com.evdms.customerservice.entity.enums.CustomerStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface CustomerRepository extends JpaRepository<Customer, UUID> {
+public interface CustomerRepository extends JpaRepository<Customer, UUID>, CustomerListRepository {
     Optional<Customer> findByDealerIdAndPhone(UUID dealerId, String phone);
 
-    Page<Customer> findAllByDealerIdAndDeletedFalse(UUID dealerId, Pageable pageable);
+    // List pages: the grid's columns only (constructor projection), no managed entities
+    Page<CustomerListItem> findAllByDealerIdAndDeletedFalse(UUID dealerId, Pageable pageable);
 
-    Page<Customer> findAllByDeletedFalse(Pageable pageable);
+    Page<CustomerListItem> findAllByDeletedFalse(Pageable pageable);
 
-    Page<Customer> findByDealerIdAndFullNameContainingIgnoreCaseAndDeletedFalse(UUID dealerId, String name,
+    Page<CustomerListItem> findByDealerIdAndFullNameContainingIgnoreCaseAndDeletedFalse(UUID dealerId, String name,
             Pageable pageable);
 
-    Page<Customer> findByFullNameContainingIgnoreCaseAndDeletedFalse(String name, Pageable pageable);
+    Page<CustomerListItem> findByFullNameContainingIgnoreCaseAndDeletedFalse(String name, Pageable pageable);
 
-    Page<Customer> findByDealerIdAndStatusAndDeletedFalse(UUID dealerId, CustomerStatus status, Pageable pageable);
+    Page<CustomerListItem> findByDealerIdAndStatusAndDeletedFalse(UUID dealerId, CustomerStatus status, Pageable pageable);
     
-    Page<Customer> findByStatusAndDeletedFalse(CustomerStatus status, Pageable pageable);
+    Page<CustomerListItem> findByStatusAndDeletedFalse(CustomerStatus status, Pageable pageable);
     
-    Page<Customer> findByAssignedStaffIdAndDeletedFalse(UUID assignedStaffId, Pageable pageable);
+    Page<CustomerListItem> findByAssignedStaffIdAndDeletedFalse(UUID assignedStaffId, Pageable pageable);
     
-    Page<Customer> findByAssignedStaffIdAndFullNameContainingIgnoreCaseAndDeletedFalse(UUID assignedStaffId, String name, Pageable pageable);
-    
-    // Search by phone, email or name
-    @Query("SELECT c FROM Customer c WHERE c.assignedStaffId = :staffId AND c.deleted = false AND " +
-           "(LOWER(c.fullName) LIKE :pattern OR LOWER(c.phone) LIKE :pattern OR LOWER(c.email) LIKE :pattern)")
-    Page<Customer> findByAssignedStaffIdAndSearchAndDeletedFalse(@Param("staffId") UUID staffId, @Param("pattern") String pattern, Pageable pageable);
-    
-    @Query("SELECT c FROM Customer c WHERE c.dealerId = :dealerId AND c.deleted = false AND " +
-           "(LOWER(c.fullName) LIKE :pattern OR LOWER(c.phone) LIKE :pattern OR LOWER(c.email) LIKE :pattern)")
-    Page<Customer> findByDealerIdAndSearchAndDeletedFalse(@Param("dealerId") UUID dealerId, @Param("pattern") String pattern, Pageable pageable);
-    
-    @Query("SELECT c FROM Customer c WHERE c.deleted = false AND " +
-           "(LOWER(c.fullName) LIKE :pattern OR LOWER(c.phone) LIKE :pattern OR LOWER(c.email) LIKE :pattern)")
-    Page<Customer> findBySearchAndDeletedFalse(@Param("pattern") String pattern, Pageable pageable);
+    Page<CustomerListItem> findByAssignedStaffIdAndFullNameContainingIgnoreCaseAndDeletedFalse(UUID assignedStaffId, String name, Pageable pageable);
+
+    // Typeahead index build: selected columns only, read through a cursor inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.evdms.customerservice.dto.CustomerSuggestion("
+            + "c.id, c.dealerId, c.assignedStaffId, c.fullName, c.phone, c.email) "
+            + "from Customer c where c.deleted = false")
+    Stream<CustomerSuggestion> streamSuggestions();
 }
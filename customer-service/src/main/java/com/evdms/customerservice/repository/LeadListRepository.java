@@ -0,0 +1,21 @@
+package com.evdms.customerservice.repository;
+
+import com.evdms.customerservice.entity.Lead;
+
+import java.util.List;
+import java.util.UUID;
+
+/** Keyset listing of leads; implemented by {@link LeadListRepositoryImpl}. */
+public interface LeadListRepository {
+
+    /**
+     * Up to {@code limit} leads of {@code dealerId} (all leads when null) newest first, ordered by
+     * {@code (created_at, id)}, starting after {@code after} (or from the newest when null).
+     */
+    List<Lead> findPage(UUID dealerId, SeekPosition after, int limit);
+
+    long count(UUID dealerId);
+
+    /** {@link #count} but stopping at {@code cap}. */
+    long countUpTo(UUID dealerId, long cap);
+}
@@ -0,0 +1,37 @@
+package com.evdms.customerservice.repository;
+
+import com.evdms.customerservice.entity.Lead;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.util.List;
+import java.util.UUID;
+
+class LeadListRepositoryImpl implements LeadListRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Lead> findPage(UUID dealerId, SeekPosition after, int limit) {
+        return query(dealerId).page(Lead.class, after, limit);
+    }
+
+    @Override
+    public long count(UUID dealerId) {
+        return query(dealerId).count();
+    }
+
+    @Override
+    public long countUpTo(UUID dealerId, long cap) {
+        return query(dealerId).countUpTo(cap);
+    }
+
+    private SeekQuery query(UUID dealerId) {
+        SeekQuery query = new SeekQuery(entityManager, "leads");
+        if (dealerId != null) {
+            query.where("t.dealer_id = :dealerId", "dealerId", dealerId);
+        }
+        return query;
+    }
+}
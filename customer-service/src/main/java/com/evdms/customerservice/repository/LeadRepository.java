@@ -10,7 +10,7 @@ import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
-public interface LeadRepository extends JpaRepository<Lead, UUID> {
+public interface LeadRepository extends JpaRepository<Lead, UUID>, LeadListRepository {
     Page<Lead> findAllByDealerId(UUID dealerId, Pageable pageable);
 
     Page<Lead> findAllByStatus(LeadStatus status, Pageable pageable);
@@ -0,0 +1,16 @@
+package com.evdms.customerservice.repository;
+
+import org.springframework.data.domain.Sort;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * The {@code (created_at, id)} of the last row a client has seen; keyset listings continue
+ * with the rows strictly after it in newest-first order.
+ */
+public record SeekPosition(Instant createdAt, UUID id) {
+
+    /** Order of the keyset listings, also used by the page/size listings so both hit the same indexes. */
+    public static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+}
@@ -0,0 +1,99 @@
+package com.evdms.customerservice.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.hibernate.query.NativeQuery;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Native newest-first listing of a table with {@code created_at} and {@code id} columns. The
+ * next page starts from a row-value comparison on the last row seen, which PostgreSQL answers
+ * from a {@code (..., created_at, id)} index without reading the rows before it; OFFSET has to
+ * walk and discard all of them.
+ * <p>
+ * Only the predicates added are rendered, as in the other request-dependent queries.
+ */
+final class SeekQuery {
+
+    private final EntityManager entityManager;
+    private final String table;
+    private final List<String> where = new ArrayList<>();
+    private final Map<String, Object> parameters = new LinkedHashMap<>();
+
+    SeekQuery(EntityManager entityManager, String table) {
+        this.entityManager = entityManager;
+        this.table = table;
+    }
+
+    SeekQuery where(String predicate) {
+        where.add(predicate);
+        return this;
+    }
+
+    SeekQuery where(String predicate, String parameter, Object value) {
+        where.add(predicate);
+        parameters.put(parameter, value);
+        return this;
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> List<T> page(Class<T> entity, SeekPosition after, int limit) {
+        return seek(entityManager.createNativeQuery(select("t.*", after), entity), after, limit).getResultList();
+    }
+
+    /** Only {@code columns}, each read as its Java type; one array per row, in column order. */
+    @SuppressWarnings("unchecked")
+    List<Object[]> page(Map<String, Class<?>> columns, SeekPosition after, int limit) {
+        String select = columns.keySet().stream().map(column -> "t." + column).collect(Collectors.joining(", "));
+        NativeQuery<Object[]> query = entityManager.createNativeQuery(select(select, after)).unwrap(NativeQuery.class);
+        columns.forEach(query::addScalar);
+        return seek(query, after, limit).getResultList();
+    }
+
+    private String select(String columns, SeekPosition after) {
+        List<String> predicates = new ArrayList<>(where);
+        if (after != null) {
+            predicates.add("(t.created_at, t.id) < (:afterCreatedAt, :afterId)");
+        }
+        return "select " + columns + " from " + table + " t" + render(predicates)
+                + " order by t.created_at desc, t.id desc";
+    }
+
+    private Query seek(Query query, SeekPosition after, int limit) {
+        bind(query);
+        if (after != null) {
+            query.setParameter("afterCreatedAt", after.createdAt());
+            query.setParameter("afterId", after.id());
+        }
+        query.setMaxResults(limit);
+        return query;
+    }
+
+    long count() {
+        Query query = entityManager.createNativeQuery("select count(*) from " + table + " t" + render(where));
+        bind(query);
+        return ((Number) query.getSingleResult()).longValue();
+    }
+
+    // Stops counting at cap rows, so a large dealer costs no more than a small one
+    long countUpTo(long cap) {
+        Query query = entityManager.createNativeQuery("select count(*) from (select 1 from " + table + " t"
+                + render(where) + " limit :cap) capped");
+        bind(query);
+        query.setParameter("cap", cap);
+        return ((Number) query.getSingleResult()).longValue();
+    }
+
+    private void bind(Query query) {
+        parameters.forEach(query::setParameter);
+    }
+
+    private static String render(List<String> predicates) {
+        return predicates.isEmpty() ? "" : " where " + String.join(" and ", predicates);
+    }
+}
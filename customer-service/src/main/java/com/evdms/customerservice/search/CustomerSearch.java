@@ -0,0 +1,128 @@
+package com.evdms.customerservice.search;
+
+import com.evdms.customerservice.dto.CustomerListItem;
+import com.evdms.customerservice.dto.CustomerSuggestion;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Backend of the customer search box. Queries made of digits and phone separators match phone
+ * numbers by prefix on {@code phone_digits} (a B-tree range scan); anything else is normalized
+ * with {@link SearchText} and handed to the configured {@link CustomerTextSearch}.
+ * <p>
+ * Search results always come from SQL, so they reflect every committed write and the caller's
+ * scope as of now. The in-memory {@link CustomerTypeahead} index lags writes made by other
+ * instances until its next rebuild, so it only answers {@link #suggest} as-you-type.
+ */
+@Component
+public class CustomerSearch {
+
+    private final EntityManager entityManager;
+    private final CustomerTextSearch textSearch;
+    private final CustomerTypeahead typeahead;
+
+    public CustomerSearch(EntityManager entityManager, CustomerTextSearch textSearch, CustomerTypeahead typeahead) {
+        this.entityManager = entityManager;
+        this.textSearch = textSearch;
+        this.typeahead = typeahead;
+    }
+
+    public Page<CustomerListItem> search(CustomerSearchScope scope, String query, Pageable pageable) {
+        Result result = find(scope, query, pageable.getOffset(), pageable.getPageSize(), false);
+        return PageableExecutionUtils.getPage(result.customers(), pageable,
+                () -> result.total() != null ? result.total() : count(scope, query));
+    }
+
+    /**
+     * Up to {@code limit} matches from {@code offset}, best first, counted only when
+     * {@code count} is set (otherwise the total is null).
+     */
+    public Result find(CustomerSearchScope scope, String query, long offset, int limit, boolean count) {
+        if (query == null || query.isBlank()) {
+            return new Result(List.of(), 0L);
+        }
+        List<CustomerListItem> customers;
+        if (SearchText.isPhoneQuery(query)) {
+            customers = phonePrefix(scope, SearchText.phoneDigits(query), offset, limit);
+        } else {
+            String text = SearchText.normalize(query);
+            if (text.isEmpty()) {
+                return new Result(List.of(), 0L);
+            }
+            customers = textSearch.search(scope, text, offset, limit);
+        }
+        return new Result(customers, count ? count(scope, query) : null);
+    }
+
+    /** Suggestions straight from the index, or from SQL until the index is built. */
+    public List<CustomerSuggestion> suggest(CustomerSearchScope scope, String query, int limit) {
+        if (typeahead.isReady()) {
+            return typeahead.search(scope, query, 0, limit).suggestions();
+        }
+        return find(scope, query, 0, limit, false).customers().stream().map(CustomerSuggestion::of).toList();
+    }
+
+    private long count(CustomerSearchScope scope, String query) {
+        if (query == null || query.isBlank()) {
+            return 0;
+        }
+        if (SearchText.isPhoneQuery(query)) {
+            Query count = entityManager.createQuery("select count(c) from Customer c" + phoneWhere(scope));
+            bindPhone(count, scope, SearchText.phoneDigits(query));
+            return ((Number) count.getSingleResult()).longValue();
+        }
+        String text = SearchText.normalize(query);
+        return text.isEmpty() ? 0 : textSearch.count(scope, text);
+    }
+
+    /** Rows for {@code ids}, in the same order; ids no longer found are skipped. */
+    static List<CustomerListItem> byIds(EntityManager entityManager, List<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, CustomerListItem> byId = new HashMap<>();
+        entityManager.createQuery(CustomerListItem.SELECT + " where c.id in :ids", CustomerListItem.class)
+                .setParameter("ids", ids)
+                .getResultList()
+                .forEach(c -> byId.put(c.id(), c));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
+    private List<CustomerListItem> phonePrefix(CustomerSearchScope scope, String digits, long offset, int limit) {
+        TypedQuery<CustomerListItem> select = entityManager.createQuery(
+                CustomerListItem.SELECT + phoneWhere(scope) + " order by c.phoneDigits, c.id", CustomerListItem.class);
+        bindPhone(select, scope, digits);
+        return window(select, offset, limit);
+    }
+
+    private static String phoneWhere(CustomerSearchScope scope) {
+        return " where c.deleted = false" + scope.jpql("c") + " and c.phoneDigits like :prefix";
+    }
+
+    private static void bindPhone(Query query, CustomerSearchScope scope, String digits) {
+        scope.bind(query);
+        query.setParameter("prefix", digits + "%");
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> List<T> window(Query select, long offset, int limit) {
+        select.setFirstResult((int) offset);
+        select.setMaxResults(limit);
+        return select.getResultList();
+    }
+
+    /** Matches in rank order and, when known, how many there are in total. */
+    public record Result(List<CustomerListItem> customers, Long total) {
+    }
+}
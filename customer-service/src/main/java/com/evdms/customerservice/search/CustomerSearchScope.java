@@ -0,0 +1,35 @@
+package com.evdms.customerservice.search;
+
+import jakarta.persistence.Query;
+
+import java.util.UUID;
+
+/**
+ * Which customers a search may return: those assigned to {@code assignedStaffId} when set,
+ * else those of {@code dealerId} when set, else all.
+ */
+public record CustomerSearchScope(UUID dealerId, UUID assignedStaffId) {
+
+    /** JPQL predicate, starting with {@code and}, for the entity alias; empty when unscoped. */
+    String jpql(String alias) {
+        if (assignedStaffId != null) {
+            return " and " + alias + ".assignedStaffId = :scopeId";
+        }
+        return dealerId != null ? " and " + alias + ".dealerId = :scopeId" : "";
+    }
+
+    /** Same predicate in SQL over the {@code customers} table alias. */
+    String sql(String alias) {
+        if (assignedStaffId != null) {
+            return " and " + alias + ".assigned_staff_id = :scopeId";
+        }
+        return dealerId != null ? " and " + alias + ".dealer_id = :scopeId" : "";
+    }
+
+    void bind(Query query) {
+        UUID id = assignedStaffId != null ? assignedStaffId : dealerId;
+        if (id != null) {
+            query.setParameter("scopeId", id);
+        }
+    }
+}
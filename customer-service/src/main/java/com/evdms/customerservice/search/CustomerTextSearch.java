@@ -0,0 +1,22 @@
+package com.evdms.customerservice.search;
+
+import com.evdms.customerservice.dto.CustomerListItem;
+
+import java.util.List;
+
+/**
+ * Name/email matching behind {@link CustomerSearch}, selected with
+ * {@code customer.search.engine}: {@code trigram} on PostgreSQL, {@code like} anywhere else.
+ */
+public interface CustomerTextSearch {
+
+    /**
+     * Undeleted customers in {@code scope} whose {@code search_text} contains {@code text}
+     * (already {@link SearchText#normalize normalized}), best matches first, {@code limit} rows
+     * from {@code offset}.
+     */
+    List<CustomerListItem> search(CustomerSearchScope scope, String text, long offset, int limit);
+
+    /** How many customers {@link #search} matches in all. */
+    long count(CustomerSearchScope scope, String text);
+}
@@ -0,0 +1,159 @@
+package com.evdms.customerservice.search;
+
+import com.evdms.customerservice.dto.CustomerSuggestion;
+import com.evdms.customerservice.entity.Customer;
+import com.evdms.customerservice.repository.CustomerRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Keeps a {@link TypeaheadIndex} of all undeleted customers in sync with the database.
+ * <p>
+ * The index is built by streaming the customers table when the scheduler starts and rebuilt
+ * every {@code customer.typeahead.rebuild-interval-ms}, which also picks up rows written by other
+ * replicas or by hand. In between, {@code CustomerService} and {@code LeadService} report each
+ * change, applied once its transaction commits. Changes that arrive while a rebuild is streaming
+ * are replayed on the new index before it replaces the old one.
+ * <p>
+ * Until the first build completes {@link #isReady()} is false and callers fall back to SQL.
+ * Metrics: {@code customers.typeahead.entries} and {@code customers.typeahead.memory} (estimated
+ * bytes as of the last rebuild, also logged per 100k customers).
+ */
+@Component
+public class CustomerTypeahead {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerTypeahead.class);
+
+    private final CustomerRepository customers;
+    private final TransactionTemplate readOnly;
+    private final boolean enabled;
+
+    private volatile TypeaheadIndex index;
+    // Measured at each rebuild; walking the index on every scrape would be too costly
+    private volatile long estimatedBytes;
+    private final ReentrantLock swapLock = new ReentrantLock();
+    // Non-null while a rebuild is streaming; guarded by swapLock
+    private List<Consumer<TypeaheadIndex>> missedChanges;
+
+    public CustomerTypeahead(CustomerRepository customers, PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry, @Value("${customer.typeahead.enabled:true}") boolean enabled) {
+        this.customers = customers;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.enabled = enabled;
+        Gauge.builder("customers.typeahead.entries", this, t -> t.index != null ? t.index.size() : 0)
+                .description("Customers in the in-memory typeahead index")
+                .register(meterRegistry);
+        Gauge.builder("customers.typeahead.memory", this, t -> t.estimatedBytes)
+                .description("Estimated heap held by the typeahead index")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public boolean isReady() {
+        return index != null;
+    }
+
+    /** Searches the index; only valid when {@link #isReady()}. */
+    public TypeaheadIndex.Result search(CustomerSearchScope scope, String query, int offset, int limit) {
+        return index.search(scope.dealerId(), scope.assignedStaffId(), query, offset, limit);
+    }
+
+    /** Reflects a saved or soft-deleted customer once the current transaction commits. */
+    public void customerChanged(Customer customer) {
+        if (!enabled) {
+            return;
+        }
+        CustomerSuggestion suggestion = CustomerSuggestion.of(customer);
+        boolean deleted = customer.isDeleted();
+        afterCommit(() -> apply(deleted ? i -> i.remove(suggestion.id()) : i -> i.put(suggestion)));
+    }
+
+    @Scheduled(fixedDelayString = "${customer.typeahead.rebuild-interval-ms:900000}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        swapLock.lock();
+        try {
+            missedChanges = new ArrayList<>();
+        } finally {
+            swapLock.unlock();
+        }
+        long started = System.nanoTime();
+        TypeaheadIndex fresh = new TypeaheadIndex();
+        try {
+            readOnly.executeWithoutResult(status -> {
+                try (Stream<CustomerSuggestion> rows = customers.streamSuggestions()) {
+                    rows.forEach(fresh::put);
+                }
+            });
+            fresh.trimToSize();
+        } catch (RuntimeException e) {
+            swapLock.lock();
+            try {
+                missedChanges = null;
+            } finally {
+                swapLock.unlock();
+            }
+            logger.warn("Typeahead index rebuild failed, keeping the current one: {}", e.toString());
+            return;
+        }
+        swapLock.lock();
+        try {
+            missedChanges.forEach(change -> change.accept(fresh));
+            missedChanges = null;
+            index = fresh;
+        } finally {
+            swapLock.unlock();
+        }
+        long bytes = fresh.estimatedBytes();
+        estimatedBytes = bytes;
+        logger.info("Typeahead index built in {} ms: {} customers, ~{} KB (~{} MB per 100k customers)",
+                (System.nanoTime() - started) / 1_000_000, fresh.size(), bytes / 1024,
+                fresh.size() == 0 ? "0" : String.format("%.1f", bytes * 100_000.0 / fresh.size() / (1024 * 1024)));
+    }
+
+    private void apply(Consumer<TypeaheadIndex> change) {
+        swapLock.lock();
+        try {
+            TypeaheadIndex current = index;
+            if (current != null) {
+                change.accept(current);
+            }
+            if (missedChanges != null) {
+                missedChanges.add(change);
+            }
+        } finally {
+            swapLock.unlock();
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
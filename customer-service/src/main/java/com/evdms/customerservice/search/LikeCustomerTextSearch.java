@@ -0,0 +1,52 @@
+package com.evdms.customerservice.search;
+
+import com.evdms.customerservice.dto.CustomerListItem;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+
+import java.util.List;
+
+/**
+ * Portable JPQL over the normalized {@code search_text} column, for H2 and other databases
+ * without pg_trgm. Substring matches cannot use an index, so this scans the scoped rows; ranking
+ * is whole-text prefix, then word prefix, then any substring.
+ */
+public class LikeCustomerTextSearch implements CustomerTextSearch {
+
+    private final EntityManager entityManager;
+
+    public LikeCustomerTextSearch(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<CustomerListItem> search(CustomerSearchScope scope, String text, long offset, int limit) {
+        TypedQuery<CustomerListItem> select = entityManager.createQuery(CustomerListItem.SELECT + where(scope)
+                + " order by case when c.searchText like :prefix escape '\\' then 0"
+                + " when c.searchText like :wordPrefix escape '\\' then 1 else 2 end, c.fullName, c.id",
+                CustomerListItem.class);
+        String escaped = bind(select, scope, text);
+        select.setParameter("prefix", escaped + "%");
+        select.setParameter("wordPrefix", "% " + escaped + "%");
+        return CustomerSearch.window(select, offset, limit);
+    }
+
+    @Override
+    public long count(CustomerSearchScope scope, String text) {
+        Query count = entityManager.createQuery("select count(c) from Customer c" + where(scope));
+        bind(count, scope, text);
+        return ((Number) count.getSingleResult()).longValue();
+    }
+
+    private static String where(CustomerSearchScope scope) {
+        return " where c.deleted = false" + scope.jpql("c") + " and c.searchText like :contains escape '\\'";
+    }
+
+    private static String bind(Query query, CustomerSearchScope scope, String text) {
+        String escaped = SearchText.escapeLike(text);
+        scope.bind(query);
+        query.setParameter("contains", "%" + escaped + "%");
+        return escaped;
+    }
+}
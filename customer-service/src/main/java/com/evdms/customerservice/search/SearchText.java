@@ -0,0 +1,78 @@
+package com.evdms.customerservice.search;
+
+import java.text.Normalizer;
+import java.util.regex.Pattern;
+
+/**
+ * Normalized forms stored next to customer data and applied to queries the same way, so
+ * matching is case- and diacritic-insensitive ("Nguyễn Văn Đức" and "nguyen van duc" are the
+ * same text) and phone numbers compare as bare national digits.
+ */
+public final class SearchText {
+
+    private static final Pattern NON_DIGITS = Pattern.compile("\\D+");
+    private static final Pattern PHONE_QUERY = Pattern.compile("\\+?[\\d\\s.()-]*\\d[\\d\\s.()-]*");
+
+    private SearchText() {
+    }
+
+    /** Lower case, without diacritics, whitespace collapsed to single spaces. */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder out = new StringBuilder(decomposed.length());
+        boolean space = false;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = out.length() > 0;
+                continue;
+            }
+            int type = Character.getType(c);
+            if (type == Character.NON_SPACING_MARK || type == Character.COMBINING_SPACING_MARK
+                    || type == Character.ENCLOSING_MARK) {
+                continue;
+            }
+            if (space) {
+                out.append(' ');
+                space = false;
+            }
+            // đ is a letter of its own, not d plus a combining mark, so NFD leaves it in place
+            out.append(c == 'đ' || c == 'Đ' ? 'd' : Character.toLowerCase(c));
+        }
+        return out.toString();
+    }
+
+    /** Name and email as the single string the text search matches against. */
+    public static String customerText(String fullName, String email) {
+        return normalize(email == null || email.isBlank() ? fullName : fullName + " " + email);
+    }
+
+    /** Digits only, with a +84 / 0084 country code rewritten to the national 0 prefix. */
+    public static String phoneDigits(String phone) {
+        if (phone == null) {
+            return null;
+        }
+        String trimmed = phone.trim();
+        String digits = NON_DIGITS.matcher(trimmed).replaceAll("");
+        if (digits.startsWith("0084")) {
+            return "0" + digits.substring(4);
+        }
+        if (digits.startsWith("84") && (trimmed.startsWith("+") || digits.length() >= 11)) {
+            return "0" + digits.substring(2);
+        }
+        return digits;
+    }
+
+    /** True when the query is (part of) a phone number: digits with optional + and separators. */
+    public static boolean isPhoneQuery(String query) {
+        return query != null && PHONE_QUERY.matcher(query.trim()).matches();
+    }
+
+    /** Escapes LIKE wildcards with backslash; queries using it declare {@code escape '\'}. */
+    public static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
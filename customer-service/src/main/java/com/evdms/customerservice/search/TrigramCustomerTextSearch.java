@@ -0,0 +1,94 @@
+package com.evdms.customerservice.search;
+
+import com.evdms.customerservice.dto.CustomerListItem;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.hibernate.query.NativeQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * PostgreSQL search on {@code search_text} through the pg_trgm GIN index created by
+ * {@code migrate-customers-search.sql}. The index serves both the substring match and the
+ * typo-tolerant word-similarity match ({@code <%}, queries of three characters or more).
+ * Ranking is whole-text prefix, then word prefix, then {@code word_similarity}.
+ */
+public class TrigramCustomerTextSearch implements CustomerTextSearch {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrigramCustomerTextSearch.class);
+
+    static final String INDEX = "idx_customers_search_text_trgm";
+
+    private final EntityManager entityManager;
+
+    public TrigramCustomerTextSearch(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /** Fails startup without pg_trgm, since every query would fail; warns if the index is missing. */
+    public void verifySchema() {
+        Number extension = (Number) entityManager
+                .createNativeQuery("select count(*) from pg_extension where extname = 'pg_trgm'")
+                .getSingleResult();
+        if (extension.intValue() == 0) {
+            throw new IllegalStateException("customer.search.engine=trigram needs the pg_trgm extension: "
+                    + "run migrate-customers-search.sql or set customer.search.engine=like");
+        }
+        Number index = (Number) entityManager
+                .createNativeQuery("select count(*) from pg_indexes where tablename = 'customers' and indexname = :name")
+                .setParameter("name", INDEX)
+                .getSingleResult();
+        if (index.intValue() == 0) {
+            logger.warn("Index {} is missing; customer search will scan the table. Run migrate-customers-search.sql",
+                    INDEX);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<CustomerListItem> search(CustomerSearchScope scope, String text, long offset, int limit) {
+        // Ranks in SQL, then reads the page's rows by primary key
+        NativeQuery<UUID> select = entityManager.createNativeQuery("select c.id" + from(scope, text)
+                + " order by case when c.search_text like :prefix escape '\\' then 0"
+                + " when c.search_text like :wordPrefix escape '\\' then 1 else 2 end,"
+                + " word_similarity(:text, c.search_text) desc, c.full_name, c.id").unwrap(NativeQuery.class);
+        select.addScalar("id", UUID.class);
+        String escaped = bind(select, scope, text);
+        select.setParameter("text", text);
+        select.setParameter("prefix", escaped + "%");
+        select.setParameter("wordPrefix", "% " + escaped + "%");
+        List<UUID> ids = CustomerSearch.window(select, offset, limit);
+        return CustomerSearch.byIds(entityManager, ids);
+    }
+
+    @Override
+    public long count(CustomerSearchScope scope, String text) {
+        Query count = entityManager.createNativeQuery("select count(*)" + from(scope, text));
+        bind(count, scope, text);
+        return ((Number) count.getSingleResult()).longValue();
+    }
+
+    private static String from(CustomerSearchScope scope, String text) {
+        return " from customers c where c.deleted = false" + scope.sql("c")
+                + " and (c.search_text like :contains escape '\\'"
+                + (fuzzy(text) ? " or :text <% c.search_text" : "") + ")";
+    }
+
+    private static String bind(Query query, CustomerSearchScope scope, String text) {
+        String escaped = SearchText.escapeLike(text);
+        scope.bind(query);
+        query.setParameter("contains", "%" + escaped + "%");
+        if (fuzzy(text)) {
+            query.setParameter("text", text);
+        }
+        return escaped;
+    }
+
+    // Shorter queries have too few trigrams for a useful similarity
+    private static boolean fuzzy(String text) {
+        return text.length() >= 3;
+    }
+}
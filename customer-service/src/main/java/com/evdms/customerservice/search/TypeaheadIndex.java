@@ -0,0 +1,446 @@
+package com.evdms.customerservice.search;
+
+import com.evdms.customerservice.dto.CustomerSuggestion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over customer name, email and phone, partitioned by dealer, for
+ * as-you-type lookup without a database round trip.
+ * <p>
+ * A customer is indexed as its {@link SearchText#customerText normalized} name and email followed
+ * by its phone digits. Posting lists are kept for every trigram of that text and for the one- and
+ * two-character prefix of every word. Queries of three characters or more intersect the trigram
+ * lists, shorter ones read a single prefix list, and every candidate is then checked against the
+ * query, so results are exact and match {@link CustomerSearch}: phone queries match the phone
+ * digits by prefix, other queries match name/email as a substring (as a word prefix when shorter
+ * than three characters). Ranking is whole-text prefix, then word prefix, then any match. Unlike
+ * the trigram SQL engine there is no typo tolerance.
+ * <p>
+ * Document numbers only grow, so postings are appended in order and stay sorted. Updates and
+ * deletes tombstone the old document and a partition is rebuilt once a quarter of it is dead.
+ * Writers are serialized; each partition has a read/write lock so searches never see a
+ * half-applied change.
+ */
+public class TypeaheadIndex {
+
+    private static final UUID NO_DEALER = new UUID(0, 0);
+
+    private final Map<UUID, Partition> partitions = new ConcurrentHashMap<>();
+    private final Map<UUID, UUID> dealerOf = new ConcurrentHashMap<>();
+    // One instance per dealer/staff id instead of one per row read from the database
+    private final Map<UUID, UUID> sharedIds = new HashMap<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    public record Result(List<CustomerSuggestion> suggestions, long total) {
+    }
+
+    /** Adds the customer, or replaces it (including a move to another dealer). */
+    public void put(CustomerSuggestion customer) {
+        writeLock.lock();
+        try {
+            UUID dealer = share(customer.dealerId() != null ? customer.dealerId() : NO_DEALER);
+            UUID staff = customer.assignedStaffId() != null ? share(customer.assignedStaffId()) : null;
+            if (staff != customer.assignedStaffId() || (customer.dealerId() != null && dealer != customer.dealerId())) {
+                customer = new CustomerSuggestion(customer.id(), customer.dealerId() != null ? dealer : null, staff,
+                        customer.fullName(), customer.phone(), customer.email());
+            }
+            UUID previous = dealerOf.put(customer.id(), dealer);
+            if (previous != null && !previous.equals(dealer)) {
+                partitions.get(previous).remove(customer.id());
+            }
+            partitions.computeIfAbsent(dealer, d -> new Partition()).put(customer);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private UUID share(UUID id) {
+        return sharedIds.computeIfAbsent(id, k -> k);
+    }
+
+    public void remove(UUID customerId) {
+        writeLock.lock();
+        try {
+            UUID dealer = dealerOf.remove(customerId);
+            if (dealer != null) {
+                partitions.get(dealer).remove(customerId);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * One page of matches, best first. {@code dealerId} selects one partition (all when null);
+     * {@code assignedStaffId}, when set, keeps only that staff member's customers.
+     */
+    public Result search(UUID dealerId, UUID assignedStaffId, String query, int offset, int limit) {
+        Query q = Query.parse(query);
+        if (q == null || limit <= 0) {
+            return new Result(List.of(), 0);
+        }
+        Collector collector = new Collector(q.phone ? Hit.BY_PHONE : Hit.BY_RANK, offset + limit);
+        Collection<Partition> targets = dealerId != null
+                ? (partitions.containsKey(dealerId) ? List.of(partitions.get(dealerId)) : List.of())
+                : partitions.values();
+        for (Partition partition : targets) {
+            partition.collect(q, assignedStaffId, collector);
+        }
+        return new Result(collector.page(offset), collector.total);
+    }
+
+    /** Releases spare capacity in posting lists; called after a bulk build. */
+    public void trimToSize() {
+        for (Partition partition : partitions.values()) {
+            partition.trimToSize();
+        }
+    }
+
+    public int size() {
+        return dealerOf.size();
+    }
+
+    /**
+     * Approximate retained heap in bytes (64-bit JVM with compressed oops): documents, their
+     * strings and UUIDs, posting arrays and map overhead.
+     */
+    public long estimatedBytes() {
+        long bytes = (long) dealerOf.size() * 48 + (long) sharedIds.size() * 80;
+        for (Partition partition : partitions.values()) {
+            bytes += partition.estimatedBytes();
+        }
+        return bytes;
+    }
+
+    private static final class Partition {
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<UUID, Integer> docIds = new HashMap<>();
+        private final Map<Long, Postings> postings = new HashMap<>();
+        private Doc[] docs = new Doc[16];
+        private int size;
+        private int dead;
+
+        void put(CustomerSuggestion customer) {
+            lock.writeLock().lock();
+            try {
+                Integer old = docIds.get(customer.id());
+                if (old != null) {
+                    kill(old);
+                }
+                add(new Doc(customer));
+                compactIfSparse();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(UUID customerId) {
+            lock.writeLock().lock();
+            try {
+                Integer old = docIds.remove(customerId);
+                if (old != null) {
+                    kill(old);
+                    compactIfSparse();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void collect(Query q, UUID assignedStaffId, Collector collector) {
+            lock.readLock().lock();
+            try {
+                Postings[] lists = new Postings[q.keys.length];
+                for (int i = 0; i < lists.length; i++) {
+                    lists[i] = postings.get(q.keys[i]);
+                    if (lists[i] == null) {
+                        return;
+                    }
+                }
+                // Walk the shortest list and probe the others
+                Arrays.sort(lists, Comparator.comparingInt(p -> p.size));
+                Postings shortest = lists[0];
+                next:
+                for (int i = 0; i < shortest.size; i++) {
+                    int id = shortest.ids[i];
+                    for (int l = 1; l < lists.length; l++) {
+                        if (Arrays.binarySearch(lists[l].ids, 0, lists[l].size, id) < 0) {
+                            continue next;
+                        }
+                    }
+                    Doc doc = docs[id];
+                    if (doc == null
+                            || (assignedStaffId != null && !assignedStaffId.equals(doc.customer.assignedStaffId()))) {
+                        continue;
+                    }
+                    int rank = q.rank(doc);
+                    if (rank >= 0) {
+                        collector.offer(new Hit(doc, rank));
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        void trimToSize() {
+            lock.writeLock().lock();
+            try {
+                for (Postings p : postings.values()) {
+                    p.ids = Arrays.copyOf(p.ids, p.size);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        long estimatedBytes() {
+            lock.readLock().lock();
+            try {
+                // docIds node + boxed Integer + table slot, plus the docs array slot
+                long bytes = 16 + 4L * docs.length + 56L * docIds.size();
+                for (int i = 0; i < size; i++) {
+                    if (docs[i] != null) {
+                        bytes += docs[i].estimatedBytes();
+                    }
+                }
+                for (Postings p : postings.values()) {
+                    // map node + boxed Long + table slot + Postings + int[] header
+                    bytes += 32 + 24 + 8 + 16 + 16 + 4L * p.ids.length;
+                }
+                return bytes;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private void add(Doc doc) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            int id = size++;
+            docs[id] = doc;
+            docIds.put(doc.customer.id(), id);
+            for (long key : Grams.of(doc.indexedText())) {
+                postings.computeIfAbsent(key, k -> new Postings()).add(id);
+            }
+        }
+
+        private void kill(int id) {
+            docs[id] = null;
+            dead++;
+        }
+
+        private void compactIfSparse() {
+            if (dead < 64 || dead * 4 < size) {
+                return;
+            }
+            Doc[] live = new Doc[size - dead];
+            int n = 0;
+            for (int i = 0; i < size; i++) {
+                if (docs[i] != null) {
+                    live[n++] = docs[i];
+                }
+            }
+            docs = new Doc[Math.max(16, n * 2)];
+            size = 0;
+            dead = 0;
+            docIds.clear();
+            postings.clear();
+            for (Doc doc : live) {
+                add(doc);
+            }
+        }
+    }
+
+    private static final class Doc {
+
+        final CustomerSuggestion customer;
+        final String text;
+        final String phoneDigits;
+
+        Doc(CustomerSuggestion customer) {
+            this.customer = customer;
+            this.text = SearchText.customerText(customer.fullName(), customer.email());
+            String digits = SearchText.phoneDigits(customer.phone());
+            // Stored phones are normally digits already; keep a single copy then
+            this.phoneDigits = digits == null ? "" : digits.equals(customer.phone()) ? customer.phone() : digits;
+        }
+
+        /** Name/email then phone digits, as one word; only needed while adding. */
+        String indexedText() {
+            return phoneDigits.isEmpty() ? text : text + " " + phoneDigits;
+        }
+
+        long estimatedBytes() {
+            // Doc + record + id UUID (dealer and staff ids are shared), then the strings
+            return 24 + 40 + 32 + stringBytes(customer.fullName()) + stringBytes(customer.phone())
+                    + stringBytes(customer.email()) + stringBytes(text)
+                    + (phoneDigits == customer.phone() ? 0 : stringBytes(phoneDigits));
+        }
+
+        private static long stringBytes(String s) {
+            if (s == null) {
+                return 0;
+            }
+            boolean latin1 = s.chars().allMatch(c -> c <= 0xFF);
+            return 24 + ((16 + (long) s.length() * (latin1 ? 1 : 2) + 7) & ~7);
+        }
+    }
+
+    private static final class Postings {
+
+        int[] ids = new int[2];
+        int size;
+
+        void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            }
+            ids[size++] = id;
+        }
+    }
+
+    /** Posting keys: the gram's length and up to three chars, packed into a long. */
+    private static final class Grams {
+
+        static long[] of(String text) {
+            long[] keys = new long[3 * text.length() + 1];
+            int n = 0;
+            for (int i = 0; i < text.length(); i++) {
+                if (i + 3 <= text.length()) {
+                    keys[n++] = key(3, text.charAt(i), text.charAt(i + 1), text.charAt(i + 2));
+                }
+                if (text.charAt(i) != ' ' && (i == 0 || text.charAt(i - 1) == ' ')) {
+                    keys[n++] = key(1, text.charAt(i), 0, 0);
+                    if (i + 1 < text.length() && text.charAt(i + 1) != ' ') {
+                        keys[n++] = key(2, text.charAt(i), text.charAt(i + 1), 0);
+                    }
+                }
+            }
+            long[] sorted = Arrays.copyOf(keys, n);
+            Arrays.sort(sorted);
+            int distinct = 0;
+            for (int i = 0; i < sorted.length; i++) {
+                if (i == 0 || sorted[i] != sorted[i - 1]) {
+                    sorted[distinct++] = sorted[i];
+                }
+            }
+            return Arrays.copyOf(sorted, distinct);
+        }
+
+        /** Keys a query must hit: all its trigrams, or its prefix gram when shorter. */
+        static long[] query(String q) {
+            if (q.length() < 3) {
+                return new long[] { key(q.length(), q.charAt(0), q.length() > 1 ? q.charAt(1) : 0, 0) };
+            }
+            long[] keys = new long[q.length() - 2];
+            for (int i = 0; i + 3 <= q.length(); i++) {
+                keys[i] = key(3, q.charAt(i), q.charAt(i + 1), q.charAt(i + 2));
+            }
+            return Arrays.stream(keys).distinct().toArray();
+        }
+
+        // Multiplying by an odd constant is a bijection; it spreads the mostly-ASCII packed
+        // values, which Long.hashCode alone folds onto a few thousand buckets
+        private static long key(int length, int a, int b, int c) {
+            return (((long) length << 48) | ((long) a << 32) | ((long) b << 16) | c) * 0x9E3779B97F4A7C15L;
+        }
+    }
+
+    private static final class Query {
+
+        final boolean phone;
+        final String term;
+        final long[] keys;
+
+        private Query(boolean phone, String term) {
+            this.phone = phone;
+            this.term = term;
+            this.keys = Grams.query(term);
+        }
+
+        static Query parse(String query) {
+            if (query == null || query.isBlank()) {
+                return null;
+            }
+            if (SearchText.isPhoneQuery(query)) {
+                return new Query(true, SearchText.phoneDigits(query));
+            }
+            String text = SearchText.normalize(query);
+            return text.isEmpty() ? null : new Query(false, text);
+        }
+
+        /** 0 whole-text prefix, 1 word prefix, 2 substring, -1 no match. */
+        int rank(Doc doc) {
+            if (phone) {
+                return doc.phoneDigits.startsWith(term) ? 0 : -1;
+            }
+            if (doc.text.startsWith(term)) {
+                return 0;
+            }
+            if (doc.text.contains(" " + term)) {
+                return 1;
+            }
+            return term.length() >= 3 && doc.text.contains(term) ? 2 : -1;
+        }
+    }
+
+    private record Hit(Doc doc, int rank) {
+
+        static final Comparator<Hit> BY_RANK = Comparator.<Hit>comparingInt(h -> h.rank)
+                .thenComparing(h -> h.doc.text)
+                .thenComparing(h -> h.doc.customer.id());
+
+        static final Comparator<Hit> BY_PHONE = Comparator.<Hit, String>comparing(h -> h.doc.phoneDigits)
+                .thenComparing(h -> h.doc.customer.id());
+    }
+
+    /** Keeps the best {@code capacity} hits in a bounded max-heap and counts all of them. */
+    private static final class Collector {
+
+        private final Comparator<Hit> order;
+        private final int capacity;
+        private final PriorityQueue<Hit> worstFirst;
+        long total;
+
+        Collector(Comparator<Hit> order, int capacity) {
+            this.order = order;
+            this.capacity = capacity;
+            this.worstFirst = new PriorityQueue<>(order.reversed());
+        }
+
+        void offer(Hit hit) {
+            total++;
+            if (worstFirst.size() < capacity) {
+                worstFirst.add(hit);
+            } else if (order.compare(hit, worstFirst.peek()) < 0) {
+                worstFirst.poll();
+                worstFirst.add(hit);
+            }
+        }
+
+        List<CustomerSuggestion> page(int offset) {
+            List<Hit> best = new ArrayList<>(worstFirst);
+            best.sort(order);
+            List<CustomerSuggestion> page = new ArrayList<>();
+            for (int i = offset; i < best.size(); i++) {
+                page.add(best.get(i).doc.customer);
+            }
+            return page;
+        }
+    }
+}
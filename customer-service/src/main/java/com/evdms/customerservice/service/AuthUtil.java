@@ -1,11 +1,18 @@
 package com.evdms.customerservice.service;
 
-import com.evdms.customerservice.service.JwtAuthentication;
+import com.evdms.security.core.JwtAuthentication;
+import com.evdms.security.core.Permission;
+import com.evdms.security.core.TenantScope;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.util.UUID;
 
+/**
+ * Static access to the caller for code that is not handed a {@link TenantScope}. Controllers
+ * should take a {@code TenantScope} parameter instead and pass it on: one lookup per request,
+ * no thread-local.
+ */
 public class AuthUtil {
     
     public static JwtAuthentication getCurrentAuth() {
@@ -15,20 +22,22 @@ public class AuthUtil {
         }
         return null;
     }
+
+    public static TenantScope currentScope() {
+        JwtAuthentication auth = getCurrentAuth();
+        return auth != null ? auth.getScope() : TenantScope.ANONYMOUS;
+    }
     
     public static String getCurrentUserEmail() {
-        JwtAuthentication auth = getCurrentAuth();
-        return auth != null ? auth.getEmail() : null;
+        return currentScope().email();
     }
     
     public static UUID getCurrentUserId() {
-        JwtAuthentication auth = getCurrentAuth();
-        return auth != null ? auth.getUserId() : null;
+        return currentScope().userId();
     }
     
     public static UUID getCurrentDealerId() {
-        JwtAuthentication auth = getCurrentAuth();
-        return auth != null ? auth.getDealerId() : null;
+        return currentScope().dealerId();
     }
     
     public static String getCurrentRole() {
@@ -42,7 +51,7 @@ public class AuthUtil {
     }
     
     public static boolean isAdmin() {
-        return hasRole("ADMIN");
+        return currentScope().has(Permission.ALL_DEALERS);
     }
     
     public static boolean isDealerManager() {
@@ -50,6 +59,6 @@ public class AuthUtil {
     }
     
     public static boolean isDealerStaff() {
-        return hasRole("DEALER_STAFF");
+        return currentScope().staffScoped();
     }
 }
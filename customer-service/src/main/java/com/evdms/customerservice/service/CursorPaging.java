@@ -0,0 +1,151 @@
+package com.evdms.customerservice.service;
+
+import com.evdms.customerservice.dto.CountMode;
+import com.evdms.customerservice.dto.CursorPage;
+import com.evdms.customerservice.repository.SeekPosition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Cursor tokens and page assembly for the keyset listings. A token is the base64url form of
+ * either a {@link SeekPosition} (listings ordered by {@code created_at, id}) or an offset into a
+ * relevance-ranked search; clients treat it as opaque, so the encoding can change freely.
+ * <p>
+ * Pages are fetched with one extra row, which tells whether another page exists without a
+ * COUNT. Counting is left to the caller's {@link CountMode}. Search pages stop at
+ * {@code customer.paging.max-offset}: ranking deeper would hold that many rows per request.
+ */
+@Component
+public class CursorPaging {
+
+    private static final byte SEEK = 1;
+    private static final byte OFFSET = 2;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final int maxSize;
+    private final long countCap;
+    private final int maxOffset;
+
+    public CursorPaging(@Value("${customer.paging.max-size:100}") int maxSize,
+            @Value("${customer.paging.count-cap:10000}") long countCap,
+            @Value("${customer.paging.max-offset:10000}") int maxOffset) {
+        this.maxSize = maxSize;
+        this.countCap = countCap;
+        this.maxOffset = maxOffset;
+    }
+
+    /** Requested page size clamped to 1..{@code customer.paging.max-size}. */
+    public int size(int requested) {
+        return Math.max(1, Math.min(requested, maxSize));
+    }
+
+    /** Position encoded in a listing cursor; null (from the newest) for a missing or blank cursor. */
+    public SeekPosition seekFrom(String cursor) {
+        ByteBuffer token = decode(cursor, SEEK);
+        if (token == null) {
+            return null;
+        }
+        try {
+            Instant createdAt = Instant.ofEpochSecond(token.getLong(), token.getInt());
+            return new SeekPosition(createdAt, new UUID(token.getLong(), token.getLong()));
+        } catch (BufferUnderflowException | DateTimeException e) {
+            throw invalid();
+        }
+    }
+
+    /**
+     * Offset encoded in a search cursor; 0 for a missing or blank cursor. Offsets past
+     * {@code customer.paging.max-offset} are rejected like malformed tokens.
+     */
+    public int offsetFrom(String cursor) {
+        ByteBuffer token = decode(cursor, OFFSET);
+        if (token == null) {
+            return 0;
+        }
+        try {
+            int offset = token.getInt();
+            if (offset < 0 || offset > maxOffset) {
+                throw invalid();
+            }
+            return offset;
+        } catch (BufferUnderflowException e) {
+            throw invalid();
+        }
+    }
+
+    /**
+     * Page of {@code rows}, fetched with a limit of {@code size + 1}; the cursor points after the
+     * last row returned.
+     */
+    public <T> CursorPage<T> seekPage(List<T> rows, int size, Function<T, SeekPosition> position, CountMode count,
+            LongSupplier exactCount, LongUnaryOperator cappedCount) {
+        String next = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            SeekPosition last = position.apply(rows.get(size - 1));
+            next = encode(ByteBuffer.allocate(29).put(SEEK)
+                    .putLong(last.createdAt().getEpochSecond()).putInt(last.createdAt().getNano())
+                    .putLong(last.id().getMostSignificantBits()).putLong(last.id().getLeastSignificantBits()));
+        }
+        return switch (count) {
+            case NONE -> new CursorPage<>(List.copyOf(rows), next, null, false);
+            case EXACT -> new CursorPage<>(List.copyOf(rows), next, exactCount.getAsLong(), true);
+            case ESTIMATED -> {
+                long counted = cappedCount.applyAsLong(countCap + 1);
+                yield new CursorPage<>(List.copyOf(rows), next, Math.min(counted, countCap), counted <= countCap);
+            }
+        };
+    }
+
+    /**
+     * Page of {@code rows} starting at {@code offset}, fetched with a limit of {@code size + 1};
+     * {@code total} is passed through when the search knew it. The last page is the one reaching
+     * {@code customer.paging.max-offset}.
+     */
+    public <T> CursorPage<T> offsetPage(List<T> rows, int offset, int size, Long total) {
+        String next = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            if (offset + size <= maxOffset) {
+                next = encode(ByteBuffer.allocate(5).put(OFFSET).putInt(offset + size));
+            }
+        }
+        return new CursorPage<>(List.copyOf(rows), next, total, total != null);
+    }
+
+    private static String encode(ByteBuffer token) {
+        return ENCODER.encodeToString(token.array());
+    }
+
+    private static ByteBuffer decode(String cursor, byte kind) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        ByteBuffer token;
+        try {
+            token = ByteBuffer.wrap(DECODER.decode(cursor.trim()));
+        } catch (IllegalArgumentException e) {
+            throw invalid();
+        }
+        if (!token.hasRemaining() || token.get() != kind) {
+            throw invalid();
+        }
+        return token;
+    }
+
+    private static IllegalArgumentException invalid() {
+        return new IllegalArgumentException("Invalid cursor");
+    }
+}
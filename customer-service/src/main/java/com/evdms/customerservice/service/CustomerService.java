@@ -1,12 +1,21 @@
 package com.evdms.customerservice.service;
 
+import com.evdms.customerservice.dto.CountMode;
+import com.evdms.customerservice.dto.CursorPage;
+import com.evdms.customerservice.dto.CustomerListItem;
+import com.evdms.customerservice.dto.CustomerSuggestion;
 import com.evdms.customerservice.entity.Customer;
 import com.evdms.customerservice.entity.CustomerInteraction;
 import com.evdms.customerservice.entity.enums.CustomerStatus;
 import com.evdms.customerservice.entity.enums.InteractionType;
 import com.evdms.customerservice.service.EventPublisher;
 import com.evdms.customerservice.repository.CustomerInteractionRepository;
+import com.evdms.customerservice.repository.CustomerListFilter;
 import com.evdms.customerservice.repository.CustomerRepository;
+import com.evdms.customerservice.repository.SeekPosition;
+import com.evdms.customerservice.search.CustomerSearch;
+import com.evdms.customerservice.search.CustomerSearchScope;
+import com.evdms.customerservice.search.CustomerTypeahead;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
@@ -23,12 +32,18 @@ public class CustomerService {
     private final CustomerRepository customers;
     private final CustomerInteractionRepository interactions;
     private final EventPublisher events;
+    private final CustomerSearch search;
+    private final CustomerTypeahead typeahead;
+    private final CursorPaging paging;
 
     public CustomerService(CustomerRepository customers, CustomerInteractionRepository interactions,
-            EventPublisher events) {
+            EventPublisher events, CustomerSearch search, CustomerTypeahead typeahead, CursorPaging paging) {
         this.customers = customers;
         this.interactions = interactions;
         this.events = events;
+        this.search = search;
+        this.typeahead = typeahead;
+        this.paging = paging;
     }
 
     public Customer create(@Valid Customer c) {
@@ -44,6 +59,7 @@ public class CustomerService {
             });
         }
         Customer saved = customers.save(c);
+        typeahead.customerChanged(saved);
         events.publish("customer.created", Map.of(
                 "customer_id", saved.getId().toString(),
                 "dealer_id", saved.getDealerId() != null ? saved.getDealerId().toString() : "",
@@ -53,9 +69,12 @@ public class CustomerService {
         return saved;
     }
 
-    public Page<Customer> list(UUID dealerId, UUID assignedStaffId, int page, int size, Optional<String> name,
+    // List and search reads return projections in read-only transactions, for which Spring sets
+    // the Hibernate session to FlushMode.MANUAL and read-only: no flush, snapshots or dirty checks
+    @Transactional(readOnly = true)
+    public Page<CustomerListItem> list(UUID dealerId, UUID assignedStaffId, int page, int size, Optional<String> name,
             Optional<CustomerStatus> status) {
-        Pageable pageable = PageRequest.of(page, size);
+        Pageable pageable = PageRequest.of(page, size, SeekPosition.NEWEST_FIRST);
 
         // Filter by assigned staff if provided (for DEALER_STAFF role)
         if (assignedStaffId != null) {
@@ -88,20 +107,35 @@ public class CustomerService {
         return customers.findAllByDealerIdAndDeletedFalse(dealerId, pageable);
     }
 
-    public Page<Customer> searchMulti(UUID dealerId, UUID assignedStaffId, String query, int page, int size) {
-        Pageable pageable = PageRequest.of(page, size);
-        String searchPattern = "%" + query.toLowerCase() + "%";
+    // Keyset listing: newest first, continuing after the cursor's (created_at, id)
+    @Transactional(readOnly = true)
+    public CursorPage<CustomerListItem> scroll(CustomerListFilter filter, String cursor, int size, CountMode count) {
+        int limit = paging.size(size);
+        List<CustomerListItem> rows = customers.findPage(filter, paging.seekFrom(cursor), limit + 1);
+        return paging.seekPage(rows, limit, c -> new SeekPosition(c.createdAt(), c.id()), count,
+                () -> customers.count(filter), cap -> customers.countUpTo(filter, cap));
+    }
 
-        if (assignedStaffId != null) {
-            // Staff sees only assigned customers
-            return customers.findByAssignedStaffIdAndSearchAndDeletedFalse(assignedStaffId, searchPattern, pageable);
-        }
-        if (dealerId != null) {
-            // Manager sees dealer customers
-            return customers.findByDealerIdAndSearchAndDeletedFalse(dealerId, searchPattern, pageable);
-        }
-        // Admin sees all
-        return customers.findBySearchAndDeletedFalse(searchPattern, pageable);
+    @Transactional(readOnly = true)
+    public Page<CustomerListItem> searchMulti(UUID dealerId, UUID assignedStaffId, String query, int page, int size) {
+        // Staff sees only assigned customers, manager the dealer's, admin all
+        return search.search(new CustomerSearchScope(dealerId, assignedStaffId), query, PageRequest.of(page, size));
+    }
+
+    // Search results are ranked by relevance, so the cursor carries the position in that ranking
+    @Transactional(readOnly = true)
+    public CursorPage<CustomerListItem> scrollSearch(UUID dealerId, UUID assignedStaffId, String query, String cursor,
+            int size, CountMode count) {
+        int limit = paging.size(size);
+        int offset = paging.offsetFrom(cursor);
+        CustomerSearch.Result result = search.find(new CustomerSearchScope(dealerId, assignedStaffId), query, offset,
+                limit + 1, count != CountMode.NONE);
+        return paging.offsetPage(result.customers(), offset, limit, result.total());
+    }
+
+    @Transactional(readOnly = true)
+    public List<CustomerSuggestion> suggest(UUID dealerId, UUID assignedStaffId, String query, int limit) {
+        return search.suggest(new CustomerSearchScope(dealerId, assignedStaffId), query, limit);
     }
 
     public Customer get(UUID id) {
@@ -143,7 +177,9 @@ public class CustomerService {
             c.setTags(patch.getTags());
         if (patch.getAssignedStaffId() != null)
             c.setAssignedStaffId(patch.getAssignedStaffId());
-        return customers.save(c);
+        Customer saved = customers.save(c);
+        typeahead.customerChanged(saved);
+        return saved;
     }
 
     public void softDelete(UUID id) {
@@ -151,6 +187,7 @@ public class CustomerService {
         c.setDeleted(true);
         c.setStatus(CustomerStatus.INACTIVE);
         customers.save(c);
+        typeahead.customerChanged(c);
     }
 
     public List<CustomerInteraction> history(UUID customerId) {
@@ -1,5 +1,6 @@
 package com.evdms.customerservice.service;
 
+import com.evdms.customerservice.search.SearchText;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
@@ -46,10 +47,12 @@ public class InitDataService implements ApplicationRunner {
 
             if (customerCount == null || customerCount == 0) {
                 String customerSql = """
-                        INSERT INTO customers (id, dealer_id, full_name, first_name, last_name, phone, email, address, city, status, created_at, updated_at)
-                        VALUES (?, ?, 'Default Test Customer', 'Default', 'Customer', '0000000001', 'test@customer.com', 'Test Address', 'Test City', 'NEW', NOW(), NOW())
+                        INSERT INTO customers (id, dealer_id, full_name, first_name, last_name, phone, email, address, city, status, search_text, phone_digits, created_at, updated_at)
+                        VALUES (?, ?, 'Default Test Customer', 'Default', 'Customer', '0000000001', 'test@customer.com', 'Test Address', 'Test City', 'NEW', ?, ?, NOW(), NOW())
                         """;
-                jdbcTemplate.update(customerSql, DEFAULT_CUSTOMER_ID, DEFAULT_DEALER_ID);
+                jdbcTemplate.update(customerSql, DEFAULT_CUSTOMER_ID, DEFAULT_DEALER_ID,
+                        SearchText.customerText("Default Test Customer", "test@customer.com"),
+                        SearchText.phoneDigits("0000000001"));
                 System.out.println("✓ Default customer created: " + DEFAULT_CUSTOMER_ID);
             } else {
                 System.out.println("✓ Default customer already exists: " + DEFAULT_CUSTOMER_ID);
@@ -1,11 +1,15 @@
 package com.evdms.customerservice.service;
 
+import com.evdms.customerservice.dto.CountMode;
+import com.evdms.customerservice.dto.CursorPage;
 import com.evdms.customerservice.entity.Customer;
 import com.evdms.customerservice.entity.Lead;
 import com.evdms.customerservice.entity.enums.LeadStatus;
 import com.evdms.customerservice.service.EventPublisher;
 import com.evdms.customerservice.repository.CustomerRepository;
 import com.evdms.customerservice.repository.LeadRepository;
+import com.evdms.customerservice.repository.SeekPosition;
+import com.evdms.customerservice.search.CustomerTypeahead;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -14,6 +18,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
@@ -25,13 +30,17 @@ public class LeadService {
     private final CustomerRepository customers;
     private final EventPublisher events;
     private final RoundRobinService roundRobin;
+    private final CustomerTypeahead typeahead;
+    private final CursorPaging paging;
 
     public LeadService(LeadRepository leads, CustomerRepository customers, EventPublisher events,
-            RoundRobinService roundRobin) {
+            RoundRobinService roundRobin, CustomerTypeahead typeahead, CursorPaging paging) {
         this.leads = leads;
         this.customers = customers;
         this.events = events;
         this.roundRobin = roundRobin;
+        this.typeahead = typeahead;
+        this.paging = paging;
     }
 
     public Lead create(Lead lead) {
@@ -51,8 +60,9 @@ public class LeadService {
         return saved;
     }
 
+    @Transactional(readOnly = true)
     public Page<Lead> list(UUID dealerId, int page, int size) {
-        Pageable pageable = PageRequest.of(page, size);
+        Pageable pageable = PageRequest.of(page, size, SeekPosition.NEWEST_FIRST);
         if (dealerId == null) {
             // Return all leads (for USER role or admin without dealer filter)
             return leads.findAll(pageable);
@@ -60,6 +70,15 @@ public class LeadService {
         return leads.findAllByDealerId(dealerId, pageable);
     }
 
+    // Keyset listing: newest first, continuing after the cursor's (created_at, id)
+    @Transactional(readOnly = true)
+    public CursorPage<Lead> scroll(UUID dealerId, String cursor, int size, CountMode count) {
+        int limit = paging.size(size);
+        List<Lead> rows = leads.findPage(dealerId, paging.seekFrom(cursor), limit + 1);
+        return paging.seekPage(rows, limit, l -> new SeekPosition(l.getCreatedAt(), l.getId()), count,
+                () -> leads.count(dealerId), cap -> leads.countUpTo(dealerId, cap));
+    }
+
     public Lead get(UUID id) {
         return leads.findById(id).orElseThrow(() -> new EntityNotFoundException("Lead not found"));
     }
@@ -122,6 +141,7 @@ public class LeadService {
                 .source(null)
                 .build();
         Customer saved = customers.save(c);
+        typeahead.customerChanged(saved);
         l.setCustomerId(saved.getId());
         l.setStatus(LeadStatus.CONVERTED);
         l.setConvertedAt(Instant.now());
@@ -10,6 +10,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.time.LocalDate;
@@ -47,8 +48,9 @@ public class SchedulerService {
         log.info("Sent {} test drive reminders for {}", list.size(), tomorrow);
     }
 
-    // Run daily at 02:00 UTC
+    // Run daily at 02:00 UTC, in one read-write transaction so the leads are read from the primary
     @Scheduled(cron = "0 0 2 * * *")
+    @Transactional
     public void autoMarkLeadsLostAfter30Days() {
         Instant threshold = Instant.now().minusSeconds(30L * 24 * 3600);
         // This is a simplistic example; in real case we'd track last interaction time
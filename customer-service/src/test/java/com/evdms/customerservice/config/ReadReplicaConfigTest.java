@@ -0,0 +1,112 @@
+package com.evdms.customerservice.config;
+
+import com.evdms.customerservice.datasource.ReplicaLagMonitor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+// Two in-memory H2 databases stand in for the primary and the replica; each knows its own name
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:customers_primary;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "customer.datasource.replica.jdbc-url=jdbc:h2:mem:customers_replica;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "customer.datasource.replica.maximum-pool-size=2",
+        "customer.datasource.lag.query=select seconds from replica_lag",
+        "customer.datasource.lag.max=PT5S",
+        "customer.datasource.lag.check-interval-ms=3600000",
+        "customer.search.engine=like",
+        "customer.typeahead.enabled=false"
+})
+class ReadReplicaConfigTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primary;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replica;
+
+    @Autowired
+    private ReplicaLagMonitor monitor;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void nameDatabases() {
+        name(primary, "primary");
+        name(replica, "replica");
+        JdbcTemplate replicaJdbc = new JdbcTemplate(replica);
+        replicaJdbc.execute("create table if not exists replica_lag (seconds double precision)");
+        replicaJdbc.update("delete from replica_lag");
+        replicaJdbc.update("insert into replica_lag values (0)");
+        monitor.check();
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplicaAndOthersThePrimary() {
+        assertEquals("replica", serverIn(true));
+        assertEquals("primary", serverIn(false));
+        assertEquals("replica", serverIn(true));
+    }
+
+    @Test
+    void readsFallBackToThePrimaryWhileTheReplicaLagsOrFails() {
+        double primaryReads = reads("primary");
+        JdbcTemplate replicaJdbc = new JdbcTemplate(replica);
+
+        replicaJdbc.update("update replica_lag set seconds = 60");
+        monitor.check();
+        assertFalse(monitor.isReplicaUsable());
+        assertEquals("primary", serverIn(true));
+
+        replicaJdbc.update("update replica_lag set seconds = 2");
+        monitor.check();
+        assertEquals("replica", serverIn(true));
+
+        replicaJdbc.execute("drop table replica_lag");
+        monitor.check();
+        assertEquals("primary", serverIn(true));
+        assertEquals(primaryReads + 2, reads("primary"));
+    }
+
+    private String serverIn(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> new JdbcTemplate(dataSource)
+                .queryForObject("select name from server_name", String.class));
+    }
+
+    private double reads(String route) {
+        return meterRegistry.get("customers.datasource.reads").tag("route", route).counter().count();
+    }
+
+    private static void name(DataSource database, String name) {
+        JdbcTemplate jdbc = new JdbcTemplate(database);
+        jdbc.execute("create table if not exists server_name (name varchar(16))");
+        jdbc.update("delete from server_name");
+        jdbc.update("insert into server_name values (?)", name);
+    }
+}
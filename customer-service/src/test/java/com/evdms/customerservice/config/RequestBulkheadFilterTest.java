@@ -0,0 +1,71 @@
+package com.evdms.customerservice.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestBulkheadFilterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RequestBulkheadFilter filter = new RequestBulkheadFilter(1, Duration.ofMillis(100),
+            new ObjectMapper().findAndRegisterModules(), registry);
+
+    @Test
+    void requestsBeyondTheLimitWaitThenGet503() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<MockHttpServletResponse> holder = CompletableFuture.supplyAsync(() -> run((req, res) -> {
+            entered.countDown();
+            await(release);
+        }));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        MockHttpServletResponse rejected = run((req, res) -> {
+        });
+        assertEquals(503, rejected.getStatus());
+        assertEquals("1", rejected.getHeader("Retry-After"));
+        assertEquals(1.0, registry.get("customers.bulkhead.rejected").counter().count());
+        assertEquals(1.0, registry.get("customers.bulkhead.active").gauge().value());
+
+        release.countDown();
+        assertEquals(200, holder.get(5, TimeUnit.SECONDS).getStatus());
+        assertEquals(200, run((req, res) -> {
+        }).getStatus());
+        assertEquals(0.0, registry.get("customers.bulkhead.active").gauge().value());
+    }
+
+    @Test
+    void healthChecksBypassTheLimit() {
+        assertTrue(filter.shouldNotFilter(new MockHttpServletRequest("GET", "/api/v1/health")));
+        assertTrue(filter.shouldNotFilter(new MockHttpServletRequest("GET", "/actuator/health")));
+    }
+
+    private MockHttpServletResponse run(FilterChain chain) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/customers"), response, chain);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return response;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
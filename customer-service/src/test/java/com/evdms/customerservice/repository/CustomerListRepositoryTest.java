@@ -0,0 +1,180 @@
+package com.evdms.customerservice.repository;
+
+import com.evdms.customerservice.dto.CountMode;
+import com.evdms.customerservice.dto.CursorPage;
+import com.evdms.customerservice.dto.CustomerListItem;
+import com.evdms.customerservice.entity.Customer;
+import com.evdms.customerservice.entity.Lead;
+import com.evdms.customerservice.search.CustomerSearch;
+import com.evdms.customerservice.search.CustomerTypeahead;
+import com.evdms.customerservice.service.CursorPaging;
+import com.evdms.customerservice.service.CustomerService;
+import com.evdms.customerservice.service.EventPublisher;
+import com.evdms.customerservice.service.LeadService;
+import com.evdms.customerservice.service.RoundRobinService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class CustomerListRepositoryTest {
+
+    private static final UUID DEALER = UUID.randomUUID();
+    private static final CustomerListFilter DEALER_FILTER = new CustomerListFilter(DEALER, null, null, null);
+
+    private final CursorPaging paging = new CursorPaging(100, 4, 10);
+
+    @Autowired
+    private CustomerRepository customers;
+
+    @Autowired
+    private LeadRepository leads;
+
+    @Autowired
+    private TestEntityManager em;
+
+    private CustomerService customerService;
+    private LeadService leadService;
+
+    @BeforeEach
+    void services() {
+        customerService = new CustomerService(customers, mock(CustomerInteractionRepository.class),
+                mock(EventPublisher.class), mock(CustomerSearch.class), mock(CustomerTypeahead.class), paging);
+        leadService = new LeadService(leads, customers, mock(EventPublisher.class), mock(RoundRobinService.class),
+                mock(CustomerTypeahead.class), paging);
+    }
+
+    @Test
+    void walksEveryPageNewestFirstWithoutGapsOrRepeats() {
+        List<UUID> expected = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            expected.add(save(DEALER, "Khách " + i, i).getId());
+        }
+        save(DEALER, "Đã xoá", 7).setDeleted(true);
+        save(UUID.randomUUID(), "Đại lý khác", 8);
+        em.flush();
+        em.clear();
+
+        List<CustomerListItem> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<CustomerListItem> page = customerService.scroll(DEALER_FILTER, cursor, 3,
+                    CountMode.NONE);
+            assertNull(page.total());
+            seen.addAll(page.items());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertEquals(7, seen.size());
+        assertEquals(new HashSet<>(expected), new HashSet<>(seen.stream().map(CustomerListItem::id).toList()));
+        for (int i = 1; i < seen.size(); i++) {
+            assertFalse(seen.get(i).createdAt().isAfter(seen.get(i - 1).createdAt()));
+        }
+    }
+
+    @Test
+    void countsOnlyWhenAskedAndStopsAtTheCap() {
+        for (int i = 0; i < 6; i++) {
+            save(DEALER, i % 2 == 0 ? "Nguyễn An " + i : "Trần Bình " + i, i);
+        }
+        em.flush();
+        em.clear();
+
+        CursorPage<CustomerListItem> exact = customerService.scroll(DEALER_FILTER, null, 2, CountMode.EXACT);
+        CursorPage<CustomerListItem> estimated = customerService.scroll(DEALER_FILTER, null, 2,
+                CountMode.ESTIMATED);
+        CursorPage<CustomerListItem> byName = customerService.scroll(
+                new CustomerListFilter(DEALER, null, "BÌNH", null), null, 10, CountMode.ESTIMATED);
+
+        assertEquals(6L, exact.total());
+        assertTrue(exact.totalExact());
+        assertEquals(4L, estimated.total());
+        assertFalse(estimated.totalExact());
+        assertEquals(3, byName.items().size());
+        assertEquals(3L, byName.total());
+        assertTrue(byName.totalExact());
+        assertNull(byName.nextCursor());
+    }
+
+    @Test
+    void walksEveryLeadPageNewestFirst() {
+        List<UUID> expected = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            expected.add(saveLead(DEALER, "Khách tiềm năng " + i, i).getId());
+        }
+        saveLead(UUID.randomUUID(), "Đại lý khác", 5);
+        em.flush();
+        em.clear();
+
+        List<Lead> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<Lead> page = leadService.scroll(DEALER, cursor, 2, CountMode.EXACT);
+            assertEquals(5L, page.total());
+            seen.addAll(page.items());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertEquals(5, seen.size());
+        assertEquals(new HashSet<>(expected), new HashSet<>(seen.stream().map(Lead::getId).toList()));
+        for (int i = 1; i < seen.size(); i++) {
+            assertFalse(seen.get(i).getCreatedAt().isAfter(seen.get(i - 1).getCreatedAt()));
+        }
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        String searchCursor = paging.offsetPage(List.of(1, 2, 3), 0, 2, null).nextCursor();
+
+        assertThrows(IllegalArgumentException.class, () -> paging.seekFrom(searchCursor));
+        assertThrows(IllegalArgumentException.class, () -> paging.seekFrom("not a cursor"));
+        assertThrows(IllegalArgumentException.class, () -> paging.seekFrom("AQ"));
+        assertEquals(2, paging.offsetFrom(searchCursor));
+    }
+
+    @Test
+    void stopsSearchPagingAtTheMaximumOffset() {
+        String lastCursor = paging.offsetPage(List.of(1, 2, 3, 4, 5, 6), 2, 5, null).nextCursor();
+        String deepCursor = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(ByteBuffer.allocate(5).put((byte) 2).putInt(Integer.MAX_VALUE).array());
+
+        assertEquals(7, paging.offsetFrom(lastCursor));
+        assertNull(paging.offsetPage(List.of(1, 2, 3, 4, 5, 6), 7, 5, null).nextCursor());
+        assertThrows(IllegalArgumentException.class, () -> paging.offsetFrom(deepCursor));
+    }
+
+    private Customer save(UUID dealerId, String fullName, int n) {
+        Customer customer = new Customer();
+        customer.setDealerId(dealerId);
+        customer.setFullName(fullName);
+        customer.setPhone(String.format("09%08d", n));
+        return em.persist(customer);
+    }
+
+    private Lead saveLead(UUID dealerId, String name, int n) {
+        Lead lead = new Lead();
+        lead.setDealerId(dealerId);
+        lead.setName(name);
+        lead.setPhone(String.format("08%08d", n));
+        return em.persist(lead);
+    }
+}
@@ -0,0 +1,392 @@
+package com.evdms.customerservice.repository;
+
+import com.evdms.customerservice.dto.CustomerListItem;
+import com.evdms.customerservice.entity.enums.CustomerStatus;
+import com.evdms.customerservice.entity.enums.LeadStatus;
+import com.evdms.customerservice.search.CustomerSearch;
+import com.evdms.customerservice.search.CustomerSearchScope;
+import com.evdms.customerservice.search.CustomerTypeahead;
+import com.evdms.customerservice.search.LikeCustomerTextSearch;
+import com.evdms.customerservice.search.TrigramCustomerTextSearch;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Runs every {@link CustomerRepository} and {@link LeadRepository} query against an embedded
+ * PostgreSQL seeded at production scale, with migrate-customers-search.sql and
+ * migrate-customers-indexes.sql applied, and fails when a plan reads customers or leads with a
+ * sequential scan.
+ * <p>
+ * Plans are the real ones for the statements Hibernate sends, with their bound values: the
+ * server loads auto_explain with ANALYZE and BUFFERS and logs every plan, and each query is
+ * followed by a marker statement so its plans can be cut out of the log.
+ * <p>
+ * {@link CustomerSearch} is run the same way with each text search engine, over a few named
+ * customers added to the seed, and its ranking is checked too.
+ * <p>
+ * The one read not checked is {@code streamSuggestions()}, which rebuilds the typeahead index
+ * from every undeleted customer; a sequential scan is the right plan there. Likewise, counts
+ * with no filter but the soft-delete flag, or one matching a large share of the rows, may scan.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=update",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// Each repository call commits on its own, as in the services
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanRegressionTest {
+
+    private static final int CUSTOMERS = 200_000;
+    private static final int LEADS = 100_000;
+    private static final UUID DEALER = UUID.fromString("00000000-0000-0000-0000-000000000007");
+    private static final UUID STAFF = UUID.fromString("00000000-0000-0000-0001-000000000007");
+    private static final Pageable PAGE = PageRequest.of(0, 20, SeekPosition.NEWEST_FIRST);
+    private static final Pageable DEEP_PAGE = PageRequest.of(40, 20, SeekPosition.NEWEST_FIRST);
+    private static final CustomerSearchScope DEALER_SCOPE = new CustomerSearchScope(DEALER, null);
+    private static final CustomerSearchScope EVERYONE = new CustomerSearchScope(null, null);
+
+    private static EmbeddedPostgres postgres;
+    private static Path serverLog;
+
+    @Autowired
+    private CustomerRepository customers;
+
+    @Autowired
+    private LeadRepository leads;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final List<String> failures = new ArrayList<>();
+    private UUID someCustomer;
+    private int logOffset;
+    private int markers;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) throws IOException {
+        Path logDirectory = Files.createTempDirectory("customer-plans");
+        serverLog = logDirectory.resolve("postgresql.log");
+        postgres = EmbeddedPostgres.builder()
+                .setServerConfig("shared_preload_libraries", "auto_explain")
+                .setServerConfig("auto_explain.log_min_duration", "0")
+                .setServerConfig("auto_explain.log_analyze", "on")
+                .setServerConfig("auto_explain.log_buffers", "on")
+                .setServerConfig("logging_collector", "on")
+                .setServerConfig("log_directory", logDirectory.toString())
+                .setServerConfig("log_filename", "postgresql.log")
+                .start();
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @BeforeAll
+    void seed() throws Exception {
+        // Shaped like production: 50 dealers, 2000 staff, 5% soft-deleted, statuses spread out,
+        // and NEW leads recent because the daily sweep marks older ones LOST
+        jdbc.execute("""
+                INSERT INTO customers (id, dealer_id, assigned_staff_id, full_name, phone, email, status, deleted,
+                                       created_at, updated_at)
+                SELECT gen_random_uuid(),
+                       ('00000000-0000-0000-0000-' || lpad(to_hex(g %% 50), 12, '0'))::uuid,
+                       ('00000000-0000-0000-0001-' || lpad(to_hex(g %% 2000), 12, '0'))::uuid,
+                       'Khach Hang ' || g,
+                       '09' || lpad(g::text, 8, '0'),
+                       'kh' || g || '@example.vn',
+                       (ARRAY['NEW', 'CONTACTED', 'NEGOTIATING', 'CONVERTED', 'INACTIVE'])[1 + g %% 5],
+                       g %% 20 = 0,
+                       now() - g * interval '3 minutes',
+                       now()
+                FROM generate_series(1, %d) g
+                """.formatted(CUSTOMERS));
+        jdbc.execute("""
+                INSERT INTO leads (id, dealer_id, assigned_staff_id, name, phone, email, source, status, created_at)
+                SELECT gen_random_uuid(),
+                       ('00000000-0000-0000-0000-' || lpad(to_hex(g %% 50), 12, '0'))::uuid,
+                       ('00000000-0000-0000-0001-' || lpad(to_hex(g %% 2000), 12, '0'))::uuid,
+                       'Lead ' || g,
+                       '08' || lpad(g::text, 8, '0'),
+                       'lead' || g || '@example.vn',
+                       'WEBSITE',
+                       CASE WHEN g <= 3000 OR g %% 1000 = 0 THEN 'NEW'
+                            ELSE (ARRAY['CONTACTED', 'QUALIFIED', 'LOST', 'CONVERTED'])[1 + g %% 4] END,
+                       now() - g * interval '10 minutes'
+                FROM generate_series(1, %d) g
+                """.formatted(LEADS));
+        // Named customers of DEALER for the search checks, each with a decoy that only an unescaped
+        // LIKE wildcard would match; the search backfill normalizes them like the rest
+        jdbc.update("""
+                INSERT INTO customers (id, dealer_id, full_name, phone, email, status, deleted, created_at, updated_at)
+                SELECT gen_random_uuid(), ?, v.full_name, v.phone, v.email, 'NEW', false, now(), now()
+                FROM (VALUES ('Nguyễn Văn Đức', '0912000001', 'duc@example.vn'),
+                             ('Trần Nguyên Khang', '0912000002', 'khang@example.vn'),
+                             ('Đặng Thị Nguyệt', '0912000003', 'nguyet@example.vn'),
+                             ('Lê Thị Hoa', '0912000004', 'hoa@example.vn'),
+                             ('Đại Lý 100% Điện', '0912000005', 'dien@example.vn'),
+                             ('Đại Lý 1000 Điện', '0912000006', 'dien1000@example.vn'),
+                             ('Xe Tải Miền Nam', '0912000007', 'xe_tai@example.vn'),
+                             ('Xe Tải Miền Bắc', '0912000008', 'xeztai@example.vn'))
+                     AS v(full_name, phone, email)
+                """, DEALER);
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new FileSystemResource("migrate-customers-search.sql"));
+            ScriptUtils.executeSqlScript(connection, new FileSystemResource("migrate-customers-indexes.sql"));
+        }
+        jdbc.execute("VACUUM ANALYZE customers");
+        jdbc.execute("VACUUM ANALYZE leads");
+        someCustomer = jdbc.queryForObject("select id from customers where dealer_id = ? limit 1", UUID.class,
+                DEALER);
+        plansOf(() -> {
+        });
+    }
+
+    @BeforeEach
+    void clearFailures() {
+        failures.clear();
+    }
+
+    @Test
+    void customerFindersUseIndexes() {
+        assertIndexed("findById", () -> customers.findById(someCustomer));
+        assertIndexed("findByDealerIdAndPhone", () -> customers.findByDealerIdAndPhone(DEALER, "0900000007"));
+        assertIndexed("findAllByDealerIdAndDeletedFalse",
+                () -> customers.findAllByDealerIdAndDeletedFalse(DEALER, PAGE));
+        assertIndexed("findAllByDealerIdAndDeletedFalse (page 41)",
+                () -> customers.findAllByDealerIdAndDeletedFalse(DEALER, DEEP_PAGE));
+        assertIndexedPage("findAllByDeletedFalse", () -> customers.findAllByDeletedFalse(PAGE));
+        assertIndexed("findByDealerIdAndFullNameContainingIgnoreCaseAndDeletedFalse",
+                () -> customers.findByDealerIdAndFullNameContainingIgnoreCaseAndDeletedFalse(DEALER, "hang 12", PAGE));
+        assertIndexed("findByFullNameContainingIgnoreCaseAndDeletedFalse",
+                () -> customers.findByFullNameContainingIgnoreCaseAndDeletedFalse("hang 12345", PAGE));
+        assertIndexed("findByDealerIdAndStatusAndDeletedFalse",
+                () -> customers.findByDealerIdAndStatusAndDeletedFalse(DEALER, CustomerStatus.CONTACTED, PAGE));
+        assertIndexed("findByStatusAndDeletedFalse",
+                () -> customers.findByStatusAndDeletedFalse(CustomerStatus.CONTACTED, PAGE));
+        assertIndexed("findByAssignedStaffIdAndDeletedFalse",
+                () -> customers.findByAssignedStaffIdAndDeletedFalse(STAFF, PAGE));
+        assertIndexed("findByAssignedStaffIdAndFullNameContainingIgnoreCaseAndDeletedFalse",
+                () -> customers.findByAssignedStaffIdAndFullNameContainingIgnoreCaseAndDeletedFalse(STAFF, "hang",
+                        PAGE));
+
+        SeekPosition monthAgo = new SeekPosition(Instant.now().minus(Duration.ofDays(30)), new UUID(-1L, -1L));
+        List<CustomerListFilter> filters = List.of(
+                new CustomerListFilter(DEALER, null, null, null),
+                new CustomerListFilter(DEALER, null, null, CustomerStatus.CONTACTED),
+                new CustomerListFilter(DEALER, STAFF, "hang", null),
+                new CustomerListFilter(null, null, "hang 12345", null),
+                new CustomerListFilter(null, null, null, CustomerStatus.CONTACTED));
+        for (CustomerListFilter filter : filters) {
+            assertIndexed("findPage " + filter, () -> customers.findPage(filter, null, 21));
+            assertIndexed("findPage after a month " + filter, () -> customers.findPage(filter, monthAgo, 21));
+            assertIndexed("count " + filter, () -> customers.count(filter));
+            assertIndexed("countUpTo " + filter, () -> customers.countUpTo(filter, 10_001));
+        }
+        CustomerListFilter everyone = new CustomerListFilter(null, null, null, null);
+        assertIndexed("findPage (all)", () -> customers.findPage(everyone, monthAgo, 21));
+        assertIndexedPage("count (all)", () -> customers.count(everyone));
+
+        assertNoFailures();
+    }
+
+    @Test
+    void leadFindersUseIndexes() {
+        SeekPosition monthAgo = new SeekPosition(Instant.now().minus(Duration.ofDays(30)), new UUID(-1L, -1L));
+
+        assertIndexed("findAllByDealerId", () -> leads.findAllByDealerId(DEALER, PAGE));
+        assertIndexed("findAllByDealerId (page 41)", () -> leads.findAllByDealerId(DEALER, DEEP_PAGE));
+        assertIndexed("findAllByStatus NEW", () -> leads.findAllByStatus(LeadStatus.NEW, PAGE));
+        // A quarter of all leads: counting them by scan costs about the same as by index
+        assertIndexedPage("findAllByStatus CONTACTED", () -> leads.findAllByStatus(LeadStatus.CONTACTED, PAGE));
+        assertIndexed("findByStatusAndCreatedAtBefore", () -> leads.findByStatusAndCreatedAtBefore(LeadStatus.NEW,
+                Instant.now().minus(Duration.ofDays(30))));
+        assertIndexedPage("findAll", () -> leads.findAll(PAGE));
+        assertIndexed("findPage", () -> leads.findPage(DEALER, null, 21));
+        assertIndexed("findPage after a month", () -> leads.findPage(DEALER, monthAgo, 21));
+        assertIndexed("findPage (all) after a month", () -> leads.findPage(null, monthAgo, 21));
+        assertIndexed("count", () -> leads.count(DEALER));
+        assertIndexed("countUpTo", () -> leads.countUpTo(DEALER, 10_001));
+
+        assertNoFailures();
+    }
+
+    @Test
+    void trigramSearchRanksAndUsesIndexes() {
+        CustomerSearch search = new CustomerSearch(entityManager, new TrigramCustomerTextSearch(entityManager),
+                mock(CustomerTypeahead.class));
+
+        // Whole-text prefix, then word prefix, then the typo-tolerant match on "nguyet"
+        assertFound(List.of("Nguyễn Văn Đức", "Trần Nguyên Khang", "Đặng Thị Nguyệt"), 3,
+                searched("trigram", search, DEALER_SCOPE, "nguyễn"));
+        assertFound(List.of("Nguyễn Văn Đức"), 1, searched("trigram", search, DEALER_SCOPE, "Nguyen Van Duk"));
+        assertFound(List.of("Nguyễn Văn Đức"), 1, searched("trigram", search, EVERYONE, "Nguyen Van Duk"));
+        // Two letters: substring only, so every customer of the dealer (their emails hold "le")
+        assertFound(List.of("Lê Thị Hoa"), dealerCustomers(), searched("trigram", search, DEALER_SCOPE, "Lê"));
+        assertFound(List.of("Khach Hang 107", "Khach Hang 157"), 2,
+                searched("trigram", search, DEALER_SCOPE, "+84 90 000 01"));
+        // The literal match ranks first; the decoys only come in through word similarity
+        assertEquals("Đại Lý 100% Điện", first(searched("trigram", search, DEALER_SCOPE, "100%")));
+        assertFound(List.of("Xe Tải Miền Nam", "Xe Tải Miền Bắc"), 2,
+                searched("trigram", search, DEALER_SCOPE, "xe_tai"));
+
+        assertNoFailures();
+    }
+
+    @Test
+    void likeSearchRanksAndUsesIndexes() {
+        CustomerSearch search = new CustomerSearch(entityManager, new LikeCustomerTextSearch(entityManager),
+                mock(CustomerTypeahead.class));
+
+        assertFound(List.of("Nguyễn Văn Đức", "Trần Nguyên Khang"), 2,
+                searched("like", search, DEALER_SCOPE, "nguyễn"));
+        assertFound(List.of(), 0, searched("like", search, DEALER_SCOPE, "Nguyen Van Duk"));
+        assertFound(List.of("Lê Thị Hoa"), dealerCustomers(), searched("like", search, DEALER_SCOPE, "Lê"));
+        assertFound(List.of("Khach Hang 107", "Khach Hang 157"), 2,
+                searched("like", search, DEALER_SCOPE, "+84 90 000 01"));
+        assertFound(List.of("Đại Lý 100% Điện"), 1, searched("like", search, DEALER_SCOPE, "100%"));
+        assertFound(List.of("Xe Tải Miền Nam"), 1, searched("like", search, DEALER_SCOPE, "xe_tai"));
+
+        assertNoFailures();
+    }
+
+    // First page of five and the total, with the plans of both checked
+    private CustomerSearch.Result searched(String engine, CustomerSearch search, CustomerSearchScope scope,
+            String query) {
+        List<CustomerSearch.Result> results = new ArrayList<>();
+        assertIndexed(engine + " search '" + query + "' in " + scope,
+                () -> results.add(search.find(scope, query, 0, 5, true)));
+        return results.get(0);
+    }
+
+    // Compares only as many leading names as expected, since the rest of the page is seed rows
+    private static void assertFound(List<String> leading, long total, CustomerSearch.Result result) {
+        List<String> names = result.customers().stream().map(CustomerListItem::fullName).toList();
+        assertEquals(leading, names.subList(0, Math.min(leading.size(), names.size())), () -> "found " + names);
+        assertEquals(total, result.total(), () -> "found " + names);
+    }
+
+    private static String first(CustomerSearch.Result result) {
+        return result.customers().isEmpty() ? null : result.customers().get(0).fullName();
+    }
+
+    private long dealerCustomers() {
+        return jdbc.queryForObject("select count(*) from customers where dealer_id = ? and deleted = false",
+                Long.class, DEALER);
+    }
+
+    // Every statement the call runs must avoid sequential scans of customers and leads
+    private void assertIndexed(String name, Runnable call) {
+        check(name, call, false);
+    }
+
+    // As above, except a COUNT over the whole table or a large share of it, which an index
+    // cannot narrow down
+    private void assertIndexedPage(String name, Runnable call) {
+        check(name, call, true);
+    }
+
+    private void check(String name, Runnable call, boolean wholeTableCount) {
+        String plans = plansOf(call);
+        String[] statements = plans.split("Query Text:");
+        if (statements.length < 2) {
+            failures.add(name + ": no plan was logged");
+            return;
+        }
+        for (int i = 1; i < statements.length; i++) {
+            String statement = statements[i];
+            boolean seqScan = statement.contains("Seq Scan on customers") || statement.contains("Seq Scan on leads");
+            if (seqScan && !(wholeTableCount && statement.toLowerCase().contains("count("))) {
+                failures.add(name + ": sequential scan\n" + statement.strip());
+            }
+        }
+    }
+
+    private void assertNoFailures() {
+        assertTrue(failures.isEmpty(), () -> failures.size() + " queries scan a whole table:\n\n"
+                + String.join("\n\n", failures));
+    }
+
+    // Log written between the previous marker and the one after this call
+    private String plansOf(Runnable call) {
+        call.run();
+        String marker = "'plan-marker-" + ++markers + "'";
+        jdbc.queryForObject("select " + marker, String.class);
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (true) {
+            String log = readLog();
+            int markerAt = log.indexOf(marker, logOffset);
+            if (markerAt >= 0) {
+                // Up to the marker statement's own "Query Text:"
+                int end = Math.max(log.lastIndexOf("Query Text:", markerAt), logOffset);
+                String plans = log.substring(logOffset, end);
+                logOffset = markerAt + marker.length();
+                return plans;
+            }
+            if (System.nanoTime() > deadline) {
+                fail("auto_explain output did not reach " + serverLog);
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private static String readLog() {
+        try {
+            return Files.exists(serverLog) ? Files.readString(serverLog, StandardCharsets.ISO_8859_1) : "";
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
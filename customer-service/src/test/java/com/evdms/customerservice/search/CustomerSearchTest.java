@@ -0,0 +1,126 @@
+package com.evdms.customerservice.search;
+
+import com.evdms.customerservice.config.CustomerSearchConfig;
+import com.evdms.customerservice.dto.CustomerListItem;
+import com.evdms.customerservice.dto.CustomerSuggestion;
+import com.evdms.customerservice.entity.Customer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "customer.search.engine=like",
+        "customer.typeahead.enabled=false"
+})
+@Import({ CustomerSearchConfig.class, CustomerSearch.class, SimpleMeterRegistry.class })
+class CustomerSearchTest {
+
+    private static final UUID DEALER = UUID.randomUUID();
+    private static final UUID OTHER_DEALER = UUID.randomUUID();
+    private static final CustomerSearchScope DEALER_SCOPE = new CustomerSearchScope(DEALER, null);
+
+    @Autowired
+    private CustomerSearch search;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @MockBean
+    private CustomerTypeahead typeahead;
+
+    @Test
+    void normalizesVietnameseNamesAndPhones() {
+        assertEquals("nguyen van duc", SearchText.normalize("  Nguyễn   Văn ĐỨC "));
+        assertEquals("0901234567", SearchText.phoneDigits("+84 90 123 4567"));
+        assertEquals("0901234567", SearchText.phoneDigits("090.123.4567"));
+        assertTrue(SearchText.isPhoneQuery("090 12"));
+        assertFalse(SearchText.isPhoneQuery("an 2"));
+    }
+
+    @Test
+    void matchesWithoutDiacriticsAndRanksPrefixFirst() {
+        save(DEALER, "Trần Thị An", "0901111111", null);
+        save(DEALER, "Nguyễn Văn Đức", "0902222222", "duc@example.vn");
+        save(DEALER, "Đức Anh Phạm", "0903333333", null);
+        save(OTHER_DEALER, "Lê Đức", "0904444444", null);
+
+        List<String> names = names(search.search(DEALER_SCOPE, "duc", PageRequest.of(0, 10)));
+
+        assertEquals(List.of("Đức Anh Phạm", "Nguyễn Văn Đức"), names);
+        assertEquals(List.of("Nguyễn Văn Đức"),
+                names(search.search(DEALER_SCOPE, "DUC@EXAMPLE", PageRequest.of(0, 10))));
+    }
+
+    @Test
+    void phoneQueriesMatchByPrefixOnly() {
+        save(DEALER, "Phạm Minh", "0905555555", null);
+        save(DEALER, "Võ Hà", "0915550905", null);
+
+        Page<CustomerListItem> page = search.search(DEALER_SCOPE, "+84 905", PageRequest.of(0, 10));
+
+        assertEquals(List.of("Phạm Minh"), names(page));
+        assertEquals(1, page.getTotalElements());
+    }
+
+    @Test
+    void skipsDeletedCustomersAndTreatsWildcardsLiterally() {
+        Customer gone = save(DEALER, "Hoàng Long", "0906666666", null);
+        gone.setDeleted(true);
+        em.flush();
+
+        assertTrue(search.search(DEALER_SCOPE, "long", PageRequest.of(0, 10)).isEmpty());
+        assertTrue(search.search(DEALER_SCOPE, "%", PageRequest.of(0, 10)).isEmpty());
+        assertTrue(search.search(DEALER_SCOPE, " ", PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    void searchComesFromSqlEvenWhenTheTypeaheadIndexIsStale() {
+        Customer moved = save(OTHER_DEALER, "Vũ Long", "0907777777", null);
+        Customer deleted = save(DEALER, "Vũ Lan", "0908888888", null);
+        deleted.setDeleted(true);
+        em.flush();
+        // Index built before the move and the delete, e.g. both made on another instance
+        List<CustomerSuggestion> stale = List.of(
+                new CustomerSuggestion(moved.getId(), DEALER, null, "Vũ Long", "0907777777", null),
+                new CustomerSuggestion(deleted.getId(), DEALER, null, "Vũ Lan", "0908888888", null));
+        when(typeahead.isReady()).thenReturn(true);
+        when(typeahead.search(any(), anyString(), anyInt(), anyInt())).thenReturn(new TypeaheadIndex.Result(stale, 2));
+
+        Page<CustomerListItem> page = search.search(DEALER_SCOPE, "vu", PageRequest.of(0, 10));
+
+        assertTrue(page.isEmpty());
+        assertEquals(0, page.getTotalElements());
+    }
+
+    private Customer save(UUID dealerId, String fullName, String phone, String email) {
+        Customer customer = new Customer();
+        customer.setDealerId(dealerId);
+        customer.setFullName(fullName);
+        customer.setPhone(phone);
+        customer.setEmail(email);
+        return em.persistAndFlush(customer);
+    }
+
+    private static List<String> names(Page<CustomerListItem> page) {
+        return page.getContent().stream().map(CustomerListItem::fullName).toList();
+    }
+}
@@ -0,0 +1,96 @@
+package com.evdms.customerservice.search;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Runs the phone backfill in migrate-customers-search.sql on PostgreSQL and checks that every
+ * row gets the {@code phone_digits} value {@link SearchText#phoneDigits} gives the service, so
+ * migrated customers are found by the same phone queries as new ones.
+ */
+class PhoneDigitsBackfillTest {
+
+    private static final List<String> PHONES = List.of(
+            "0901234567",
+            "090 123 4567",
+            "(028) 3823 4567",
+            "+84 90 123 4567",
+            "+84-90-123-4567",
+            "84901234567",
+            "8490123456",
+            "0084901234567",
+            "0084 90 123",
+            "+0084 90 123",
+            "+84 123",
+            "+8412",
+            "  +84-12",
+            "\t+8412",
+            "84",
+            "+84",
+            "0084",
+            "",
+            "   ",
+            "٠٩٠١ 2345",
+            "０９０１２３４５６７",
+            "n/a");
+
+    private static EmbeddedPostgres postgres;
+    private static JdbcTemplate jdbc;
+
+    @BeforeAll
+    static void migrate() throws Exception {
+        postgres = EmbeddedPostgres.builder().start();
+        jdbc = new JdbcTemplate(postgres.getPostgresDatabase());
+        jdbc.execute("""
+                CREATE TABLE customers (
+                    id INT PRIMARY KEY,
+                    full_name VARCHAR(255) NOT NULL,
+                    email VARCHAR(255),
+                    phone VARCHAR(20),
+                    deleted BOOLEAN NOT NULL DEFAULT false)
+                """);
+        for (int i = 0; i < PHONES.size(); i++) {
+            jdbc.update("INSERT INTO customers (id, full_name, phone) VALUES (?, ?, ?)", i, "Khach Hang " + i,
+                    PHONES.get(i));
+        }
+        jdbc.update("INSERT INTO customers (id, full_name, phone) VALUES (?, ?, NULL)", PHONES.size(), "No Phone");
+        try (Connection connection = postgres.getPostgresDatabase().getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new FileSystemResource("migrate-customers-search.sql"));
+        }
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @Test
+    void backfillMatchesTheServiceNormalization() {
+        Map<String, String> expected = new LinkedHashMap<>();
+        Map<String, String> actual = new LinkedHashMap<>();
+        for (int i = 0; i < PHONES.size(); i++) {
+            expected.put(PHONES.get(i), SearchText.phoneDigits(PHONES.get(i)));
+            actual.put(PHONES.get(i), jdbc.queryForObject(
+                    "SELECT phone_digits FROM customers WHERE id = ?", String.class, i));
+        }
+        assertEquals(expected, actual);
+        assertNull(jdbc.queryForObject(
+                "SELECT phone_digits FROM customers WHERE id = ?", String.class, PHONES.size()));
+    }
+}
@@ -0,0 +1,89 @@
+package com.evdms.customerservice.search;
+
+import com.evdms.customerservice.dto.CustomerSuggestion;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TypeaheadIndexTest {
+
+    private static final UUID DEALER = UUID.randomUUID();
+    private static final UUID OTHER_DEALER = UUID.randomUUID();
+    private static final UUID STAFF = UUID.randomUUID();
+
+    private final TypeaheadIndex index = new TypeaheadIndex();
+
+    @Test
+    void prefixAndSubstringMatchesRankLikeSql() {
+        put(DEALER, null, "Trần Thị An", "0901111111", null);
+        put(DEALER, null, "Nguyễn Văn Đức", "0902222222", "duc@example.vn");
+        put(DEALER, null, "Đức Anh Phạm", "0903333333", null);
+        put(OTHER_DEALER, null, "Lê Đức", "0904444444", null);
+
+        assertEquals(List.of("Đức Anh Phạm", "Nguyễn Văn Đức"), names(DEALER, null, "duc"));
+        assertEquals(3, index.search(null, null, "đức", 0, 10).total());
+        // Two characters: word prefixes only
+        assertEquals(List.of("Đức Anh Phạm", "Trần Thị An"), names(DEALER, null, "an"));
+        // Three or more: any substring
+        assertEquals(List.of("Nguyễn Văn Đức"), names(DEALER, null, "uyen"));
+        assertEquals(List.of("Nguyễn Văn Đức"), names(DEALER, null, "example.vn"));
+    }
+
+    @Test
+    void phoneQueriesMatchDigitsByPrefix() {
+        put(DEALER, null, "Phạm Minh", "0905555555", null);
+        put(DEALER, null, "Võ Hà", "0915550905", null);
+
+        assertEquals(List.of("Phạm Minh"), names(DEALER, null, "+84 905"));
+        assertEquals(List.of("Phạm Minh", "Võ Hà"), names(DEALER, null, "09"));
+        assertTrue(names(DEALER, null, "5550").isEmpty());
+    }
+
+    @Test
+    void scopesToAssignedStaffAndFollowsUpdatesAndDeletes() {
+        CustomerSuggestion mine = put(DEALER, STAFF, "Hoàng Long", "0906666666", null);
+        put(DEALER, UUID.randomUUID(), "Hoàng Lan", "0907777777", null);
+
+        assertEquals(List.of("Hoàng Long"), names(DEALER, STAFF, "hoang"));
+
+        index.put(new CustomerSuggestion(mine.id(), OTHER_DEALER, STAFF, "Hoàng Long Vũ", mine.phone(), null));
+        assertEquals(List.of("Hoàng Lan"), names(DEALER, null, "hoang"));
+        assertEquals(List.of("Hoàng Long Vũ"), names(OTHER_DEALER, STAFF, "long v"));
+
+        index.remove(mine.id());
+        assertTrue(names(OTHER_DEALER, null, "hoang").isEmpty());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void pagesAndCountsAcrossCompaction() {
+        for (int i = 0; i < 300; i++) {
+            CustomerSuggestion c = put(DEALER, null, "Khách " + i, String.format("09%08d", i), null);
+            if (i % 2 == 0) {
+                index.remove(c.id());
+            }
+        }
+
+        TypeaheadIndex.Result second = index.search(DEALER, null, "khach", 10, 10);
+
+        assertEquals(150, second.total());
+        assertEquals(10, second.suggestions().size());
+        assertTrue(index.estimatedBytes() > 0);
+    }
+
+    private CustomerSuggestion put(UUID dealerId, UUID staffId, String name, String phone, String email) {
+        CustomerSuggestion c = new CustomerSuggestion(UUID.randomUUID(), dealerId, staffId, name, phone, email);
+        index.put(c);
+        return c;
+    }
+
+    private List<String> names(UUID dealerId, UUID staffId, String query) {
+        return index.search(dealerId, staffId, query, 0, 10).suggestions().stream()
+                .map(CustomerSuggestion::fullName)
+                .toList();
+    }
+}
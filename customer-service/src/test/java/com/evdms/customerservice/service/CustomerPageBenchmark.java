@@ -0,0 +1,184 @@
+package com.evdms.customerservice.service;
+
+import com.evdms.customerservice.CustomerServiceApplication;
+import com.evdms.customerservice.dto.CustomerListItem;
+import com.evdms.customerservice.entity.Customer;
+import com.evdms.customerservice.entity.enums.CustomerType;
+import com.evdms.customerservice.entity.enums.Gender;
+import com.evdms.customerservice.entity.enums.Source;
+import com.evdms.customerservice.repository.CustomerRepository;
+import com.evdms.customerservice.repository.SeekPosition;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One customer grid page as the list endpoint serves it: the former path (managed
+ * {@link Customer} entities in a read-write transaction, serialized whole) against
+ * {@link CustomerService#list} ({@link CustomerListItem} projections, read-only transaction).
+ * The {@code serialize*} benchmarks time the JSON writing alone. Boots the service on the h2
+ * profile with {@value #CUSTOMERS} customers of one dealer. Not run by the test suite; after
+ * {@code mvn test-compile}, with the GC profiler for heap per page ({@code gc.alloc.rate.norm}):
+ *
+ * <pre>
+ * mvn -q dependency:build-classpath -Dmdep.outputFile=cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat cp.txt) org.openjdk.jmh.Main CustomerPageBenchmark -prof gc
+ * </pre>
+ *
+ * Measured on JDK 21, one CPU (JMH defaults here: 3 warmup and 5 measured iterations of 2 s):
+ *
+ * <pre>
+ * Benchmark                     time/op     heap/op
+ * entityPageAndSerialize        -           196 KiB
+ * projectionPageAndSerialize    -           143 KiB
+ * serializeEntityPage            225 us     126 KiB
+ * serializeProjectionPage        102 us      59 KiB
+ * </pre>
+ *
+ * No time is given for the {@code *PageAndSerialize} rows: on that host their error was larger
+ * than their mean, so the runs do not tell the two paths apart. Comparing them needs more forks
+ * and iterations on a multi-core host; heap per page is stable and stands as measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CustomerPageBenchmark {
+
+    static final int CUSTOMERS = 20_000;
+    private static final int PAGE_SIZE = 50;
+    private static final UUID DEALER = UUID.randomUUID();
+
+    private ConfigurableApplicationContext context;
+    private CustomerService service;
+    private EntityManager entityManager;
+    private TransactionTemplate readWrite;
+    private ObjectMapper mapper;
+
+    private Page<Customer> entities;
+    private Page<CustomerListItem> items;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(CustomerServiceApplication.class)
+                .profiles("h2")
+                .properties("server.port=0", "spring.main.banner-mode=off", "customer.typeahead.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+        service = context.getBean(CustomerService.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(
+                context.getBean(EntityManagerFactory.class));
+        readWrite = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        mapper = context.getBean(ObjectMapper.class);
+
+        CustomerRepository customers = context.getBean(CustomerRepository.class);
+        List<Customer> batch = new ArrayList<>();
+        for (int i = 0; i < CUSTOMERS; i++) {
+            batch.add(customer(i));
+            if (batch.size() == 1000) {
+                customers.saveAll(batch);
+                batch.clear();
+            }
+        }
+
+        entities = entityPage();
+        items = projectionPage();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] entityPageAndSerialize() throws Exception {
+        return mapper.writeValueAsBytes(entityPage());
+    }
+
+    @Benchmark
+    public byte[] projectionPageAndSerialize() throws Exception {
+        return mapper.writeValueAsBytes(projectionPage());
+    }
+
+    @Benchmark
+    public byte[] serializeEntityPage() throws Exception {
+        return mapper.writeValueAsBytes(entities);
+    }
+
+    @Benchmark
+    public byte[] serializeProjectionPage() throws Exception {
+        return mapper.writeValueAsBytes(items);
+    }
+
+    // The list query as it was before projections: whole entities plus the page count
+    private Page<Customer> entityPage() {
+        PageRequest pageable = PageRequest.of(1, PAGE_SIZE, SeekPosition.NEWEST_FIRST);
+        return readWrite.execute(status -> {
+            List<Customer> content = entityManager.createQuery(
+                    "select c from Customer c where c.dealerId = :dealerId and c.deleted = false"
+                            + " order by c.createdAt desc, c.id desc", Customer.class)
+                    .setParameter("dealerId", DEALER)
+                    .setFirstResult((int) pageable.getOffset())
+                    .setMaxResults(PAGE_SIZE)
+                    .getResultList();
+            long total = entityManager.createQuery(
+                    "select count(c) from Customer c where c.dealerId = :dealerId and c.deleted = false", Long.class)
+                    .setParameter("dealerId", DEALER)
+                    .getSingleResult();
+            return new PageImpl<>(content, pageable, total);
+        });
+    }
+
+    private Page<CustomerListItem> projectionPage() {
+        return service.list(DEALER, null, 1, PAGE_SIZE, Optional.empty(), Optional.empty());
+    }
+
+    private static Customer customer(int i) {
+        Customer c = Customer.builder()
+                .dealerId(DEALER)
+                .phone(String.format("09%08d", i))
+                .email("khach" + i + "@example.vn")
+                .identityNumber(String.format("0792%08d", i))
+                .dateOfBirth(LocalDate.of(1970 + i % 35, 1 + i % 12, 1 + i % 28))
+                .gender(i % 2 == 0 ? Gender.MALE : Gender.FEMALE)
+                .address(i + " Nguyễn Huệ, Phường Bến Nghé")
+                .city("Hồ Chí Minh")
+                .district("Quận 1")
+                .ward("Bến Nghé")
+                .customerType(CustomerType.INDIVIDUAL)
+                .source(Source.WALK_IN)
+                .tags("vip,ev-interest")
+                .build();
+        c.setFullName("Nguyễn Văn Khách " + i);
+        return c;
+    }
+}
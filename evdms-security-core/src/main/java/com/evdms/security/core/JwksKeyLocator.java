@@ -0,0 +1,180 @@
+package com.evdms.security.core;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.JwkSet;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.PublicJwk;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.Key;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resolves a token's verification key by its {@code kid} from a JWKS document published by
+ * auth-service.
+ * <p>
+ * Keys are held in an immutable map behind a volatile field, so lookups never lock and never
+ * wait on the network. A single daemon thread reloads the document every
+ * {@code refreshInterval}; a failed reload keeps the previous keys. A token signed with a
+ * {@code kid} not yet known is rejected immediately and schedules an early reload (at most one
+ * per {@code minRefreshInterval}), so a freshly rotated key is picked up within a round trip
+ * without stalling the request that noticed it.
+ * <p>
+ * Only public keys are accepted; symmetric or private entries in the document are ignored.
+ * <p>
+ * Metrics: {@code jwt.jwks.keys}, {@code jwt.jwks.refreshes{result=success|failure}} and
+ * {@code jwt.jwks.age} (seconds since the last successful reload).
+ */
+public class JwksKeyLocator extends LocatorAdapter<Key> implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwksKeyLocator.class);
+
+    private final URI uri;
+    private final Duration refreshInterval;
+    private final long minRefreshIntervalMillis;
+    private final Duration timeout;
+    private final HttpClient client;
+    private final ScheduledExecutorService scheduler;
+
+    private volatile Map<String, PublicKey> keys = Map.of();
+    private volatile long loadedAtMillis;
+    private final AtomicLong lastRefreshMillis = new AtomicLong(Long.MIN_VALUE / 2);
+    private final AtomicLong successes = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    public JwksKeyLocator(URI uri, Duration refreshInterval, Duration minRefreshInterval, Duration timeout) {
+        this.uri = uri;
+        this.refreshInterval = refreshInterval;
+        this.minRefreshIntervalMillis = minRefreshInterval.toMillis();
+        this.timeout = timeout;
+        this.client = HttpClient.newBuilder().connectTimeout(timeout).build();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "jwks-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Loads the key set once on the calling thread, then keeps it fresh in the background.
+     * Startup does not fail if auth-service is unreachable: tokens are rejected until the
+     * first successful reload.
+     */
+    public void start() {
+        if (!refresh()) {
+            logger.warn("JWKS not available yet from {}; retrying in the background", uri);
+        }
+        long periodMillis = refreshInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::refresh, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected Key locate(JwsHeader header) {
+        String kid = header.getKeyId();
+        if (kid == null) {
+            throw new UnsupportedJwtException("Token has no key id");
+        }
+        PublicKey key = keys.get(kid);
+        if (key == null) {
+            requestRefresh();
+            throw new UnsupportedJwtException("Unknown signing key id: " + kid);
+        }
+        return key;
+    }
+
+    /** Reloads the key set now. Returns false, keeping the current keys, if the reload failed. */
+    public boolean refresh() {
+        lastRefreshMillis.set(System.currentTimeMillis());
+        try {
+            HttpResponse<String> response = client.send(
+                    HttpRequest.newBuilder(uri).timeout(timeout).header("Accept", "application/json").GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("HTTP " + response.statusCode());
+            }
+            Map<String, PublicKey> loaded = parse(response.body());
+            if (loaded.isEmpty()) {
+                throw new IllegalStateException("no usable public keys");
+            }
+            if (!loaded.keySet().equals(keys.keySet())) {
+                logger.info("Loaded JWKS from {}: key ids {}", uri, loaded.keySet());
+            }
+            keys = loaded;
+            loadedAtMillis = System.currentTimeMillis();
+            successes.incrementAndGet();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failures.incrementAndGet();
+            return false;
+        } catch (Exception e) {
+            failures.incrementAndGet();
+            logger.warn("JWKS refresh from {} failed, keeping {} known keys: {}", uri, keys.size(), e.toString());
+            return false;
+        }
+    }
+
+    /** Key ids currently accepted. */
+    public Map<String, PublicKey> keys() {
+        return keys;
+    }
+
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("jwt.jwks.keys", this, l -> l.keys.size())
+                .description("Verification keys currently known")
+                .register(registry);
+        FunctionCounter.builder("jwt.jwks.refreshes", successes, AtomicLong::get)
+                .tag("result", "success")
+                .register(registry);
+        FunctionCounter.builder("jwt.jwks.refreshes", failures, AtomicLong::get)
+                .tag("result", "failure")
+                .register(registry);
+        Gauge.builder("jwt.jwks.age", this,
+                l -> l.loadedAtMillis == 0 ? Double.NaN : (System.currentTimeMillis() - l.loadedAtMillis) / 1000.0)
+                .description("Seconds since the key set was last reloaded")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    // At most one early reload per window, whatever the number of requests carrying the new kid
+    private void requestRefresh() {
+        long now = System.currentTimeMillis();
+        long last = lastRefreshMillis.get();
+        if (now - last >= minRefreshIntervalMillis && lastRefreshMillis.compareAndSet(last, now)) {
+            scheduler.execute(this::refresh);
+        }
+    }
+
+    static Map<String, PublicKey> parse(String json) {
+        JwkSet set = Jwks.setParser().build().parse(json);
+        Map<String, PublicKey> loaded = new HashMap<>();
+        set.getKeys().forEach(jwk -> {
+            if (jwk instanceof PublicJwk<?> publicJwk && jwk.getId() != null) {
+                loaded.put(jwk.getId(), publicJwk.toKey());
+            }
+        });
+        return Map.copyOf(loaded);
+    }
+}
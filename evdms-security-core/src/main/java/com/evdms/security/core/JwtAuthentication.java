@@ -0,0 +1,99 @@
+package com.evdms.security.core;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/** Authentication built from a {@link VerifiedToken}; the principal and name are the user's e-mail. */
+public class JwtAuthentication implements Authentication {
+
+    private final VerifiedToken token;
+    private final TenantScope scope;
+    private final Collection<? extends GrantedAuthority> authorities;
+    private boolean authenticated = true;
+
+    public JwtAuthentication(VerifiedToken token, Collection<? extends GrantedAuthority> authorities) {
+        this(token, TenantScope.of(token), authorities);
+    }
+
+    public JwtAuthentication(VerifiedToken token, TenantScope scope,
+            Collection<? extends GrantedAuthority> authorities) {
+        this.token = token;
+        this.scope = scope;
+        this.authorities = authorities;
+    }
+
+    public VerifiedToken getToken() {
+        return token;
+    }
+
+    public TenantScope getScope() {
+        return scope;
+    }
+
+    public String getEmail() {
+        return token.subject();
+    }
+
+    public UUID getUserId() {
+        return token.userId();
+    }
+
+    public UUID getDealerId() {
+        return token.dealerId();
+    }
+
+    public long getPermissions() {
+        return token.permissions();
+    }
+
+    public boolean hasPermission(Permission permission) {
+        return token.hasPermission(permission);
+    }
+
+    public String getRole() {
+        return token.role() != null ? token.role() : "";
+    }
+
+    /** Compares against the token's roles, independent of any authority prefix. */
+    public boolean hasRole(String roleName) {
+        return token.roles().contains(roleName);
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public Object getCredentials() {
+        return null;
+    }
+
+    @Override
+    public Object getDetails() {
+        return null;
+    }
+
+    @Override
+    public Object getPrincipal() {
+        return token.subject();
+    }
+
+    @Override
+    public boolean isAuthenticated() {
+        return authenticated;
+    }
+
+    @Override
+    public void setAuthenticated(boolean isAuthenticated) throws IllegalArgumentException {
+        this.authenticated = isAuthenticated;
+    }
+
+    @Override
+    public String getName() {
+        return token.subject();
+    }
+}
@@ -0,0 +1,78 @@
+package com.evdms.security.core;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Authenticates {@code Authorization: Bearer} requests with {@link JwtVerifier} and the
+ * service's {@link TokenRevocationCheck}, and stores the caller's {@link TenantScope} as the
+ * {@link TenantScope#ATTRIBUTE} request attribute. Requests without a usable token continue
+ * unauthenticated; the security rules decide whether that is allowed.
+ */
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+
+    private final JwtVerifier verifier;
+    private final TokenRevocationCheck revocationCheck;
+    private final String authorityPrefix;
+    // Role sets are few; share their authority lists instead of building one per request
+    private final Map<List<String>, List<GrantedAuthority>> authorities = new ConcurrentHashMap<>();
+
+    public JwtAuthenticationFilter(JwtVerifier verifier, TokenRevocationCheck revocationCheck,
+            String authorityPrefix) {
+        this.verifier = verifier;
+        this.revocationCheck = revocationCheck;
+        this.authorityPrefix = authorityPrefix != null ? authorityPrefix : "";
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            String token = authHeader.substring(7);
+            VerifiedToken verified = verifier.verify(token).orElse(null);
+            if (verified == null) {
+                logger.debug("Invalid or expired token for: {}", request.getRequestURI());
+            } else if (verified.subject() == null || verified.subject().isBlank()) {
+                logger.debug("Token without subject for: {}", request.getRequestURI());
+            } else if (revocationCheck.isRevoked(token)) {
+                logger.debug("Revoked token for: {}", request.getRequestURI());
+            } else {
+                TenantScope scope = TenantScope.of(verified);
+                request.setAttribute(TenantScope.ATTRIBUTE, scope);
+                SecurityContextHolder.getContext()
+                        .setAuthentication(new JwtAuthentication(verified, scope, authoritiesFor(verified.roles())));
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private List<GrantedAuthority> authoritiesFor(List<String> roles) {
+        List<GrantedAuthority> cached = authorities.get(roles);
+        if (cached != null) {
+            return cached;
+        }
+        List<GrantedAuthority> built = roles.stream()
+                .<GrantedAuthority>map(role -> new SimpleGrantedAuthority(authorityPrefix + role))
+                .toList();
+        // Bounded in practice by the number of distinct role combinations issued
+        authorities.putIfAbsent(roles, built);
+        return built;
+    }
+}
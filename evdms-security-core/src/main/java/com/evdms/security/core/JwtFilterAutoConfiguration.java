@@ -0,0 +1,43 @@
+package com.evdms.security.core;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.security.web.SecurityFilterChain;
+
+/**
+ * In servlet applications using Spring Security, provides a {@link JwtAuthenticationFilter} for
+ * the service's {@link SecurityFilterChain} around whichever {@link JwtVerifier} is present,
+ * auto-configured or the service's own. A {@link TokenRevocationCheck} bean, if present, is
+ * consulted by the filter.
+ */
+@AutoConfiguration(after = SecurityCoreAutoConfiguration.class)
+@EnableConfigurationProperties(JwtProperties.class)
+@ConditionalOnClass(SecurityFilterChain.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnBean(JwtVerifier.class)
+public class JwtFilterAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    JwtAuthenticationFilter jwtAuthenticationFilter(JwtVerifier verifier,
+            ObjectProvider<TokenRevocationCheck> revocationCheck, JwtProperties properties) {
+        return new JwtAuthenticationFilter(verifier, revocationCheck.getIfAvailable(() -> TokenRevocationCheck.NONE),
+                properties.getAuthorityPrefix());
+    }
+
+    // Runs inside the security filter chain only, not a second time as a plain servlet filter
+    @Bean
+    FilterRegistrationBean<JwtAuthenticationFilter> jwtAuthenticationFilterRegistration(
+            JwtAuthenticationFilter filter) {
+        FilterRegistrationBean<JwtAuthenticationFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+}
@@ -0,0 +1,40 @@
+package com.evdms.security.core;
+
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/** Derives the HMAC signing key from {@code security.jwt.secret} the same way in every service. */
+public final class JwtKeys {
+
+    private JwtKeys() {
+    }
+
+    /**
+     * Accepts either a base64-encoded secret or a plain-text secret. For plain text, derives a
+     * 256-bit key using SHA-256 to satisfy HS256 requirements.
+     */
+    public static SecretKey hmacKey(String secret) {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalArgumentException("security.jwt.secret must be set");
+        }
+        byte[] keyBytes;
+        try {
+            keyBytes = Decoders.BASE64.decode(secret);
+        } catch (RuntimeException ignored) {
+            keyBytes = null;
+        }
+        if (keyBytes == null || keyBytes.length == 0) {
+            try {
+                keyBytes = MessageDigest.getInstance("SHA-256").digest(secret.getBytes(StandardCharsets.UTF_8));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("Failed to initialize JWT key", e);
+            }
+        }
+        return Keys.hmacShaKeyFor(keyBytes);
+    }
+}
@@ -0,0 +1,114 @@
+package com.evdms.security.core;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/** {@code security.jwt.*} settings read by the shared verifier. Other keys under the prefix are ignored. */
+@ConfigurationProperties("security.jwt")
+public class JwtProperties {
+
+    /** HMAC secret shared with auth-service; base64 or plain text. Ignored when {@code jwks-uri} is set. */
+    private String secret;
+
+    /** auth-service key set, e.g. {@code http://auth-service:3001/.well-known/jwks.json}. */
+    private String jwksUri;
+
+    /** Prepended to each role to form its authority, e.g. {@code ROLE_} for {@code hasRole()} checks. */
+    private String authorityPrefix = "";
+
+    private final Cache cache = new Cache();
+
+    private final Jwks jwks = new Jwks();
+
+    public String getSecret() {
+        return secret;
+    }
+
+    public void setSecret(String secret) {
+        this.secret = secret;
+    }
+
+    public String getJwksUri() {
+        return jwksUri;
+    }
+
+    public void setJwksUri(String jwksUri) {
+        this.jwksUri = jwksUri;
+    }
+
+    public String getAuthorityPrefix() {
+        return authorityPrefix;
+    }
+
+    public void setAuthorityPrefix(String authorityPrefix) {
+        this.authorityPrefix = authorityPrefix;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Jwks getJwks() {
+        return jwks;
+    }
+
+    public static class Cache {
+
+        private boolean enabled = true;
+
+        private long maxSize = 10000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(long maxSize) {
+            this.maxSize = maxSize;
+        }
+    }
+
+    public static class Jwks {
+
+        /** Background reload period; bounds how long a newly published key can go unnoticed. */
+        private Duration refreshInterval = Duration.ofMinutes(5);
+
+        /** Minimum gap between early reloads triggered by an unknown key id. */
+        private Duration minRefreshInterval = Duration.ofSeconds(30);
+
+        /** Connect and read timeout for one reload. */
+        private Duration timeout = Duration.ofSeconds(2);
+
+        public Duration getRefreshInterval() {
+            return refreshInterval;
+        }
+
+        public void setRefreshInterval(Duration refreshInterval) {
+            this.refreshInterval = refreshInterval;
+        }
+
+        public Duration getMinRefreshInterval() {
+            return minRefreshInterval;
+        }
+
+        public void setMinRefreshInterval(Duration minRefreshInterval) {
+            this.minRefreshInterval = minRefreshInterval;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.evdms.security.core;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.Locator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifies access tokens locally: signature and expiry, with no network or database call.
+ * <p>
+ * Keys come either from a shared HMAC secret (legacy) or from a key {@link Locator} that
+ * picks the public key by the token's {@code kid}, such as {@link JwksKeyLocator}. The parser
+ * is built once (it is immutable and thread-safe). The same access token is
+ * replayed for its whole lifetime, so verified claims are cached under a SHA-256 digest of
+ * the token (the raw JWT is never kept) and expire exactly at the token's {@code exp}; a
+ * replay then costs one digest and one map lookup. Revocation is not decided here, see
+ * {@link TokenRevocationCheck}.
+ */
+public class JwtVerifier {
+
+    private final JwtParser parser;
+    private final Cache<String, VerifiedToken> cache;
+
+    public JwtVerifier(SecretKey key, boolean cacheEnabled, long cacheMaxSize) {
+        this(Jwts.parser().verifyWith(key).build(), cacheEnabled, cacheMaxSize);
+    }
+
+    public JwtVerifier(Locator<Key> keys, boolean cacheEnabled, long cacheMaxSize) {
+        this(Jwts.parser().keyLocator(keys).build(), cacheEnabled, cacheMaxSize);
+    }
+
+    private JwtVerifier(JwtParser parser, boolean cacheEnabled, long cacheMaxSize) {
+        this.parser = parser;
+        this.cache = cacheEnabled
+                ? Caffeine.newBuilder()
+                        .maximumSize(cacheMaxSize)
+                        .expireAfter(new TokenExpiry())
+                        .recordStats()
+                        .build()
+                : null;
+    }
+
+    /** Returns empty for any malformed, tampered or expired token. */
+    public Optional<VerifiedToken> verify(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+        long now = System.currentTimeMillis();
+        String digest = null;
+        if (cache != null) {
+            digest = digest(token);
+            VerifiedToken cached = cache.getIfPresent(digest);
+            if (cached != null) {
+                // Caffeine expiry is amortized; never hand out a token past its exp
+                return cached.isExpired(now) ? Optional.empty() : Optional.of(cached);
+            }
+        }
+        VerifiedToken verified;
+        try {
+            verified = VerifiedToken.of(parser.parseSignedClaims(token).getPayload());
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        // Only tokens with an exp claim are cached; entries never outlive the token
+        if (cache != null && verified.expiresAtMillis() != Long.MAX_VALUE) {
+            cache.put(digest, verified);
+        }
+        return Optional.of(verified);
+    }
+
+    public void invalidateAll() {
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    /** Exposes cache.gets{result=hit|miss}, cache.evictions and cache.size tagged {@code cache=jwt.verifier}. */
+    public void bindTo(MeterRegistry registry) {
+        if (cache != null) {
+            CaffeineCacheMetrics.monitor(registry, cache, "jwt.verifier");
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static class TokenExpiry implements Expiry<String, VerifiedToken> {
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            long remainingMillis = value.expiresAtMillis() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
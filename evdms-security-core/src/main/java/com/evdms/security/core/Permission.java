@@ -0,0 +1,65 @@
+package com.evdms.security.core;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Fine-grained permissions carried in the access token as one {@code long} bitmask
+ * ({@link TokenClaims#PERMISSIONS}).
+ * <p>
+ * Bit positions are part of the token format and shared by every service: never renumber or
+ * reuse a bit, only append new ones.
+ */
+public enum Permission {
+
+    CUSTOMER_READ(0),
+    CUSTOMER_WRITE(1),
+    CUSTOMER_DELETE(2),
+    LEAD_READ(3),
+    LEAD_WRITE(4),
+    LEAD_ASSIGN(5),
+    TEST_DRIVE_READ(6),
+    TEST_DRIVE_WRITE(7),
+    FEEDBACK_READ(8),
+    FEEDBACK_WRITE(9),
+    FEEDBACK_RESOLVE(10),
+    COMPLAINT_WRITE(11),
+    COMPLAINT_MANAGE(12),
+    SEGMENT_READ(13),
+    /** Not limited to the dealer in the token; may name any dealer explicitly. */
+    ALL_DEALERS(14),
+    USER_ADMIN(15);
+
+    private final long bit;
+
+    Permission(int index) {
+        this.bit = 1L << index;
+    }
+
+    public long bit() {
+        return bit;
+    }
+
+    public static long mask(Permission... permissions) {
+        long mask = 0;
+        for (Permission p : permissions) {
+            mask |= p.bit;
+        }
+        return mask;
+    }
+
+    public static long mask(Set<Permission> permissions) {
+        return mask(permissions.toArray(Permission[]::new));
+    }
+
+    /** Decodes a mask for logs and responses; unknown bits are dropped. */
+    public static Set<Permission> fromMask(long mask) {
+        Set<Permission> permissions = EnumSet.noneOf(Permission.class);
+        for (Permission p : values()) {
+            if ((mask & p.bit) != 0) {
+                permissions.add(p);
+            }
+        }
+        return permissions;
+    }
+}
@@ -0,0 +1,46 @@
+package com.evdms.security.core;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Registers {@link PermissionInterceptor} and {@link TenantScope} handler parameters for MVC
+ * handlers in services that verify tokens.
+ */
+@AutoConfiguration(after = JwtFilterAutoConfiguration.class)
+@ConditionalOnClass({ WebMvcConfigurer.class, SecurityContextHolder.class })
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnBean(JwtVerifier.class)
+public class PermissionAuthorizationAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    PermissionInterceptor permissionInterceptor() {
+        return new PermissionInterceptor();
+    }
+
+    @Bean
+    WebMvcConfigurer permissionInterceptorConfigurer(PermissionInterceptor interceptor) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(interceptor);
+            }
+
+            @Override
+            public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+                resolvers.add(new TenantScopeArgumentResolver());
+            }
+        };
+    }
+}
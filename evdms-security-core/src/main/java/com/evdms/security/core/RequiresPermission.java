@@ -0,0 +1,20 @@
+package com.evdms.security.core;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Requires every listed {@link Permission} in the caller's token. Checked by
+ * {@link PermissionInterceptor} before the handler runs; on a class it applies to handlers
+ * that do not declare their own. An empty list on a method opens it to any authenticated caller.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.METHOD, ElementType.TYPE })
+public @interface RequiresPermission {
+
+    Permission[] value();
+}
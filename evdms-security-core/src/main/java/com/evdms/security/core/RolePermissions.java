@@ -0,0 +1,40 @@
+package com.evdms.security.core;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Map;
+
+import static com.evdms.security.core.Permission.*;
+
+/**
+ * Role to permission mapping used by auth-service when it issues a token, and by verifiers for
+ * tokens that predate the {@link TokenClaims#PERMISSIONS} claim.
+ */
+public final class RolePermissions {
+
+    private static final long DEALER_STAFF_MASK = mask(CUSTOMER_READ, CUSTOMER_WRITE, LEAD_READ, LEAD_WRITE,
+            TEST_DRIVE_READ, TEST_DRIVE_WRITE, FEEDBACK_READ, FEEDBACK_WRITE, COMPLAINT_WRITE);
+
+    private static final Map<String, Long> MASKS = Map.of(
+            "ADMIN", mask(EnumSet.allOf(Permission.class)),
+            "DEALER_MANAGER", mask(EnumSet.complementOf(EnumSet.of(ALL_DEALERS, USER_ADMIN))),
+            "DEALER_STAFF", DEALER_STAFF_MASK,
+            // USER keeps the customer delete access it had under the former role checks
+            "USER", DEALER_STAFF_MASK | CUSTOMER_DELETE.bit(),
+            "EVM_STAFF", 0L);
+
+    private RolePermissions() {
+    }
+
+    public static long maskOf(String role) {
+        return role != null ? MASKS.getOrDefault(role, 0L) : 0L;
+    }
+
+    public static long maskOf(Collection<String> roles) {
+        long mask = 0;
+        for (String role : roles) {
+            mask |= maskOf(role);
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,65 @@
+package com.evdms.security.core;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.AnyNestedCondition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+
+import java.net.URI;
+
+/**
+ * Provides a {@link JwtVerifier} when {@code security.jwt.jwks-uri} or {@code security.jwt.secret}
+ * is set. With a JWKS URI the verifier accepts only tokens signed by a key published there
+ * (see {@link JwksKeyLocator}) and the shared secret is ignored. The servlet filter is configured
+ * by {@link JwtFilterAutoConfiguration}.
+ */
+@AutoConfiguration
+@EnableConfigurationProperties(JwtProperties.class)
+@Conditional(SecurityCoreAutoConfiguration.OnVerificationKeys.class)
+public class SecurityCoreAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "security.jwt", name = "jwks-uri")
+    public JwksKeyLocator jwksKeyLocator(JwtProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        JwtProperties.Jwks jwks = properties.getJwks();
+        JwksKeyLocator locator = new JwksKeyLocator(URI.create(properties.getJwksUri()), jwks.getRefreshInterval(),
+                jwks.getMinRefreshInterval(), jwks.getTimeout());
+        meterRegistry.ifAvailable(locator::bindTo);
+        locator.start();
+        return locator;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public JwtVerifier jwtVerifier(JwtProperties properties, ObjectProvider<JwksKeyLocator> jwksKeyLocator,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        JwksKeyLocator locator = jwksKeyLocator.getIfAvailable();
+        JwtVerifier verifier = locator != null
+                ? new JwtVerifier(locator, properties.getCache().isEnabled(), properties.getCache().getMaxSize())
+                : new JwtVerifier(JwtKeys.hmacKey(properties.getSecret()),
+                        properties.getCache().isEnabled(), properties.getCache().getMaxSize());
+        meterRegistry.ifAvailable(verifier::bindTo);
+        return verifier;
+    }
+
+    static class OnVerificationKeys extends AnyNestedCondition {
+
+        OnVerificationKeys() {
+            super(ConfigurationPhase.REGISTER_BEAN);
+        }
+
+        @ConditionalOnProperty(prefix = "security.jwt", name = "jwks-uri")
+        static class JwksUri {
+        }
+
+        @ConditionalOnProperty(prefix = "security.jwt", name = "secret")
+        static class Secret {
+        }
+    }
+}
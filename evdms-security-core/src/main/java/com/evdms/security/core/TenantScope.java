@@ -0,0 +1,52 @@
+package com.evdms.security.core;
+
+import java.util.UUID;
+
+/**
+ * Immutable per-request view of who is calling and which data they may see, built once by
+ * {@link JwtAuthenticationFilter} from the verified token.
+ * <p>
+ * It travels as a request attribute and is handed to controllers as a method parameter
+ * ({@link TenantScopeArgumentResolver}) and from there to services explicitly, never through a
+ * thread-local, so it stays correct on virtual threads and across async hand-offs.
+ *
+ * @param userId      the caller's user id, null for anonymous callers
+ * @param dealerId    the dealer the caller belongs to, null for EVM and admin accounts
+ * @param permissions {@link Permission} bitmask
+ * @param staffScoped true when the caller only sees records assigned to them
+ */
+public record TenantScope(String email, UUID userId, UUID dealerId, long permissions, boolean staffScoped) {
+
+    public static final String ATTRIBUTE = TenantScope.class.getName();
+
+    /** Callers without a valid token, e.g. on public endpoints. */
+    public static final TenantScope ANONYMOUS = new TenantScope(null, null, null, 0, false);
+
+    private static final String STAFF_ROLE = "DEALER_STAFF";
+
+    public static TenantScope of(VerifiedToken token) {
+        return new TenantScope(token.subject(), token.userId(), token.dealerId(), token.permissions(),
+                token.roles().contains(STAFF_ROLE));
+    }
+
+    public boolean has(Permission permission) {
+        return (permissions & permission.bit()) != 0;
+    }
+
+    public boolean isAnonymous() {
+        return email == null;
+    }
+
+    /**
+     * Dealer to filter by: the requested one for callers allowed to see every dealer (null
+     * meaning all), otherwise always the caller's own dealer.
+     */
+    public UUID dealerFor(UUID requestedDealerId) {
+        return has(Permission.ALL_DEALERS) ? requestedDealerId : dealerId;
+    }
+
+    /** Staff member whose assignments bound the caller's view, or null when not staff-scoped. */
+    public UUID assignedStaffId() {
+        return staffScoped ? userId : null;
+    }
+}
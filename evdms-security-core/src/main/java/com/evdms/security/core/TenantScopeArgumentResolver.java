@@ -0,0 +1,24 @@
+package com.evdms.security.core;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/** Supplies the request's {@link TenantScope} to handler parameters of that type. */
+public class TenantScopeArgumentResolver implements HandlerMethodArgumentResolver {
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.getParameterType() == TenantScope.class;
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+            NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        Object scope = webRequest.getAttribute(TenantScope.ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        return scope != null ? scope : TenantScope.ANONYMOUS;
+    }
+}
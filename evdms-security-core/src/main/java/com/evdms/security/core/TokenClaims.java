@@ -0,0 +1,23 @@
+package com.evdms.security.core;
+
+/**
+ * Claim names used in access tokens. Kept short because every request carries them; the
+ * subject ({@code sub}) is the user's e-mail.
+ */
+public final class TokenClaims {
+
+    public static final String ROLE = "role";
+    public static final String ROLES = "roles";
+    public static final String USERNAME = "username";
+    public static final String USER_ID = "uid";
+    public static final String DEALER_ID = "dlr";
+    /** {@link Permission} bitmask as a JSON number. */
+    public static final String PERMISSIONS = "prm";
+
+    /** Long names still accepted from tokens issued before the short ones. */
+    static final String LEGACY_USER_ID = "user_id";
+    static final String LEGACY_DEALER_ID = "dealer_id";
+
+    private TokenClaims() {
+    }
+}
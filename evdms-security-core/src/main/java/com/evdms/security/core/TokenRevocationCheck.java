@@ -0,0 +1,14 @@
+package com.evdms.security.core;
+
+/**
+ * Tells whether a validly signed, unexpired token was revoked (e.g. by logout). Services that
+ * track revocations expose one as a bean; it must answer locally (memory or a local replica),
+ * since it runs on every authenticated request.
+ */
+@FunctionalInterface
+public interface TokenRevocationCheck {
+
+    TokenRevocationCheck NONE = token -> false;
+
+    boolean isRevoked(String token);
+}
@@ -0,0 +1,80 @@
+package com.evdms.security.core;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Claims of an access token whose signature and expiry were checked, converted once so
+ * callers never re-parse the token or its claim values.
+ *
+ * @param subject     the user's e-mail
+ * @param role        the {@code role} claim, or the first of {@code roles}
+ * @param roles       all roles, from {@code roles} (list or string) or {@code role}
+ * @param permissions {@link Permission} bitmask from {@code prm}, or derived from the roles for
+ *                    tokens issued without it
+ */
+public record VerifiedToken(
+        String subject,
+        String role,
+        List<String> roles,
+        UUID userId,
+        UUID dealerId,
+        long permissions,
+        long expiresAtMillis,
+        Claims claims) {
+
+    /** @throws IllegalArgumentException if an id claim is not a UUID */
+    static VerifiedToken of(Claims claims) {
+        List<String> roles = roles(claims);
+        Object role = claims.get(TokenClaims.ROLE);
+        Object permissions = claims.get(TokenClaims.PERMISSIONS);
+        Date expiration = claims.getExpiration();
+        return new VerifiedToken(
+                claims.getSubject(),
+                role != null ? role.toString() : roles.isEmpty() ? null : roles.get(0),
+                roles,
+                uuid(claims, TokenClaims.USER_ID, TokenClaims.LEGACY_USER_ID),
+                uuid(claims, TokenClaims.DEALER_ID, TokenClaims.LEGACY_DEALER_ID),
+                permissions instanceof Number n ? n.longValue() : RolePermissions.maskOf(roles),
+                expiration != null ? expiration.getTime() : Long.MAX_VALUE,
+                claims);
+    }
+
+    public boolean hasPermission(Permission permission) {
+        return (permissions & permission.bit()) != 0;
+    }
+
+    public boolean isExpired(long nowMillis) {
+        return nowMillis >= expiresAtMillis;
+    }
+
+    public long remainingSeconds() {
+        if (expiresAtMillis == Long.MAX_VALUE)
+            return 0;
+        long remainingMillis = expiresAtMillis - System.currentTimeMillis();
+        return remainingMillis <= 0 ? 0 : (remainingMillis + 999) / 1000;
+    }
+
+    private static List<String> roles(Claims claims) {
+        Object claim = claims.get(TokenClaims.ROLES);
+        if (claim == null)
+            claim = claims.get(TokenClaims.ROLE);
+        if (claim instanceof List<?> list) {
+            return list.stream().map(Object::toString).toList();
+        }
+        if (claim instanceof String s && !s.isBlank()) {
+            return List.of(s);
+        }
+        return List.of();
+    }
+
+    private static UUID uuid(Claims claims, String name, String legacyName) {
+        Object claim = claims.get(name);
+        if (claim == null)
+            claim = claims.get(legacyName);
+        return claim != null ? UUID.fromString(claim.toString()) : null;
+    }
+}
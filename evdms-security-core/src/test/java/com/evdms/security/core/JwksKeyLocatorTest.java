@@ -0,0 +1,110 @@
+package com.evdms.security.core;
+
+import com.sun.net.httpserver.HttpServer;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwks;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.interfaces.ECPublicKey;
+import java.time.Duration;
+import java.util.Date;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwksKeyLocatorTest {
+
+    private final KeyPair first = Jwts.SIG.ES256.keyPair().build();
+    private final KeyPair second = Jwts.SIG.ES256.keyPair().build();
+
+    private HttpServer server;
+    private volatile String document;
+    private JwksKeyLocator locator;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        document = jwks(Map.of("k1", first));
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/.well-known/jwks.json", exchange -> {
+            byte[] body = document.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        URI uri = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/.well-known/jwks.json");
+        locator = new JwksKeyLocator(uri, Duration.ofMinutes(5), Duration.ZERO, Duration.ofSeconds(2));
+        locator.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        locator.close();
+        server.stop(0);
+    }
+
+    @Test
+    void verifiesByKidAndPicksUpRotatedKeyInBackground() throws Exception {
+        JwtVerifier verifier = new JwtVerifier(locator, false, 0);
+        assertEquals("staff@example.com", verifier.verify(token("k1", first)).orElseThrow().subject());
+
+        // Published after startup: first use is rejected without waiting, then the reload finds it
+        document = jwks(Map.of("k1", first, "k2", second));
+        String rotated = token("k2", second);
+        assertTrue(verifier.verify(rotated).isEmpty());
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!locator.keys().containsKey("k2") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(verifier.verify(rotated).isPresent());
+    }
+
+    @Test
+    void rejectsMissingKidAndKeyMismatch() {
+        JwtVerifier verifier = new JwtVerifier(locator, false, 0);
+
+        assertTrue(verifier.verify(token(null, first)).isEmpty());
+        assertTrue(verifier.verify(token("k1", second)).isEmpty());
+    }
+
+    @Test
+    void keepsKnownKeysWhenReloadFails() {
+        document = "not json";
+
+        assertFalse(locator.refresh());
+        assertTrue(locator.keys().containsKey("k1"));
+    }
+
+    private static String jwks(Map<String, KeyPair> keys) {
+        StringBuilder json = new StringBuilder("{\"keys\":[");
+        keys.forEach((kid, pair) -> {
+            if (json.charAt(json.length() - 1) != '[') {
+                json.append(',');
+            }
+            json.append('{');
+            Jwks.builder().key((ECPublicKey) pair.getPublic()).id(kid).build()
+                    .forEach((name, value) -> json.append('"').append(name).append("\":\"").append(value).append("\","));
+            json.setCharAt(json.length() - 1, '}');
+        });
+        return json.append("]}").toString();
+    }
+
+    private static String token(String kid, KeyPair pair) {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .header().keyId(kid).and()
+                .subject("staff@example.com")
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + 60_000))
+                .signWith(pair.getPrivate(), Jwts.SIG.ES256)
+                .compact();
+    }
+}
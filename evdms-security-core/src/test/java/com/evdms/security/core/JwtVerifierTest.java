@@ -0,0 +1,92 @@
+package com.evdms.security.core;
+
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtVerifierTest {
+
+    private static final SecretKey KEY = JwtKeys.hmacKey("this-is-a-very-long-secret-key-for-jwt-token-validation");
+
+    private final JwtVerifier verifier = new JwtVerifier(KEY, true, 100);
+
+    @Test
+    void verifiesClaimsOnceAndServesReplaysFromCache() {
+        UUID userId = UUID.randomUUID();
+        UUID dealerId = UUID.randomUUID();
+        String token = token(KEY, Map.of("role", "DEALER_STAFF", "user_id", userId.toString(),
+                "dealer_id", dealerId.toString()), 60_000);
+
+        VerifiedToken first = verifier.verify(token).orElseThrow();
+        assertEquals("staff@example.com", first.subject());
+        assertEquals("DEALER_STAFF", first.role());
+        assertEquals(List.of("DEALER_STAFF"), first.roles());
+        assertEquals(userId, first.userId());
+        assertEquals(dealerId, first.dealerId());
+
+        assertSame(first, verifier.verify(token).orElseThrow());
+    }
+
+    @Test
+    void readsShortClaimsAndPermissionMask() {
+        UUID userId = UUID.randomUUID();
+        long mask = Permission.mask(Permission.CUSTOMER_READ, Permission.LEAD_ASSIGN);
+        String token = token(KEY, Map.of("role", "DEALER_MANAGER", "uid", userId.toString(), "prm", mask), 60_000);
+
+        VerifiedToken verified = verifier.verify(token).orElseThrow();
+        assertEquals(userId, verified.userId());
+        assertEquals(mask, verified.permissions());
+        assertTrue(verified.hasPermission(Permission.LEAD_ASSIGN));
+        assertFalse(verified.hasPermission(Permission.CUSTOMER_DELETE));
+    }
+
+    @Test
+    void derivesPermissionsFromRoleWhenMaskIsMissing() {
+        VerifiedToken verified = verifier.verify(token(KEY, Map.of("role", "DEALER_STAFF"), 60_000)).orElseThrow();
+
+        assertEquals(RolePermissions.maskOf("DEALER_STAFF"), verified.permissions());
+        assertTrue(verified.hasPermission(Permission.CUSTOMER_WRITE));
+        assertFalse(verified.hasPermission(Permission.CUSTOMER_DELETE));
+    }
+
+    @Test
+    void rejectsForeignSignatureExpiryAndGarbage() {
+        SecretKey other = JwtKeys.hmacKey("another-secret-key-that-is-long-enough-for-hs256-signing");
+
+        assertTrue(verifier.verify(token(other, Map.of("role", "ADMIN"), 60_000)).isEmpty());
+        assertTrue(verifier.verify(token(KEY, Map.of("role", "ADMIN"), -1_000)).isEmpty());
+        assertTrue(verifier.verify("not.a.jwt").isEmpty());
+        assertTrue(verifier.verify("").isEmpty());
+        assertTrue(verifier.verify(null).isEmpty());
+    }
+
+    @Test
+    void readsRoleListClaim() {
+        String token = token(KEY, Map.of("roles", List.of("ADMIN", "EVM_STAFF")), 60_000);
+
+        VerifiedToken verified = verifier.verify(token).orElseThrow();
+        assertEquals(List.of("ADMIN", "EVM_STAFF"), verified.roles());
+        assertEquals("ADMIN", verified.role());
+    }
+
+    private static String token(SecretKey key, Map<String, ?> claims, long ttlMillis) {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .claims(claims)
+                .subject("staff@example.com")
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + ttlMillis))
+                .signWith(key)
+                .compact();
+    }
+}
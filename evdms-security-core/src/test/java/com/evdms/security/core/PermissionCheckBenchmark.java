@@ -0,0 +1,90 @@
+package com.evdms.security.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.access.expression.ExpressionUtils;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.util.SimpleMethodInvocation;
+import org.springframework.web.method.HandlerMethod;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request authorization cost: the former {@code @PreAuthorize("hasAnyAuthority(...)")}
+ * evaluation (a fresh evaluation context per call, as Spring Security builds one) against
+ * {@link PermissionInterceptor}. Not run by the test suite; after {@code mvn test-compile}:
+ *
+ * <pre>
+ * mvn -q dependency:build-classpath -Dmdep.outputFile=cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat cp.txt) org.openjdk.jmh.Main PermissionCheckBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PermissionCheckBenchmark {
+
+    private final DefaultMethodSecurityExpressionHandler expressionHandler = new DefaultMethodSecurityExpressionHandler();
+    private final PermissionInterceptor interceptor = new PermissionInterceptor();
+    private final MockHttpServletRequest request = new MockHttpServletRequest();
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    private Expression expression;
+    private Authentication authentication;
+    private Handlers target;
+    private Method method;
+    private HandlerMethod handlerMethod;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        expression = expressionHandler.getExpressionParser()
+                .parseExpression("hasAnyAuthority('ADMIN','DEALER_MANAGER','DEALER_STAFF','USER')");
+        VerifiedToken token = new VerifiedToken("staff@example.com", "DEALER_STAFF", List.of("DEALER_STAFF"),
+                null, null, RolePermissions.maskOf("DEALER_STAFF"), Long.MAX_VALUE, null);
+        JwtAuthentication jwt = new JwtAuthentication(token, List.of(new SimpleGrantedAuthority("DEALER_STAFF")));
+        authentication = jwt;
+        request.setAttribute(TenantScope.ATTRIBUTE, jwt.getScope());
+        target = new Handlers();
+        method = Handlers.class.getMethod("list");
+        handlerMethod = new HandlerMethod(target, method);
+    }
+
+    @Benchmark
+    public boolean spelHasAnyAuthority() {
+        EvaluationContext context = expressionHandler.createEvaluationContext(() -> authentication,
+                new SimpleMethodInvocation(target, method));
+        return ExpressionUtils.evaluateAsBoolean(expression, context);
+    }
+
+    @Benchmark
+    public boolean permissionBitTest() {
+        return interceptor.preHandle(request, response, handlerMethod);
+    }
+
+    public static class Handlers {
+
+        @RequiresPermission(Permission.CUSTOMER_READ)
+        public void list() {
+        }
+    }
+}
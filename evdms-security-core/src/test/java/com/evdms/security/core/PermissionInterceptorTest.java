@@ -0,0 +1,82 @@
+package com.evdms.security.core;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PermissionInterceptorTest {
+
+    private final PermissionInterceptor interceptor = new PermissionInterceptor();
+    private TenantScope scope;
+
+    @Test
+    void allowsWhenEveryRequiredBitIsGranted() throws Exception {
+        authenticate(Permission.mask(Permission.LEAD_WRITE, Permission.CUSTOMER_WRITE));
+
+        assertTrue(preHandle("convert"));
+        assertTrue(preHandle("open"));
+    }
+
+    @Test
+    void deniesWhenAnyRequiredBitIsMissing() {
+        authenticate(Permission.mask(Permission.LEAD_WRITE));
+
+        assertThrows(AccessDeniedException.class, () -> preHandle("convert"));
+    }
+
+    @Test
+    void classLevelAnnotationAppliesAndUnauthenticatedCallersAreDenied() throws Exception {
+        assertThrows(AccessDeniedException.class, () -> preHandle("inherited"));
+
+        authenticate(Permission.mask(Permission.CUSTOMER_READ));
+        assertThrows(AccessDeniedException.class, () -> preHandle("inherited"));
+        authenticate(Permission.mask(Permission.SEGMENT_READ));
+        assertTrue(preHandle("inherited"));
+    }
+
+    @Test
+    void emptyPermissionListStillRequiresAnAuthenticatedCaller() throws Exception {
+        assertThrows(AccessDeniedException.class, () -> preHandle("open"));
+
+        authenticate(0);
+        assertTrue(preHandle("open"));
+    }
+
+    private boolean preHandle(String method) throws Exception {
+        HandlerMethod handler = new HandlerMethod(new Handlers(), Handlers.class.getMethod(method));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        if (scope != null) {
+            request.setAttribute(TenantScope.ATTRIBUTE, scope);
+        }
+        return interceptor.preHandle(request, new MockHttpServletResponse(), handler);
+    }
+
+    private void authenticate(long permissions) {
+        scope = new TenantScope("staff@example.com", null, null, permissions, true);
+    }
+
+    @RequiresPermission(Permission.SEGMENT_READ)
+    static class Handlers {
+
+        @RequiresPermission({ Permission.LEAD_WRITE, Permission.CUSTOMER_WRITE })
+        public Map<String, String> convert() {
+            return Map.of();
+        }
+
+        @RequiresPermission({})
+        public Map<String, String> open() {
+            return Map.of();
+        }
+
+        public Map<String, String> inherited() {
+            return Map.of();
+        }
+    }
+}
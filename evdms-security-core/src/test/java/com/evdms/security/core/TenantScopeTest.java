@@ -0,0 +1,44 @@
+package com.evdms.security.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TenantScopeTest {
+
+    private static final UUID USER = UUID.randomUUID();
+    private static final UUID DEALER = UUID.randomUUID();
+    private static final UUID OTHER_DEALER = UUID.randomUUID();
+
+    @Test
+    void dealerAccountsAreBoundToTheirOwnDealer() {
+        TenantScope staff = scope("DEALER_STAFF");
+
+        assertEquals(DEALER, staff.dealerFor(OTHER_DEALER));
+        assertEquals(DEALER, staff.dealerFor(null));
+        assertEquals(USER, staff.assignedStaffId());
+
+        TenantScope manager = scope("DEALER_MANAGER");
+        assertEquals(DEALER, manager.dealerFor(OTHER_DEALER));
+        assertNull(manager.assignedStaffId());
+    }
+
+    @Test
+    void crossDealerCallersChooseTheDealer() {
+        TenantScope admin = scope("ADMIN");
+
+        assertEquals(OTHER_DEALER, admin.dealerFor(OTHER_DEALER));
+        assertNull(admin.dealerFor(null));
+        assertTrue(TenantScope.ANONYMOUS.isAnonymous());
+    }
+
+    private static TenantScope scope(String role) {
+        return TenantScope.of(new VerifiedToken("user@example.com", role, List.of(role), USER, DEALER,
+                RolePermissions.maskOf(role), Long.MAX_VALUE, null));
+    }
+}
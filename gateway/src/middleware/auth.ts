@@ -1,7 +1,59 @@
 import { Request, Response, NextFunction } from 'express';
-import jwt from 'jsonwebtoken';
+import { createPublicKey, KeyObject } from 'crypto';
+import axios from 'axios';
+import jwt, { JwtHeader, SigningKeyCallback } from 'jsonwebtoken';
 
-const JWT_SECRET = process.env.JWT_SECRET || 'your-secret-key-change-in-production';
+// Access tokens are ES256, signed by auth-service; its public keys are published as a JWKS
+const AUTH_SERVICE_URL = process.env.AUTH_SERVICE_URL || 'http://localhost:3001';
+const JWKS_URI = process.env.JWKS_URI || `${AUTH_SERVICE_URL}/.well-known/jwks.json`;
+const JWKS_REFRESH_MS = Number(process.env.JWKS_REFRESH_MS || 5 * 60_000);
+const JWKS_MIN_REFRESH_MS = Number(process.env.JWKS_MIN_REFRESH_MS || 30_000);
+
+let keys = new Map<string, KeyObject>();
+let lastRefreshAt = 0;
+
+/**
+ * Reloads the verification keys; a failed reload keeps the previous ones.
+ * Only public EC keys are accepted.
+ */
+export async function refreshKeys(): Promise<void> {
+  lastRefreshAt = Date.now();
+  try {
+    const { data } = await axios.get(JWKS_URI, { timeout: 5000 });
+    const loaded = new Map<string, KeyObject>();
+    for (const jwk of data.keys ?? []) {
+      if (jwk.kty === 'EC' && jwk.kid && !jwk.d) {
+        loaded.set(jwk.kid, createPublicKey({ key: jwk, format: 'jwk' }));
+      }
+    }
+    keys = loaded;
+  } catch (error: any) {
+    console.error(`[AUTH] JWKS refresh from ${JWKS_URI} failed, keeping ${keys.size} keys:`, error.message);
+  }
+}
+
+refreshKeys();
+setInterval(refreshKeys, JWKS_REFRESH_MS).unref();
+
+// An unknown kid is rejected right away and triggers at most one early reload per window,
+// so a freshly rotated key is picked up without stalling requests
+function signingKey(header: JwtHeader, callback: SigningKeyCallback) {
+  const key = header.kid ? keys.get(header.kid) : undefined;
+  if (!key) {
+    if (Date.now() - lastRefreshAt >= JWKS_MIN_REFRESH_MS) {
+      refreshKeys();
+    }
+    return callback(new Error(`Unknown signing key id: ${header.kid}`));
+  }
+  callback(null, key);
+}
+
+function verifyToken(token: string): Promise<any> {
+  return new Promise((resolve, reject) => {
+    jwt.verify(token, signingKey, { algorithms: ['ES256'] }, (error, decoded) =>
+      error ? reject(error) : resolve(decoded));
+  });
+}
 
 export interface AuthRequest extends Request {
   user?: {
@@ -27,22 +79,24 @@ export function authenticateToken(req: AuthRequest, res: Response, next: NextFun
     });
   }
 
-  try {
-    const decoded = jwt.verify(token, JWT_SECRET) as any;
-    req.user = decoded;
-    next();
-  } catch (error: any) {
-    if (error.name === 'TokenExpiredError') {
-      return res.status(401).json({ 
+  verifyToken(token).then(
+    (decoded) => {
+      req.user = decoded;
+      next();
+    },
+    (error: any) => {
+      if (error.name === 'TokenExpiredError') {
+        return res.status(401).json({ 
+          success: false, 
+          error: 'Token expired' 
+        });
+      }
+      return res.status(403).json({ 
         success: false, 
-        error: 'Token expired' 
+        error: 'Invalid token' 
       });
-    }
-    return res.status(403).json({ 
-      success: false, 
-      error: 'Invalid token' 
-    });
-  }
+    },
+  );
 }
 
 /**
@@ -57,14 +111,16 @@ export function optionalAuth(req: AuthRequest, res: Response, next: NextFunction
     return next();
   }
 
-  try {
-    const decoded = jwt.verify(token, JWT_SECRET) as any;
-    req.user = decoded;
-  } catch (error) {
-    // Silently fail for optional auth
-  }
-  
-  next();
+  verifyToken(token).then(
+    (decoded) => {
+      req.user = decoded;
+      next();
+    },
+    () => {
+      // Silently fail for optional auth
+      next();
+    },
+  );
 }
 
 /**
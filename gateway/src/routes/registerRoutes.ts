@@ -15,6 +15,8 @@ const createProxy = (target: string) =>
   createProxyMiddleware({
     target,
     changeOrigin: true,
+    // Append the client address to X-Forwarded-For; services key rate limits on it
+    xfwd: true,
     timeout: 30000, // 30 second timeout
     onProxyReq: (proxyReq, req, res) => {
       console.log(`[PROXY] ${req.method} ${req.path} -> ${target}${req.path}`)
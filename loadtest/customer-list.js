@@ -0,0 +1,53 @@
+// k6 load test: customer list under 2,000 concurrent clients.
+//
+// Run once per thread mode against the production compose stack and compare the p(99) lines:
+//   VIRTUAL_THREADS_ENABLED=false make up && make loadtest LOADTEST_EMAIL=... LOADTEST_PASSWORD=...
+//   VIRTUAL_THREADS_ENABLED=true  make up && make loadtest LOADTEST_EMAIL=... LOADTEST_PASSWORD=...
+//
+// Environment: AUTH_URL, CUSTOMER_URL, LOADTEST_EMAIL, LOADTEST_PASSWORD, VUS, DURATION.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const AUTH_URL = __ENV.AUTH_URL || 'http://localhost:3001';
+const CUSTOMER_URL = __ENV.CUSTOMER_URL || 'http://localhost:3003';
+const VUS = Number(__ENV.VUS || 2000);
+
+export const options = {
+  scenarios: {
+    customers: {
+      executor: 'ramping-vus',
+      startVUs: 0,
+      stages: [
+        { duration: '30s', target: VUS },
+        { duration: __ENV.DURATION || '2m', target: VUS },
+        { duration: '10s', target: 0 },
+      ],
+      gracefulRampDown: '10s',
+    },
+  },
+  summaryTrendStats: ['avg', 'med', 'p(90)', 'p(95)', 'p(99)', 'max'],
+  thresholds: {
+    http_req_failed: ['rate<0.01'],
+  },
+};
+
+// One login for the whole run: the test measures the customer list, not auth-service
+export function setup() {
+  if (!__ENV.LOADTEST_EMAIL || !__ENV.LOADTEST_PASSWORD) {
+    throw new Error('LOADTEST_EMAIL and LOADTEST_PASSWORD must name an existing ADMIN or dealer account');
+  }
+  const res = http.post(`${AUTH_URL}/api/v1/auth/login`, JSON.stringify({
+    email: __ENV.LOADTEST_EMAIL,
+    password: __ENV.LOADTEST_PASSWORD,
+  }), { headers: { 'Content-Type': 'application/json' } });
+  check(res, { 'logged in': (r) => r.status === 200 });
+  return { token: res.json('token') };
+}
+
+export default function (data) {
+  const res = http.get(`${CUSTOMER_URL}/api/v1/customers`, {
+    headers: { Authorization: `Bearer ${data.token}` },
+    tags: { name: 'GET /api/v1/customers' },
+  });
+  check(res, { 'status 200': (r) => r.status === 200 });
+}